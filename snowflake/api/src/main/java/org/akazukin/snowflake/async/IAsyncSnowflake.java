@@ -0,0 +1,38 @@
+package org.akazukin.snowflake.async;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking access to a SnowFlake ID generator.
+ * <p>
+ * Identifiers whose timestamp is still ahead of the clock, because the sequence of the current
+ * millisecond is exhausted, are completed once the clock reaches that millisecond, on a scheduler
+ * thread rather than by blocking the caller.
+ */
+public interface IAsyncSnowflake {
+    /**
+     * Returns the next identifier once its millisecond has come.
+     *
+     * @return future completed with the identifier, or exceptionally if the generator refuses one
+     */
+    CompletableFuture<Long> nextIdAsync();
+
+    /**
+     * Returns the next {@code count} identifiers in ascending order once the millisecond of the last one has come.
+     *
+     * @param count number of identifiers (non-negative)
+     * @return future completed with the identifiers, or exceptionally if the generator refuses them
+     * @throws IllegalArgumentException if {@code count} is negative
+     */
+    CompletableFuture<long[]> nextIdsAsync(int count);
+
+    /**
+     * Returns an endless publisher of batches of identifiers.
+     * Every subscriber receives its own identifiers; a batch is only generated once it was requested.
+     *
+     * @param batchSize number of identifiers per batch (positive)
+     * @return publisher of ascending batches
+     * @throws IllegalArgumentException if {@code batchSize} is not positive
+     */
+    ISnowflakePublisher publisher(int batchSize);
+}
@@ -0,0 +1,15 @@
+package org.akazukin.snowflake.async;
+
+/**
+ * Producer of batches of identifiers, shaped after {@code java.util.concurrent.Flow.Publisher}.
+ */
+@FunctionalInterface
+public interface ISnowflakePublisher {
+    /**
+     * Adds a subscriber, which first receives its subscription through
+     * {@link ISnowflakeSubscriber#onSubscribe(ISnowflakeSubscription)}.
+     *
+     * @param subscriber subscriber (must not be null)
+     */
+    void subscribe(ISnowflakeSubscriber subscriber);
+}
@@ -0,0 +1,35 @@
+package org.akazukin.snowflake.async;
+
+/**
+ * Receiver of batches of identifiers, shaped after {@code java.util.concurrent.Flow.Subscriber}.
+ * <p>
+ * The methods of one subscriber are called one at a time, and {@link #onNext(long[])}
+ * at most as many times as batches were requested.
+ */
+public interface ISnowflakeSubscriber {
+    /**
+     * Called once before any other method.
+     *
+     * @param subscription subscription to request batches with
+     */
+    void onSubscribe(ISnowflakeSubscription subscription);
+
+    /**
+     * Receives the next batch.
+     *
+     * @param ids ascending identifiers, owned by the subscriber
+     */
+    void onNext(long[] ids);
+
+    /**
+     * Called when the generator failed or the subscription was misused; nothing follows.
+     *
+     * @param throwable cause
+     */
+    void onError(Throwable throwable);
+
+    /**
+     * Called when no more batches follow.
+     */
+    void onComplete();
+}
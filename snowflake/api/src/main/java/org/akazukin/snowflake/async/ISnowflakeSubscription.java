@@ -0,0 +1,19 @@
+package org.akazukin.snowflake.async;
+
+/**
+ * Link between a publisher and a subscriber, shaped after {@code java.util.concurrent.Flow.Subscription}.
+ */
+public interface ISnowflakeSubscription {
+    /**
+     * Adds demand for more batches. A non-positive demand cancels the subscription
+     * and signals an {@link IllegalArgumentException} to the subscriber.
+     *
+     * @param n number of additional batches
+     */
+    void request(long n);
+
+    /**
+     * Stops sending batches. Batches already generated but not delivered are dropped.
+     */
+    void cancel();
+}
@@ -0,0 +1,9 @@
+/**
+ * Provides the non-blocking facade over the SnowFlake ID generators.
+ * <p>
+ * An {@link org.akazukin.snowflake.async.IAsyncSnowflake} hands out identifiers as futures and as a
+ * publisher of batches, and delays them until the clock reaches their timestamp instead of blocking.
+ * The publisher interfaces follow the shape of {@code java.util.concurrent.Flow}, which is not
+ * available on Java 8, and adapt to it or to Reactive Streams with a few lines.
+ */
+package org.akazukin.snowflake.async;
@@ -0,0 +1,30 @@
+package org.akazukin.snowflake.clock;
+
+/**
+ * Source of the current time used by the SnowFlake ID generators.
+ * <p>
+ * Generators read the clock once per identifier (or once per reserved block),
+ * so implementations should be cheap and thread-safe. The returned values do not
+ * have to be strictly monotonic; generators tolerate a clock that stands still
+ * or steps backwards.
+ */
+public interface IClock {
+    /**
+     * Returns the current time in milliseconds since the Unix epoch.
+     *
+     * @return current time in milliseconds
+     */
+    long currentTimeMillis();
+
+    /**
+     * Returns the current time in microseconds since the Unix epoch.
+     * Read instead of {@link #currentTimeMillis()} by generators whose ticks are shorter than a millisecond.
+     * <p>
+     * The default implementation has millisecond resolution; clocks with a finer resolution override it.
+     *
+     * @return current time in microseconds
+     */
+    default long currentTimeMicros() {
+        return this.currentTimeMillis() * 1_000L;
+    }
+}
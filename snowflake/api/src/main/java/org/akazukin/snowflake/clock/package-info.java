@@ -0,0 +1,8 @@
+/**
+ * Provides the time source abstraction for the SnowFlake ID generation algorithm.
+ * <p>
+ * Generators read the timestamp component of every identifier from an
+ * {@link org.akazukin.snowflake.clock.IClock}, which allows cheaper time sources
+ * and deterministic clocks in tests.
+ */
+package org.akazukin.snowflake.clock;
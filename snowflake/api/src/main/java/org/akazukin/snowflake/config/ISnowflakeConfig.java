@@ -47,4 +47,17 @@ public interface ISnowflakeConfig {
      * @return sequence bits
      */
     byte getSequenceBits();
+
+    /**
+     * The length of one step of the timestamp component.
+     * <br>
+     * Shorter ticks allow more identifiers per second for the same sequence bits,
+     * but the timestamp bits run out sooner; longer ticks do the opposite.
+     * Ticks shorter than a millisecond require a clock with a finer resolution than milliseconds.
+     *
+     * @return tick length in microseconds, one millisecond by default
+     */
+    default long getTickMicros() {
+        return 1_000L;
+    }
 }
@@ -1,5 +1,7 @@
 package org.akazukin.snowflake.generator;
 
+import java.util.NoSuchElementException;
+
 /**
  * API for producing 64-bit identifiers.
  * <p>
@@ -18,4 +20,74 @@ public interface ISnowflake {
      * @return next 64-bit identifier
      */
     long nextId();
+
+    /**
+     * Fills the given array range with the next identifiers in ascending order.
+     * <p>
+     * The default implementation calls {@link #nextId()} once per identifier.
+     * Implementations are encouraged to reserve the whole block at once.
+     *
+     * @param dst destination array
+     * @param off first index to write
+     * @param len number of identifiers to write
+     * @throws IndexOutOfBoundsException if the range is outside the bounds of {@code dst}
+     */
+    default void nextIds(final long[] dst, final int off, final int len) {
+        if (off < 0 || len < 0 || off > dst.length - len) {
+            throw new IndexOutOfBoundsException("off: " + off + ", len: " + len + ", length: " + dst.length);
+        }
+        for (int i = off, end = off + len; i < end; i++) {
+            dst[i] = this.nextId();
+        }
+    }
+
+    /**
+     * Reserves the next {@code count} identifiers and returns them as a lease.
+     * <p>
+     * The default implementation generates the identifiers eagerly into an array.
+     * Implementations are encouraged to reserve a contiguous block and compose the identifiers lazily.
+     *
+     * @param count number of identifiers to reserve (non-negative)
+     * @return lease over the reserved identifiers
+     * @throws IllegalArgumentException if {@code count} is negative
+     */
+    default ISnowflakeLease lease(final int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count must not be negative");
+        }
+        final long[] ids = new long[count];
+        this.nextIds(ids, 0, count);
+        return new ISnowflakeLease() {
+            int idx;
+
+            @Override
+            public int remaining() {
+                return ids.length - this.idx;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return this.idx < ids.length;
+            }
+
+            @Override
+            public long nextLong() {
+                if (this.idx >= ids.length) {
+                    throw new NoSuchElementException();
+                }
+                return ids[this.idx++];
+            }
+        };
+    }
+
+    /**
+     * Returns the counters of this generator.
+     * <p>
+     * The default implementation returns {@link ISnowflakeMetrics#NONE}.
+     *
+     * @return live metrics of this generator
+     */
+    default ISnowflakeMetrics getMetrics() {
+        return ISnowflakeMetrics.NONE;
+    }
 }
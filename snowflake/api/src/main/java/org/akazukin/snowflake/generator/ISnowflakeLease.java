@@ -0,0 +1,23 @@
+package org.akazukin.snowflake.generator;
+
+import java.util.PrimitiveIterator;
+
+/**
+ * A block of identifiers reserved in advance from an {@link ISnowflake}.
+ * <p>
+ * The identifiers are reserved at once when the lease is created and are yielded
+ * lazily in ascending order as primitives, so iterating a lease does not allocate per identifier.
+ * Identifiers that are never consumed are simply discarded and will not be issued again.
+ * <p>
+ * A lease is not thread-safe and is intended to be consumed by a single thread.
+ *
+ * @see ISnowflake#lease(int)
+ */
+public interface ISnowflakeLease extends PrimitiveIterator.OfLong {
+    /**
+     * Returns the number of identifiers that have not been consumed yet.
+     *
+     * @return remaining identifiers in this lease
+     */
+    int remaining();
+}
@@ -0,0 +1,76 @@
+package org.akazukin.snowflake.generator;
+
+/**
+ * Counters describing the work of an {@link ISnowflake} since it was created.
+ * <p>
+ * Counters a generator does not maintain read {@code 0}, as do all counters of
+ * a generator whose metrics are disabled. Values read while the generator is in use
+ * are not a consistent snapshot of each other.
+ *
+ * @see ISnowflake#getMetrics()
+ */
+public interface ISnowflakeMetrics {
+    /**
+     * Metrics of a generator that records nothing.
+     */
+    ISnowflakeMetrics NONE = new ISnowflakeMetrics() {
+    };
+
+    /**
+     * Returns the number of identifiers issued, including the ones reserved in blocks.
+     *
+     * @return number of identifiers
+     */
+    default long getIssuedIds() {
+        return 0;
+    }
+
+    /**
+     * Returns the number of times an identifier was taken from a later millisecond
+     * than the clock because the sequence of the current one was exhausted.
+     *
+     * @return number of sequence exhaustions
+     */
+    default long getSequenceExhaustions() {
+        return 0;
+    }
+
+    /**
+     * Returns the number of distinct clock milliseconds in which identifiers were issued ahead of the clock.
+     * A tick of several milliseconds counts all of them.
+     *
+     * @return borrowed milliseconds
+     */
+    default long getBorrowedMillis() {
+        return 0;
+    }
+
+    /**
+     * Returns the number of failed compare-and-set attempts on the state of the generator.
+     *
+     * @return number of retries
+     */
+    default long getCasRetries() {
+        return 0;
+    }
+
+    /**
+     * Returns the number of times a thread moved to another slot of a pooled generator
+     * because its own slot was held.
+     *
+     * @return number of slot hops
+     */
+    default long getSlotHops() {
+        return 0;
+    }
+
+    /**
+     * Returns the number of times a thread waited for a free pool slot or for the clock to catch up
+     * with a regression. Backing off after a lost compare-and-set is counted by {@link #getCasRetries()} only.
+     *
+     * @return number of waits
+     */
+    default long getWaits() {
+        return 0;
+    }
+}
@@ -0,0 +1,17 @@
+package org.akazukin.snowflake.generator;
+
+/**
+ * Decides how a thread waits while a generator is contended,
+ * e.g. after a failed compare-and-set or while all slots of a pool are held.
+ * <p>
+ * Implementations must be thread-safe and should keep the time spent in a single call short;
+ * the caller retries after every call.
+ */
+public interface IWaitStrategy {
+    /**
+     * Waits before the next attempt.
+     *
+     * @param attempt number of consecutive failed attempts before this call, starting at {@code 0}
+     */
+    void idle(int attempt);
+}
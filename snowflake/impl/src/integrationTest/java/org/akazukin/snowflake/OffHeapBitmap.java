@@ -0,0 +1,69 @@
+package org.akazukin.snowflake;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+
+/**
+ * Bitmap over non-negative long indices, kept in direct buffers outside the heap.
+ * Chunks are allocated on first use, so sparse index ranges only cost the chunks they touch.
+ * Not thread-safe.
+ */
+final class OffHeapBitmap {
+    /**
+     * Each chunk covers 2^23 bits, one mebibyte.
+     */
+    private static final int CHUNK_BITS = 23;
+    private static final long CHUNK_MASK = (1L << CHUNK_BITS) - 1;
+
+    private LongBuffer[] chunks = new LongBuffer[64];
+    private int allocatedChunks;
+
+    /**
+     * Sets the bit at the given index.
+     *
+     * @param index non-negative index
+     * @return {@code false} if the bit was already set
+     * @throws IndexOutOfBoundsException if the index is negative or too large
+     */
+    boolean add(final long index) {
+        final long chunkIndex = index >>> CHUNK_BITS;
+        if (index < 0 || chunkIndex >= Integer.MAX_VALUE) {
+            throw new IndexOutOfBoundsException(Long.toString(index));
+        }
+        final LongBuffer chunk = this.chunk((int) chunkIndex);
+
+        final int word = (int) ((index & CHUNK_MASK) >>> 6);
+        final long bit = 1L << index;
+        final long value = chunk.get(word);
+        if ((value & bit) != 0) {
+            return false;
+        }
+        chunk.put(word, value | bit);
+        return true;
+    }
+
+    /**
+     * Returns the off-heap memory taken by the allocated chunks.
+     *
+     * @return size in bytes
+     */
+    long getAllocatedBytes() {
+        return (long) this.allocatedChunks << (CHUNK_BITS - 3);
+    }
+
+    private LongBuffer chunk(final int chunkIndex) {
+        if (chunkIndex >= this.chunks.length) {
+            this.chunks = Arrays.copyOf(this.chunks, Math.max(chunkIndex + 1, this.chunks.length * 2));
+        }
+        LongBuffer chunk = this.chunks[chunkIndex];
+        if (chunk == null) {
+            // Direct buffers are zeroed on allocation
+            chunk = ByteBuffer.allocateDirect(1 << (CHUNK_BITS - 3)).order(ByteOrder.nativeOrder()).asLongBuffer();
+            this.chunks[chunkIndex] = chunk;
+            this.allocatedChunks++;
+        }
+        return chunk;
+    }
+}
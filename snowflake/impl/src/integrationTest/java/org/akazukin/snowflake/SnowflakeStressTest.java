@@ -0,0 +1,105 @@
+package org.akazukin.snowflake;
+
+import org.akazukin.snowflake.config.SnowflakeConfig;
+import org.akazukin.snowflake.generator.AtomicSnowflake;
+import org.akazukin.snowflake.generator.BufferedSnowflake;
+import org.akazukin.snowflake.generator.ISnowflake;
+import org.akazukin.snowflake.generator.LockFreeSnowflake;
+import org.akazukin.snowflake.generator.ReentrantSnowflake;
+import org.akazukin.snowflake.generator.Snowflake;
+import org.akazukin.snowflake.generator.ThreadedSnowflake;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Uniqueness and ordering of high volumes of identifiers under a jumping clock, see {@link StressHarness}.
+ * <p>
+ * The volume is set with the {@code snowflake.stress.ids} (identifiers per generator) and
+ * {@code snowflake.stress.threads} system properties, which the build forwards from the
+ * project properties of the same name. The throughput and the verdict of every run are published
+ * as report entries of its test.
+ */
+public final class SnowflakeStressTest {
+    private static final long IDS = Long.getLong("snowflake.stress.ids", 8_000_000);
+    private static final int THREADS = Integer.getInteger("snowflake.stress.threads", 8);
+
+    /**
+     * One machine identifier per thread, and only 1024 identifiers per millisecond,
+     * so the generators keep running into the borrow bound of the harness and the identifiers stay dense.
+     */
+    private static final byte MACHINE_ID_BITS = (byte) Math.max(3, 32 - Integer.numberOfLeadingZeros(THREADS - 1));
+    private static final SnowflakeConfig CONFIG = new SnowflakeConfig(1_735_689_600_000L, 0, MACHINE_ID_BITS, (byte) 10);
+
+    private static final StressHarness HARNESS = new StressHarness(CONFIG, THREADS, IDS);
+
+    private static void verify(final TestReporter reporter, final StressHarness.Result result) {
+        // Published before the assertions, so failed runs are reported as well
+        final boolean passed = result.ids == IDS && result.duplicates == 0 && result.orderViolations == 0
+                && result.clockJumps > 0 && (result.borrowedMillis > 0 || result.waitedNanos > 0);
+        final Map<String, String> report = new LinkedHashMap<>();
+        report.put("idsPerSecond", String.format(Locale.ROOT, "%.0f", result.getIdsPerSecond()));
+        report.put("verdict", passed ? "passed" : "failed");
+        report.put("result", result.toString());
+        reporter.publishEntry(report);
+
+        Assertions.assertEquals(IDS, result.ids);
+        Assertions.assertEquals(0, result.duplicates, result::toString);
+        Assertions.assertEquals(0, result.orderViolations, result::toString);
+        // The generators ran close enough to the clock to be moved by its jumps
+        Assertions.assertTrue(result.clockJumps > 0, result::toString);
+        Assertions.assertTrue(result.borrowedMillis > 0 || result.waitedNanos > 0, result::toString);
+    }
+
+    @Test
+    void testSnowflake(final TestReporter reporter) throws InterruptedException {
+        // Not thread-safe, so every thread gets its own instance and machine identifier
+        verify(reporter, HARNESS.run("snowflake", true, o -> t -> new Snowflake(CONFIG, t, o)));
+    }
+
+    @Test
+    void testAtomicSnowflake(final TestReporter reporter) throws InterruptedException {
+        verify(reporter, HARNESS.run("atomic", true, o -> {
+            final ISnowflake gen = new AtomicSnowflake(CONFIG, 0, o);
+            return t -> gen;
+        }));
+    }
+
+    @Test
+    void testReentrantSnowflake(final TestReporter reporter) throws InterruptedException {
+        verify(reporter, HARNESS.run("reentrant", true, o -> {
+            final ISnowflake gen = new ReentrantSnowflake(CONFIG, 0, o);
+            return t -> gen;
+        }));
+    }
+
+    @Test
+    void testLockFreeSnowflake(final TestReporter reporter) throws InterruptedException {
+        verify(reporter, HARNESS.run("lockFree", true, o -> {
+            final ISnowflake gen = new LockFreeSnowflake(CONFIG, 0, o);
+            return t -> gen;
+        }));
+    }
+
+    @Test
+    void testThreadedSnowflake(final TestReporter reporter) throws InterruptedException {
+        // A thread moving to another slot changes the machine identifier, so ordering holds per slot
+        verify(reporter, HARNESS.run("threaded", true, o -> {
+            final ISnowflake gen = new ThreadedSnowflake(CONFIG, 0, Math.max(1, THREADS / 2), o);
+            return t -> gen;
+        }));
+    }
+
+    @Test
+    void testBufferedSnowflake(final TestReporter reporter) throws InterruptedException {
+        // Identifiers taken after a fallback may be smaller, so only uniqueness is checked
+        verify(reporter, HARNESS.run("buffered", false, o -> {
+            final ISnowflake gen = new BufferedSnowflake(new LockFreeSnowflake(CONFIG, 0, o), 1 << 14, 1 << 12);
+            return t -> gen;
+        }));
+    }
+}
@@ -0,0 +1,332 @@
+package org.akazukin.snowflake;
+
+import org.akazukin.snowflake.clock.ManualClock;
+import org.akazukin.snowflake.config.ISnowflakeConfig;
+import org.akazukin.snowflake.generator.ClockRegressionPolicy;
+import org.akazukin.snowflake.generator.ISnowflake;
+import org.akazukin.snowflake.generator.ISnowflakeLease;
+import org.akazukin.snowflake.generator.SnowflakeOptions;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * Drives a generator from many threads and verifies every identifier it issues.
+ * <p>
+ * Each thread fills recycled blocks of identifiers, alternating between single, bulk and lease generation,
+ * and checks that its identifiers ascend per machine identifier. The calling thread marks every identifier
+ * in an {@link OffHeapBitmap} keyed by the identifier, which finds duplicates across all threads without
+ * keeping the identifiers on the heap. Meanwhile a ticker thread drives a {@link ManualClock} with the
+ * wall clock and jumps it backwards and forwards every {@value #JUMP_TICKS} milliseconds.
+ * <p>
+ * The generators borrow at most {@value #MAX_BORROW_MILLIS} milliseconds and then wait for the clock,
+ * which keeps them close enough to it for the jumps to land: a backward jump makes them wait,
+ * and a forward one moves them ahead.
+ * <p>
+ * The bitmap takes one bit per possible identifier between the first and the last issued one,
+ * so the bit layout should leave few sequence bits.
+ */
+final class StressHarness {
+    private static final int BLOCK = 1 << 14;
+    private static final int BATCH = 64;
+    private static final int BLOCKS_PER_THREAD = 4;
+
+    private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final int JUMP_TICKS = 250;
+    private static final long[] JUMPS = {-200, 150, -50, 100};
+
+    /**
+     * Largest distance the generators may run ahead of the clock, well below the backward jumps.
+     */
+    private static final long MAX_BORROW_MILLIS = 20;
+
+    /**
+     * Distance of the initial clock from the epoch, which covers the backward jumps.
+     */
+    private static final long HEADROOM_MILLIS = 1_000;
+
+    private final ISnowflakeConfig config;
+    private final int threads;
+    private final long ids;
+    private final int sequenceBits;
+    private final int timestampLeft;
+    private final long machineMask;
+
+    /**
+     * @param config  bit layout of the generators
+     * @param threads number of generating threads
+     * @param ids     total number of identifiers to generate
+     */
+    StressHarness(final ISnowflakeConfig config, final int threads, final long ids) {
+        this.config = config;
+        this.threads = threads;
+        this.ids = ids;
+        this.sequenceBits = config.getSequenceBits();
+        this.timestampLeft = config.getSequenceBits() + config.getMachineIdBits();
+        this.machineMask = ~(-1L << config.getMachineIdBits());
+    }
+
+    /**
+     * Runs a generator and verifies the identifiers.
+     *
+     * @param name    name of the run, used in the report
+     * @param ordered whether each thread must see ascending identifiers per machine identifier
+     * @param factory creates the generators from options carrying the controlled clock;
+     *                the returned function supplies the generator used by each thread
+     * @return report of the run
+     * @throws InterruptedException if interrupted while waiting for the threads
+     * @throws AssertionError       if a generating thread failed
+     */
+    Result run(final String name, final boolean ordered,
+               final Function<SnowflakeOptions, IntFunction<ISnowflake>> factory) throws InterruptedException {
+        final long epoch = this.config.getTimestampStart() + this.config.getTimestampOffset();
+        final long clockStart = epoch + HEADROOM_MILLIS;
+
+        final ManualClock clock = new ManualClock(clockStart);
+        final ClockRegressionPolicy policy = ClockRegressionPolicy.borrowThenWait(MAX_BORROW_MILLIS);
+        final IntFunction<ISnowflake> generators = factory.apply(SnowflakeOptions.DEFAULT
+                .withClock(clock).withRegressionPolicy(policy));
+
+        final BlockingQueue<long[]> free = new ArrayBlockingQueue<>(this.threads * BLOCKS_PER_THREAD);
+        final BlockingQueue<Block> full = new ArrayBlockingQueue<>(this.threads * BLOCKS_PER_THREAD);
+        for (int i = 0; i < this.threads * BLOCKS_PER_THREAD; i++) {
+            free.add(new long[BLOCK]);
+        }
+
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final AtomicLong orderViolations = new AtomicLong();
+        final AtomicReference<String> firstViolation = new AtomicReference<>();
+        final AtomicLong finished = new AtomicLong();
+        final CountDownLatch start = new CountDownLatch(1);
+        final Set<ISnowflake> used = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        final Thread[] producers = new Thread[this.threads];
+        for (int t = 0; t < this.threads; t++) {
+            final ISnowflake gen = generators.apply(t);
+            used.add(gen);
+            final long quota = this.ids / this.threads + (t < this.ids % this.threads ? 1 : 0);
+            producers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                    final long[] last = new long[(int) this.machineMask + 1];
+                    Arrays.fill(last, -1);
+                    int round = 0;
+                    for (long remaining = quota; remaining > 0; ) {
+                        final long[] block = free.take();
+                        final int length = (int) Math.min(BLOCK, remaining);
+                        fill(gen, block, length, round++);
+                        if (ordered) {
+                            this.checkOrder(block, length, last, orderViolations, firstViolation);
+                        }
+                        full.put(new Block(block, length));
+                        remaining -= length;
+                    }
+                } catch (final Throwable e) {
+                    failure.compareAndSet(null, e);
+                } finally {
+                    finished.accumulateAndGet(System.nanoTime(), Math::max);
+                }
+            }, "stress-" + name + "-" + t);
+            producers[t].start();
+        }
+
+        final Ticker ticker = new Ticker(clock, clockStart);
+        final Thread tickerThread = new Thread(ticker, "stress-clock");
+        tickerThread.setDaemon(true);
+        tickerThread.start();
+
+        final OffHeapBitmap bitmap = new OffHeapBitmap();
+        long verified = 0, duplicates = 0, firstDuplicate = -1;
+        final long begin = System.nanoTime();
+        start.countDown();
+        try {
+            while (verified < this.ids) {
+                final Block block = full.poll(100, TimeUnit.MILLISECONDS);
+                if (block == null) {
+                    if (failure.get() != null) {
+                        break;
+                    }
+                    continue;
+                }
+                for (int i = 0; i < block.length; i++) {
+                    final long id = block.ids[i];
+                    if (!bitmap.add(id) && duplicates++ == 0) {
+                        firstDuplicate = id;
+                    }
+                }
+                verified += block.length;
+                free.add(block.ids);
+            }
+        } finally {
+            for (final Thread producer : producers) {
+                if (verified < this.ids) {
+                    // Unblocks the threads waiting for a free block
+                    producer.interrupt();
+                }
+                producer.join();
+            }
+            ticker.running = false;
+            tickerThread.join();
+            for (final ISnowflake gen : used) {
+                if (gen instanceof AutoCloseable) {
+                    try {
+                        ((AutoCloseable) gen).close();
+                    } catch (final Exception e) {
+                        failure.compareAndSet(null, e);
+                    }
+                }
+            }
+        }
+
+        if (failure.get() != null) {
+            throw new AssertionError("Generating thread of " + name + " failed", failure.get());
+        }
+        return new Result(name, this.threads, verified, finished.get() - begin, ticker.jumps,
+                policy.getBorrowedMillis(), policy.getWaitedNanos(),
+                bitmap.getAllocatedBytes(), duplicates, firstDuplicate, orderViolations.get(), firstViolation.get());
+    }
+
+    private static void fill(final ISnowflake gen, final long[] block, final int length, final int round) {
+        switch (round % 3) {
+            case 0:
+                for (int i = 0; i < length; i++) {
+                    block[i] = gen.nextId();
+                }
+                break;
+            case 1:
+                for (int off = 0; off < length; off += BATCH) {
+                    gen.nextIds(block, off, Math.min(BATCH, length - off));
+                }
+                break;
+            default:
+                for (int off = 0; off < length; off += BATCH) {
+                    final ISnowflakeLease lease = gen.lease(Math.min(BATCH, length - off));
+                    for (int i = off; lease.hasNext(); i++) {
+                        block[i] = lease.nextLong();
+                    }
+                }
+        }
+    }
+
+    private void checkOrder(final long[] block, final int length, final long[] last,
+                            final AtomicLong violations, final AtomicReference<String> first) {
+        for (int i = 0; i < length; i++) {
+            final long id = block[i];
+            final int machine = (int) (id >>> this.sequenceBits & this.machineMask);
+            if (id <= last[machine] && violations.getAndIncrement() == 0) {
+                first.set(id + " after " + last[machine] + " on " + Thread.currentThread().getName());
+            }
+            last[machine] = id;
+        }
+    }
+
+    /**
+     * Filled block handed from a generating thread to the verifier.
+     */
+    private static final class Block {
+        final long[] ids;
+        final int length;
+
+        Block(final long[] ids, final int length) {
+            this.ids = ids;
+            this.length = length;
+        }
+    }
+
+    /**
+     * Moves the clock with the wall clock plus an offset that changes every {@value #JUMP_TICKS} ticks.
+     */
+    private static final class Ticker implements Runnable {
+        final ManualClock clock;
+        final long base;
+        volatile boolean running = true;
+        int jumps;
+
+        Ticker(final ManualClock clock, final long base) {
+            this.clock = clock;
+            this.base = base;
+        }
+
+        @Override
+        public void run() {
+            final long start = System.nanoTime();
+            long offset = 0;
+            for (int tick = 1; this.running; tick++) {
+                LockSupport.parkNanos(TICK_NANOS);
+                if (tick % JUMP_TICKS == 0) {
+                    offset += JUMPS[this.jumps++ % JUMPS.length];
+                }
+                this.clock.set(this.base + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + offset);
+            }
+        }
+    }
+
+    /**
+     * Report of one run.
+     */
+    static final class Result {
+        final String name;
+        final int threads;
+        final long ids;
+        final long nanos;
+        final int clockJumps;
+        final long borrowedMillis;
+        final long waitedNanos;
+        final long bitmapBytes;
+        final long duplicates;
+        final long firstDuplicate;
+        final long orderViolations;
+        final String firstViolation;
+
+        Result(final String name, final int threads, final long ids, final long nanos, final int clockJumps,
+               final long borrowedMillis, final long waitedNanos,
+               final long bitmapBytes, final long duplicates, final long firstDuplicate,
+               final long orderViolations, final String firstViolation) {
+            this.name = name;
+            this.threads = threads;
+            this.ids = ids;
+            this.nanos = nanos;
+            this.clockJumps = clockJumps;
+            this.borrowedMillis = borrowedMillis;
+            this.waitedNanos = waitedNanos;
+            this.bitmapBytes = bitmapBytes;
+            this.duplicates = duplicates;
+            this.firstDuplicate = firstDuplicate;
+            this.orderViolations = orderViolations;
+            this.firstViolation = firstViolation;
+        }
+
+        /**
+         * Returns the sustained throughput of the generating threads.
+         *
+         * @return identifiers per second
+         */
+        double getIdsPerSecond() {
+            return this.ids * 1e9 / this.nanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                    "%s: %,d IDs from %d threads in %.2f s (%.2f M IDs/s), %d clock jumps, "
+                            + "%,d ms borrowed, %,d ms waited, %,d KiB bitmap; %d duplicates%s, %d order violations%s",
+                    this.name, this.ids, this.threads, this.nanos / 1e9, this.getIdsPerSecond() / 1e6,
+                    this.clockJumps, this.borrowedMillis, TimeUnit.NANOSECONDS.toMillis(this.waitedNanos),
+                    this.bitmapBytes >> 10,
+                    this.duplicates, this.duplicates == 0 ? "" : " (first " + this.firstDuplicate + ")",
+                    this.orderViolations, this.firstViolation == null ? "" : " (first " + this.firstViolation + ")");
+        }
+    }
+}
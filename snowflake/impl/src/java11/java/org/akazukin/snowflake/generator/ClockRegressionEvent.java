@@ -0,0 +1,28 @@
+package org.akazukin.snowflake.generator;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * A generator ran further ahead of the clock than its {@link ClockRegressionPolicy} allows.
+ * The duration is the time waited for the clock, zero for the other actions.
+ */
+@Name("org.akazukin.snowflake.ClockRegression")
+@Label("Clock Regression")
+@Category("Snowflake")
+@Description("Generator ran further ahead of the clock than the regression policy allows")
+final class ClockRegressionEvent extends Event {
+    @Label("Machine ID")
+    long machineId;
+
+    @Label("Ahead of Clock")
+    @Timespan(Timespan.MILLISECONDS)
+    long aheadMillis;
+
+    @Label("Action")
+    String action;
+}
@@ -0,0 +1,98 @@
+package org.akazukin.snowflake.generator;
+
+/**
+ * Java Flight Recorder events of the generators.
+ * <p>
+ * This is the Java 11 variant. An event that is disabled in every recording is not
+ * started, and the JIT compiler removes the unused event objects, so the generators
+ * cost the same as without the events while nothing is recorded.
+ */
+final class FlightEvents {
+    private FlightEvents() {
+    }
+
+    /**
+     * Starts timing a wait for the clock to catch up.
+     *
+     * @return started event, or {@code null} if it is not recorded
+     */
+    static Object beginClockRegression() {
+        final ClockRegressionEvent event = new ClockRegressionEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Records that a generator ran further ahead of the clock than the regression policy allows.
+     *
+     * @param event       event returned by {@link #beginClockRegression()}, or {@code null} for an instant event
+     * @param machineId   machine identifier in use when the regression was detected
+     * @param aheadMillis how far the generator was ahead of the clock
+     * @param action      action applied by the regression policy
+     */
+    static void commitClockRegression(final Object event, final long machineId, final long aheadMillis,
+                                      final ClockRegressionPolicy.Action action) {
+        final ClockRegressionEvent e = event == null ? new ClockRegressionEvent() : (ClockRegressionEvent) event;
+        if (!e.shouldCommit()) {
+            return;
+        }
+        e.machineId = machineId;
+        e.aheadMillis = aheadMillis;
+        e.action = action.name();
+        e.commit();
+    }
+
+    /**
+     * Records that the sequence of a millisecond was exhausted and the next millisecond was borrowed.
+     *
+     * @param machineId   machine identifier of the generator
+     * @param aheadMillis how far the generator is ahead of the clock afterwards
+     */
+    static void sequenceExhausted(final long machineId, final long aheadMillis) {
+        final SequenceExhaustionEvent e = new SequenceExhaustionEvent();
+        if (!e.shouldCommit()) {
+            return;
+        }
+        e.machineId = machineId;
+        e.aheadMillis = aheadMillis;
+        e.commit();
+    }
+
+    /**
+     * Starts timing a wait for a free {@link ThreadedSnowflake} slot.
+     *
+     * @return started event, or {@code null} if it is not recorded
+     */
+    static Object beginSlotWait() {
+        final SlotWaitEvent event = new SlotWaitEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Records a wait for a free {@link ThreadedSnowflake} slot.
+     *
+     * @param event     event returned by {@link #beginSlotWait()}, or {@code null}
+     * @param machineId machine identifier of the slot finally acquired
+     * @param rounds    number of times the wait strategy was applied
+     */
+    static void commitSlotWait(final Object event, final long machineId, final int rounds) {
+        if (event == null) {
+            return;
+        }
+        final SlotWaitEvent e = (SlotWaitEvent) event;
+        e.end();
+        if (!e.shouldCommit()) {
+            return;
+        }
+        e.machineId = machineId;
+        e.rounds = rounds;
+        e.commit();
+    }
+}
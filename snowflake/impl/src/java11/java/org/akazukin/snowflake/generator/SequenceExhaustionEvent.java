@@ -0,0 +1,27 @@
+package org.akazukin.snowflake.generator;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * The sequence of a millisecond was exhausted and the generator borrowed the next millisecond.
+ * Instant event; may occur once per millisecond and generator, so no stack trace is taken.
+ */
+@Name("org.akazukin.snowflake.SequenceExhaustion")
+@Label("Sequence Exhaustion")
+@Category("Snowflake")
+@Description("Sequence of a millisecond was exhausted and the next millisecond was borrowed")
+@StackTrace(false)
+final class SequenceExhaustionEvent extends Event {
+    @Label("Machine ID")
+    long machineId;
+
+    @Label("Ahead of Clock")
+    @Timespan(Timespan.MILLISECONDS)
+    long aheadMillis;
+}
@@ -0,0 +1,25 @@
+package org.akazukin.snowflake.generator;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * A thread waited for a free {@link ThreadedSnowflake} slot after missing all of them.
+ * Only waits longer than the threshold, one millisecond by default, are recorded.
+ */
+@Name("org.akazukin.snowflake.SlotWait")
+@Label("Slot Wait")
+@Category("Snowflake")
+@Description("Thread waited for a free slot of a ThreadedSnowflake")
+@Threshold("1 ms")
+final class SlotWaitEvent extends Event {
+    @Label("Machine ID")
+    long machineId;
+
+    @Label("Wait Rounds")
+    int rounds;
+}
@@ -0,0 +1,28 @@
+package org.akazukin.snowflake.generator;
+
+/**
+ * Access to thread features of newer Java versions.
+ * <p>
+ * This is the Java 21 variant.
+ */
+final class ThreadSupport {
+    private ThreadSupport() {
+    }
+
+    /**
+     * Hints that the calling thread is busy-waiting.
+     */
+    static void onSpinWait() {
+        Thread.onSpinWait();
+    }
+
+    /**
+     * Returns whether the given thread is a virtual thread.
+     *
+     * @param thread thread to check
+     * @return {@code true} if the thread is virtual
+     */
+    static boolean isVirtual(final Thread thread) {
+        return thread.isVirtual();
+    }
+}
@@ -0,0 +1,53 @@
+package org.akazukin.snowflake.parser;
+
+/**
+ * Loops decoding SnowFlake IDs into columns for {@link SnowflakeParser}.
+ * Every column is decoded in its own pass so the JIT compiler can vectorize each loop.
+ * <p>
+ * This is the Java 21 variant. It hands the work to {@link VectorParserKernel} when the
+ * {@code jdk.incubator.vector} module is part of the boot layer.
+ */
+final class ParserKernel {
+    /**
+     * Whether the incubating Vector API was enabled with {@code --add-modules jdk.incubator.vector}.
+     */
+    private static final boolean VECTOR = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    private ParserKernel() {
+    }
+
+    static void decode(final long[] ids, final int off, final int len,
+                       final long[] timestamps, final long[] machineIds, final long[] sequences, final int dstOff,
+                       final int machineLeft, final int timestampLeft, final long machineMask, final long sequenceMask) {
+        if (VECTOR) {
+            VectorParserKernel.decode(ids, off, len, timestamps, machineIds, sequences, dstOff,
+                    machineLeft, timestampLeft, machineMask, sequenceMask);
+            return;
+        }
+        decodeScalar(ids, off, len, timestamps, machineIds, sequences, dstOff,
+                machineLeft, timestampLeft, machineMask, sequenceMask);
+    }
+
+    /**
+     * Decodes with the scalar loops, whatever modules are enabled.
+     */
+    static void decodeScalar(final long[] ids, final int off, final int len,
+                             final long[] timestamps, final long[] machineIds, final long[] sequences, final int dstOff,
+                             final int machineLeft, final int timestampLeft, final long machineMask, final long sequenceMask) {
+        if (timestamps != null) {
+            for (int i = 0; i < len; i++) {
+                timestamps[dstOff + i] = ids[off + i] >>> timestampLeft;
+            }
+        }
+        if (machineIds != null) {
+            for (int i = 0; i < len; i++) {
+                machineIds[dstOff + i] = ids[off + i] >>> machineLeft & machineMask;
+            }
+        }
+        if (sequences != null) {
+            for (int i = 0; i < len; i++) {
+                sequences[dstOff + i] = ids[off + i] & sequenceMask;
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package org.akazukin.snowflake.parser;
+
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vector API variant of {@link ParserKernel}.
+ * Only loaded when the {@code jdk.incubator.vector} module is enabled.
+ */
+final class VectorParserKernel {
+    private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+
+    private VectorParserKernel() {
+    }
+
+    static void decode(final long[] ids, final int off, final int len,
+                       final long[] timestamps, final long[] machineIds, final long[] sequences, final int dstOff,
+                       final int machineLeft, final int timestampLeft, final long machineMask, final long sequenceMask) {
+        final int bound = SPECIES.loopBound(len);
+
+        if (timestamps != null) {
+            int i = 0;
+            for (; i < bound; i += SPECIES.length()) {
+                LongVector.fromArray(SPECIES, ids, off + i)
+                        .lanewise(VectorOperators.LSHR, timestampLeft)
+                        .intoArray(timestamps, dstOff + i);
+            }
+            for (; i < len; i++) {
+                timestamps[dstOff + i] = ids[off + i] >>> timestampLeft;
+            }
+        }
+        if (machineIds != null) {
+            int i = 0;
+            for (; i < bound; i += SPECIES.length()) {
+                LongVector.fromArray(SPECIES, ids, off + i)
+                        .lanewise(VectorOperators.LSHR, machineLeft)
+                        .and(machineMask)
+                        .intoArray(machineIds, dstOff + i);
+            }
+            for (; i < len; i++) {
+                machineIds[dstOff + i] = ids[off + i] >>> machineLeft & machineMask;
+            }
+        }
+        if (sequences != null) {
+            int i = 0;
+            for (; i < bound; i += SPECIES.length()) {
+                LongVector.fromArray(SPECIES, ids, off + i)
+                        .and(sequenceMask)
+                        .intoArray(sequences, dstOff + i);
+            }
+            for (; i < len; i++) {
+                sequences[dstOff + i] = ids[off + i] & sequenceMask;
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package org.akazukin.snowflake.clock;
+
+import org.akazukin.annotation.marker.ThreadSafe;
+
+import java.time.Clock;
+import java.time.Instant;
+
+/**
+ * Clock backed by {@link System#currentTimeMillis()}.
+ * <p>
+ * This is the clock used by the generators when none is specified.
+ * <p>
+ * This is the Java 9 variant, whose {@link #currentTimeMicros()} reads the system clock
+ * in microsecond resolution where the platform provides it.
+ */
+@ThreadSafe
+public final class SystemClock implements IClock {
+    /**
+     * The shared instance.
+     */
+    public static final SystemClock INSTANCE = new SystemClock();
+
+    private SystemClock() {
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    @Override
+    public long currentTimeMicros() {
+        final Instant now = Clock.systemUTC().instant();
+        return now.getEpochSecond() * 1_000_000L + now.getNano() / 1_000L;
+    }
+}
@@ -0,0 +1,66 @@
+package org.akazukin.snowflake;
+
+import org.akazukin.snowflake.generator.AtomicSnowflake;
+import org.akazukin.snowflake.generator.ISnowflake;
+import org.akazukin.snowflake.generator.ISnowflakeLease;
+import org.akazukin.snowflake.generator.LockFreeSnowflake;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.CompilerControl;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares generating a batch one identifier at a time against the bulk reservation API.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@CompilerControl(CompilerControl.Mode.DONT_INLINE)
+public class BulkSnowflakeBenchmark {
+    @Param({"atomic", "lockFree"})
+    private String generator;
+
+    @Param({"64", "4096"})
+    private int batch;
+
+    private ISnowflake gen;
+    private long[] ids;
+
+    @Setup
+    public void init() {
+        this.gen = "atomic".equals(this.generator)
+                ? new AtomicSnowflake(new SnowflakeConfig(), 0b111 << 7 | 0b1)
+                : new LockFreeSnowflake(new SnowflakeConfig(), 0b111 << 7 | 0b1);
+        this.ids = new long[this.batch];
+    }
+
+    @Benchmark
+    public long[] nextIdLoop() {
+        for (int i = 0; i < this.ids.length; i++) {
+            this.ids[i] = this.gen.nextId();
+        }
+        return this.ids;
+    }
+
+    @Benchmark
+    public long[] nextIds() {
+        this.gen.nextIds(this.ids, 0, this.ids.length);
+        return this.ids;
+    }
+
+    @Benchmark
+    public void lease(final Blackhole bh) {
+        final ISnowflakeLease lease = this.gen.lease(this.batch);
+        while (lease.hasNext()) {
+            bh.consume(lease.nextLong());
+        }
+    }
+}
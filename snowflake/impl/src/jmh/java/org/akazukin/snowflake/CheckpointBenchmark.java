@@ -0,0 +1,71 @@
+package org.akazukin.snowflake;
+
+import org.akazukin.snowflake.generator.AtomicSnowflake;
+import org.akazukin.snowflake.generator.ISnowflake;
+import org.akazukin.snowflake.generator.LockFreeSnowflake;
+import org.akazukin.snowflake.generator.SnowflakeOptions;
+import org.akazukin.snowflake.generator.TimestampCheckpoint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the overhead of a persistent timestamp checkpoint on {@link ISnowflake#nextId()},
+ * compared with no checkpoint, for windows of different lengths.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CheckpointBenchmark {
+    @Param({"atomic", "lockfree"})
+    private String type;
+
+    /**
+     * Window of the checkpoint in milliseconds, {@code 0} for none.
+     */
+    @Param({"0", "10", "1000"})
+    private long windowMillis;
+
+    private Path file;
+    private TimestampCheckpoint checkpoint;
+    private ISnowflake gen;
+
+    @Setup
+    public void init() throws IOException {
+        if (this.windowMillis > 0) {
+            this.file = Files.createTempFile("snowflake", ".mark");
+            this.checkpoint = TimestampCheckpoint.mapped(this.file, this.windowMillis);
+        } else {
+            this.checkpoint = TimestampCheckpoint.none();
+        }
+
+        final SnowflakeOptions options = SnowflakeOptions.DEFAULT.withCheckpoint(this.checkpoint);
+        this.gen = "atomic".equals(this.type)
+                ? new AtomicSnowflake(new SnowflakeConfig(), 0b111 << 7 | 0b1, options)
+                : new LockFreeSnowflake(new SnowflakeConfig(), 0b111 << 7 | 0b1, options);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        this.checkpoint.close();
+        if (this.file != null) {
+            Files.deleteIfExists(this.file);
+        }
+    }
+
+    @Benchmark
+    public long nextId() {
+        return this.gen.nextId();
+    }
+}
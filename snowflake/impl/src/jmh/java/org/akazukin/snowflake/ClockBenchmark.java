@@ -0,0 +1,74 @@
+package org.akazukin.snowflake;
+
+import org.akazukin.snowflake.clock.CachedClock;
+import org.akazukin.snowflake.clock.IClock;
+import org.akazukin.snowflake.clock.ManualClock;
+import org.akazukin.snowflake.clock.MonotonicClock;
+import org.akazukin.snowflake.clock.SystemClock;
+import org.akazukin.snowflake.generator.ISnowflake;
+import org.akazukin.snowflake.generator.LockFreeSnowflake;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.CompilerControl;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of reading each clock, alone and as part of generating one identifier.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@CompilerControl(CompilerControl.Mode.DONT_INLINE)
+public class ClockBenchmark {
+    @Param({"system", "cached", "monotonic", "manual"})
+    private String clockType;
+
+    private IClock clock;
+    private ISnowflake gen;
+
+    @Setup
+    public void init() {
+        switch (this.clockType) {
+            case "system":
+                this.clock = SystemClock.INSTANCE;
+                break;
+            case "cached":
+                this.clock = new CachedClock();
+                break;
+            case "monotonic":
+                this.clock = new MonotonicClock();
+                break;
+            case "manual":
+                this.clock = new ManualClock(System.currentTimeMillis());
+                break;
+            default:
+                throw new IllegalArgumentException(this.clockType);
+        }
+        this.gen = new LockFreeSnowflake(new SnowflakeConfig(), 0b111 << 7 | 0b1, this.clock);
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (this.clock instanceof CachedClock) {
+            ((CachedClock) this.clock).close();
+        }
+    }
+
+    @Benchmark
+    public long read() {
+        return this.clock.currentTimeMillis();
+    }
+
+    @Benchmark
+    public long nextId() {
+        return this.gen.nextId();
+    }
+}
@@ -0,0 +1,55 @@
+package org.akazukin.snowflake;
+
+import org.akazukin.snowflake.machine.FileMachineIdAllocator;
+import org.akazukin.snowflake.machine.MachineIdLease;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the startup cost of leasing machine IDs: opening the lease file,
+ * and acquiring and releasing a lease on an open file.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MachineIdAllocatorBenchmark {
+    private Path file;
+    private FileMachineIdAllocator allocator;
+
+    @Setup
+    public void init() throws IOException {
+        this.file = Files.createTempFile("snowflake", ".lease");
+        this.allocator = new FileMachineIdAllocator(this.file, new SnowflakeConfig(), 10_000);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        this.allocator.close();
+        Files.deleteIfExists(this.file);
+    }
+
+    @Benchmark
+    public int acquireRelease() throws IOException {
+        try (MachineIdLease lease = this.allocator.acquire()) {
+            return lease.getMachineId();
+        }
+    }
+
+    @Benchmark
+    public int openAcquireClose() throws IOException {
+        try (FileMachineIdAllocator allocator = new FileMachineIdAllocator(this.file, new SnowflakeConfig(), 10_000)) {
+            return allocator.acquire().getMachineId();
+        }
+    }
+}
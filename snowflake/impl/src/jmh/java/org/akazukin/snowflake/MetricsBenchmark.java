@@ -0,0 +1,65 @@
+package org.akazukin.snowflake;
+
+import org.akazukin.snowflake.clock.CachedClock;
+import org.akazukin.snowflake.generator.AtomicSnowflake;
+import org.akazukin.snowflake.generator.ISnowflake;
+import org.akazukin.snowflake.generator.LockFreeSnowflake;
+import org.akazukin.snowflake.generator.SnowflakeMetrics;
+import org.akazukin.snowflake.generator.SnowflakeOptions;
+import org.akazukin.snowflake.generator.ThreadedSnowflake;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link ISnowflake#nextId()} with disabled and enabled metrics.
+ * A cached clock keeps the clock read from dominating the difference.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MetricsBenchmark {
+    @Param({"atomic", "lockfree", "threaded"})
+    private String type;
+
+    @Param({"disabled", "enabled"})
+    private String metrics;
+
+    private CachedClock clock;
+    private ISnowflake gen;
+
+    @Setup
+    public void init() {
+        this.clock = new CachedClock();
+        final SnowflakeOptions options = SnowflakeOptions.DEFAULT.withClock(this.clock)
+                .withMetrics("enabled".equals(this.metrics) ? SnowflakeMetrics.enabled() : SnowflakeMetrics.disabled());
+        switch (this.type) {
+            case "atomic":
+                this.gen = new AtomicSnowflake(new SnowflakeConfig(), 0b111 << 7 | 0b1, options);
+                break;
+            case "lockfree":
+                this.gen = new LockFreeSnowflake(new SnowflakeConfig(), 0b111 << 7 | 0b1, options);
+                break;
+            default:
+                this.gen = new ThreadedSnowflake(new SnowflakeConfig(), 0b111 << 7 | 0b1, 4, options);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.clock.close();
+    }
+
+    @Benchmark
+    public long nextId() {
+        return this.gen.nextId();
+    }
+}
@@ -1,29 +1,157 @@
 package org.akazukin.snowflake;
 
+import org.akazukin.snowflake.generator.AtomicSnowflake;
+import org.akazukin.snowflake.generator.BufferedSnowflake;
 import org.akazukin.snowflake.generator.ISnowflake;
+import org.akazukin.snowflake.generator.LockFreeSnowflake;
+import org.akazukin.snowflake.generator.ReentrantSnowflake;
 import org.akazukin.snowflake.generator.Snowflake;
+import org.akazukin.snowflake.generator.SnowflakeOptions;
+import org.akazukin.snowflake.generator.ThreadedSnowflake;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.CompilerControl;
 import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
 
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
-@State(Scope.Thread)
-@OutputTimeUnit(TimeUnit.MILLISECONDS)
+/**
+ * Throughput and latency of {@link ISnowflake#nextId()} for every generator, bit layout and thread count.
+ * <p>
+ * One generator is built per trial and shared by all benchmark threads, except for the non-thread-safe
+ * {@link Snowflake}, of which every thread gets its own instance with its own machine identifier.
+ * The 16 and 64 thread counts oversubscribe most hosts, comparing the generators under heavy contention.
+ * {@code SampleTime} reports the latency percentiles. The full matrix is large; narrow it with
+ * {@code -Pjmh.includes=SnowflakeBenchmark.threads4} and {@code -p generator=lockFree,threaded}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
 @CompilerControl(CompilerControl.Mode.DONT_INLINE)
 public class SnowflakeBenchmark {
-    private static final int SIZE = 1 << 30;
+    public static final int BUFFER_CAPACITY = 1 << 16;
+
+    @Param({"snowflake", "atomic", "lockFree", "reentrant", "threaded", "adaptive", "buffered"})
+    private String generator;
+
+    /**
+     * Machine ID bits and sequence bits. {@code 16/6} exhausts the sequence after 64 identifiers per millisecond.
+     */
+    @Param({"10/12", "16/6"})
+    private String layout;
+
+    /**
+     * Number of slots of the {@code threaded} generator and the most the {@code adaptive} one grows to;
+     * ignored by the others.
+     */
+    @Param({"16"})
+    private int poolSize;
+
+    private SnowflakeConfig config;
+    private ISnowflake shared;
+    private final AtomicInteger machineIds = new AtomicInteger();
+
+    @Setup
+    public void init() {
+        this.config = SnowflakeConfig.of(this.layout);
+        this.machineIds.set(1);
+        switch (this.generator) {
+            case "snowflake":
+                this.shared = null;
+                break;
+            case "atomic":
+                this.shared = new AtomicSnowflake(this.config, 1);
+                break;
+            case "lockFree":
+                this.shared = new LockFreeSnowflake(this.config, 1);
+                break;
+            case "reentrant":
+                this.shared = new ReentrantSnowflake(this.config, 1);
+                break;
+            case "threaded":
+                this.shared = new ThreadedSnowflake(this.config, 1, this.poolSize);
+                break;
+            case "adaptive":
+                this.shared = new ThreadedSnowflake(this.config, 1, this.poolSize, 1_000, SnowflakeOptions.DEFAULT);
+                break;
+            case "buffered":
+                this.shared = new BufferedSnowflake(new LockFreeSnowflake(this.config, 1),
+                        BUFFER_CAPACITY, BUFFER_CAPACITY / 4);
+                break;
+            default:
+                throw new IllegalArgumentException(this.generator);
+        }
+    }
+
+    @TearDown
+    public void close() throws Exception {
+        if (this.shared instanceof AutoCloseable) {
+            ((AutoCloseable) this.shared).close();
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long threads1(final Local local) {
+        return local.gen.nextId();
+    }
+
+    @Benchmark
+    @Threads(2)
+    public long threads2(final Local local) {
+        return local.gen.nextId();
+    }
 
     @Benchmark
-    @BenchmarkMode(Mode.AverageTime)
-    public void test() {
-        final ISnowflake gen = new Snowflake(new SnowflakeConfig(), 0b111 << 7 | 0b1);
-        for (int i2 = 0; i2 < SIZE; i2++) {
-            gen.nextId();
+    @Threads(4)
+    public long threads4(final Local local) {
+        return local.gen.nextId();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long threads8(final Local local) {
+        return local.gen.nextId();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public long threads16(final Local local) {
+        return local.gen.nextId();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public long threads64(final Local local) {
+        return local.gen.nextId();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public long threadsMax(final Local local) {
+        return local.gen.nextId();
+    }
+
+    /**
+     * Generator used by one benchmark thread.
+     */
+    @State(Scope.Thread)
+    public static class Local {
+        private ISnowflake gen;
+
+        @Setup
+        public void init(final SnowflakeBenchmark benchmark) {
+            this.gen = benchmark.shared != null
+                    ? benchmark.shared
+                    : new Snowflake(benchmark.config, benchmark.machineIds.getAndIncrement());
         }
     }
 }
@@ -0,0 +1,92 @@
+package org.akazukin.snowflake;
+
+import org.akazukin.snowflake.generator.AtomicSnowflake;
+import org.akazukin.snowflake.parser.SnowflakeBlockCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.CompilerControl;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time per identifier to compress and decompress a block of {@link #BATCH} generated
+ * identifiers, on heap and direct buffers, compared with writing and reading them as raw longs.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@CompilerControl(CompilerControl.Mode.DONT_INLINE)
+public class SnowflakeBlockCodecBenchmark {
+    public static final int BATCH = 4096;
+
+    @Param({"heap", "direct"})
+    private String bufferType;
+
+    private SnowflakeBlockCodec codec;
+    private long[] ids;
+    private long[] decoded;
+    private ByteBuffer encoded;
+    private ByteBuffer raw;
+
+    @Setup
+    public void init() {
+        this.codec = new SnowflakeBlockCodec(new SnowflakeConfig());
+
+        this.ids = new long[BATCH];
+        new AtomicSnowflake(new SnowflakeConfig(), 0b111 << 7 | 0b1).nextIds(this.ids, 0, BATCH);
+        this.decoded = new long[BATCH];
+
+        final boolean direct = "direct".equals(this.bufferType);
+        final int size = this.codec.maxEncodedSize(BATCH);
+        this.encoded = direct ? ByteBuffer.allocateDirect(size) : ByteBuffer.allocate(size);
+        this.raw = direct ? ByteBuffer.allocateDirect(BATCH * Long.BYTES) : ByteBuffer.allocate(BATCH * Long.BYTES);
+        this.codec.encode(this.ids, 0, BATCH, this.encoded);
+        for (final long id : this.ids) {
+            this.raw.putLong(id);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public ByteBuffer encode() {
+        this.encoded.clear();
+        this.codec.encode(this.ids, 0, BATCH, this.encoded);
+        return this.encoded;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public long[] decode() {
+        this.encoded.rewind();
+        this.codec.decode(this.encoded, this.decoded, 0);
+        return this.decoded;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public ByteBuffer encodeRaw() {
+        this.raw.clear();
+        for (final long id : this.ids) {
+            this.raw.putLong(id);
+        }
+        return this.raw;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public long[] decodeRaw() {
+        this.raw.rewind();
+        for (int i = 0; i < BATCH; i++) {
+            this.decoded[i] = this.raw.getLong();
+        }
+        return this.decoded;
+    }
+}
@@ -0,0 +1,97 @@
+package org.akazukin.snowflake;
+
+import org.akazukin.snowflake.generator.AtomicSnowflake;
+import org.akazukin.snowflake.parser.SnowflakeCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.CompilerControl;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the fixed-width text codecs with {@link Long#toString(long)} and {@link Long#parseLong(String)},
+ * per identifier and for a block of {@link #BATCH} identifiers.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@CompilerControl(CompilerControl.Mode.DONT_INLINE)
+public class SnowflakeCodecBenchmark {
+    public static final int BATCH = 1024;
+
+    @Param({"base32", "base62"})
+    private String codecName;
+
+    private SnowflakeCodec codec;
+    private long id;
+    private String decimal;
+    private String encoded;
+    private long[] ids;
+    private long[] decoded;
+    private char[] chars;
+    private byte[] bytes;
+    private StringBuilder sb;
+
+    @Setup
+    public void init() {
+        this.codec = "base32".equals(this.codecName) ? SnowflakeCodec.CROCKFORD_BASE32 : SnowflakeCodec.BASE62;
+
+        this.ids = new long[BATCH];
+        new AtomicSnowflake(new SnowflakeConfig(), 0b111 << 7 | 0b1).nextIds(this.ids, 0, BATCH);
+        this.id = this.ids[BATCH / 2];
+        this.decimal = Long.toString(this.id);
+        this.encoded = this.codec.encode(this.id);
+
+        this.chars = new char[BATCH * this.codec.getLength()];
+        this.bytes = new byte[BATCH * this.codec.getLength()];
+        this.codec.encode(this.ids, 0, BATCH, this.bytes, 0);
+        this.decoded = new long[BATCH];
+        this.sb = new StringBuilder(64);
+    }
+
+    @Benchmark
+    public String longToString() {
+        return Long.toString(this.id);
+    }
+
+    @Benchmark
+    public long longParseLong() {
+        return Long.parseLong(this.decimal);
+    }
+
+    @Benchmark
+    public char[] encodeChars() {
+        this.codec.encode(this.id, this.chars, 0);
+        return this.chars;
+    }
+
+    @Benchmark
+    public StringBuilder encodeAppendable() throws IOException {
+        this.sb.setLength(0);
+        return this.codec.encode(this.id, this.sb);
+    }
+
+    @Benchmark
+    public long decodeString() {
+        return this.codec.decode(this.encoded, 0);
+    }
+
+    @Benchmark
+    public char[] encodeCharsBulk() {
+        this.codec.encode(this.ids, 0, BATCH, this.chars, 0);
+        return this.chars;
+    }
+
+    @Benchmark
+    public long[] decodeBytesBulk() {
+        this.codec.decode(this.bytes, 0, this.decoded, 0, BATCH);
+        return this.decoded;
+    }
+}
@@ -3,6 +3,29 @@ package org.akazukin.snowflake;
 import org.akazukin.snowflake.config.ISnowflakeConfig;
 
 public final class SnowflakeConfig implements ISnowflakeConfig {
+    private final byte machineIdBits;
+    private final byte sequenceBits;
+
+    public SnowflakeConfig() {
+        this((byte) 10, (byte) 12); // max: 1023, 4095
+    }
+
+    public SnowflakeConfig(final byte machineIdBits, final byte sequenceBits) {
+        this.machineIdBits = machineIdBits;
+        this.sequenceBits = sequenceBits;
+    }
+
+    /**
+     * Parses a bit layout written as {@code <machine ID bits>/<sequence bits>}, such as {@code 10/12}.
+     *
+     * @param layout bit layout
+     * @return configuration with that layout
+     */
+    public static SnowflakeConfig of(final String layout) {
+        final int slash = layout.indexOf('/');
+        return new SnowflakeConfig(Byte.parseByte(layout.substring(0, slash)), Byte.parseByte(layout.substring(slash + 1)));
+    }
+
     @Override
     public long getTimestampStart() {
         return 1735689600000L; // 2025-01-01T00:00:00.000Z
@@ -15,11 +38,11 @@ public final class SnowflakeConfig implements ISnowflakeConfig {
 
     @Override
     public byte getMachineIdBits() {
-        return 10; // max: 1023
+        return this.machineIdBits;
     }
 
     @Override
     public byte getSequenceBits() {
-        return 12; // max: 4095
+        return this.sequenceBits;
     }
 }
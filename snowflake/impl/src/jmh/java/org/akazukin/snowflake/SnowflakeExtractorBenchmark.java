@@ -0,0 +1,57 @@
+package org.akazukin.snowflake;
+
+import org.akazukin.snowflake.generator.AtomicSnowflake;
+import org.akazukin.snowflake.parser.SnowflakeParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the single-field extractors with reading the same field from a parsed {@link SnowflakeParser.Result}.
+ * The extractors are left inlinable; run with {@code -prof perfasm} to check that each one compiles
+ * down to a shift and a mask (plus an add for the epoch).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SnowflakeExtractorBenchmark {
+    private SnowflakeParser parser;
+    private long id;
+
+    @Setup
+    public void init() {
+        this.parser = new SnowflakeParser(new SnowflakeConfig());
+        this.id = new AtomicSnowflake(new SnowflakeConfig(), 0b111 << 7 | 0b1).nextId();
+    }
+
+    @Benchmark
+    public long parseTimestamp() {
+        return this.parser.parse(this.id).getTimestamp();
+    }
+
+    @Benchmark
+    public long timestampOf() {
+        return this.parser.timestampOf(this.id);
+    }
+
+    @Benchmark
+    public long epochMillisOf() {
+        return this.parser.epochMillisOf(this.id);
+    }
+
+    @Benchmark
+    public long machineIdOf() {
+        return this.parser.machineIdOf(this.id);
+    }
+
+    @Benchmark
+    public long sequenceOf() {
+        return this.parser.sequenceOf(this.id);
+    }
+}
@@ -0,0 +1,148 @@
+package org.akazukin.snowflake;
+
+import org.akazukin.snowflake.clock.ManualClock;
+import org.akazukin.snowflake.collection.SnowflakeIdSet;
+import org.akazukin.snowflake.generator.AtomicSnowflake;
+import org.akazukin.snowflake.generator.ISnowflake;
+import org.akazukin.snowflake.generator.SnowflakeOptions;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link SnowflakeIdSet} with a boxed {@link HashSet}, building a set of {@link #BATCH}
+ * identifiers issued by {@link #nodes} nodes over {@link #millis} milliseconds and looking every one
+ * of them up, in time per identifier.
+ * <p>
+ * A single node within a millisecond yields dense runs of consecutive sequences, the best case of the
+ * bitmap buckets; many nodes over a minute yield the sparse buckets of a deduplication workload.
+ * <p>
+ * The retained size of both sets, walked with JOL once they are built, is reported by the single-shot
+ * {@link #footprint(Footprint)} benchmark as secondary results; the bytes per identifier are the byte counters
+ * divided by the {@code ids} counter.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SnowflakeIdSetBenchmark {
+    public static final int BATCH = 1 << 16;
+    private static final SnowflakeConfig CONFIG = new SnowflakeConfig();
+
+    @Param({"1", "1024"})
+    private int nodes;
+
+    /**
+     * Time span of the batch.
+     */
+    @Param({"1", "60000"})
+    private int millis;
+
+    private long[] ids;
+    private SnowflakeIdSet idSet;
+    private Set<Long> hashSet;
+
+    @Setup
+    public void init() {
+        final Random random = new Random(42);
+        final ManualClock clock = new ManualClock(System.currentTimeMillis());
+        final ISnowflake[] generators = new ISnowflake[this.nodes];
+        for (int i = 0; i < generators.length; i++) {
+            generators[i] = new AtomicSnowflake(CONFIG, i, SnowflakeOptions.DEFAULT.withClock(clock));
+        }
+        this.ids = new long[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            if (random.nextInt(BATCH / this.millis + 1) == 0) {
+                clock.advance(1);
+            }
+            this.ids[i] = generators[random.nextInt(generators.length)].nextId();
+        }
+
+        this.idSet = this.buildIdSet();
+        this.hashSet = this.buildHashSet();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    public void footprint(final Footprint footprint) {
+        footprint.ids += BATCH;
+        footprint.idSetBytes += GraphLayout.parseInstance(this.idSet).totalSize();
+        footprint.hashSetBytes += GraphLayout.parseInstance(this.hashSet).totalSize();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public SnowflakeIdSet buildIdSet() {
+        final SnowflakeIdSet set = new SnowflakeIdSet(CONFIG);
+        for (final long id : this.ids) {
+            set.add(id);
+        }
+        return set;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public Set<Long> buildHashSet() {
+        final Set<Long> set = new HashSet<>();
+        for (final long id : this.ids) {
+            set.add(id);
+        }
+        return set;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int containsIdSet() {
+        int found = 0;
+        for (final long id : this.ids) {
+            if (this.idSet.contains(id)) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int containsHashSet() {
+        int found = 0;
+        for (final long id : this.ids) {
+            if (this.hashSet.contains(id)) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Retained sizes counted by {@link #footprint(Footprint)}. The counters add up over the iterations and forks
+     * alike, so their ratios are the bytes per identifier.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        public long ids;
+        public long idSetBytes;
+        public long hashSetBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            this.ids = 0;
+            this.idSetBytes = 0;
+            this.hashSetBytes = 0;
+        }
+    }
+}
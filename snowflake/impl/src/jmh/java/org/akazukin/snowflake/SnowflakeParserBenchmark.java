@@ -0,0 +1,79 @@
+package org.akazukin.snowflake;
+
+import org.akazukin.snowflake.generator.AtomicSnowflake;
+import org.akazukin.snowflake.parser.SnowflakeParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.CompilerControl;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares decoding one {@link SnowflakeParser.Result} per identifier against the columnar bulk parser.
+ * {@link #parseColumnsVector()} forks with the {@code jdk.incubator.vector} module enabled, so on Java 21
+ * it measures the Vector API kernel of the multi-release JAR, while {@link #parseColumns()} measures
+ * the scalar one.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@CompilerControl(CompilerControl.Mode.DONT_INLINE)
+public class SnowflakeParserBenchmark {
+    @Param({"1024", "65536"})
+    private int size;
+
+    private SnowflakeParser parser;
+    private long[] ids;
+    private LongBuffer direct;
+    private long[] timestamps, machineIds, sequences;
+
+    @Setup
+    public void init() {
+        this.parser = new SnowflakeParser(new SnowflakeConfig());
+        this.ids = new long[this.size];
+        new AtomicSnowflake(new SnowflakeConfig(), 0b111 << 7 | 0b1).nextIds(this.ids, 0, this.size);
+
+        this.direct = ByteBuffer.allocateDirect(this.size * Long.BYTES).asLongBuffer();
+        this.direct.put(this.ids).flip();
+
+        this.timestamps = new long[this.size];
+        this.machineIds = new long[this.size];
+        this.sequences = new long[this.size];
+    }
+
+    @Benchmark
+    public void parseEach(final Blackhole bh) {
+        for (final long id : this.ids) {
+            bh.consume(this.parser.parse(id));
+        }
+    }
+
+    @Benchmark
+    public long[] parseColumns() {
+        this.parser.parse(this.ids, 0, this.size, this.timestamps, this.machineIds, this.sequences, 0);
+        return this.sequences;
+    }
+
+    @Benchmark
+    @Fork(jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+    public long[] parseColumnsVector() {
+        this.parser.parse(this.ids, 0, this.size, this.timestamps, this.machineIds, this.sequences, 0);
+        return this.sequences;
+    }
+
+    @Benchmark
+    public long[] parseDirectBuffer() {
+        this.parser.parse(this.direct.duplicate(), this.timestamps, this.machineIds, this.sequences, 0);
+        return this.sequences;
+    }
+}
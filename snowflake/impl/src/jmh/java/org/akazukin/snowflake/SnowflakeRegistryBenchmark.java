@@ -0,0 +1,63 @@
+package org.akazukin.snowflake;
+
+import org.akazukin.snowflake.generator.AtomicSnowflake;
+import org.akazukin.snowflake.generator.ISnowflake;
+import org.akazukin.snowflake.generator.SnowflakeRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares issuing an identifier for a random key through the registry against
+ * a {@link ConcurrentHashMap} of {@link AtomicSnowflake}s filled with {@code computeIfAbsent}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SnowflakeRegistryBenchmark {
+    private static final SnowflakeConfig CONFIG = new SnowflakeConfig();
+
+    @Param({"10000"})
+    private int keys;
+
+    private Integer[] boxedKeys;
+    private SnowflakeRegistry<Integer> registry;
+    private ConcurrentHashMap<Integer, ISnowflake> map;
+
+    @Setup
+    public void init() {
+        this.boxedKeys = new Integer[this.keys];
+        for (int i = 0; i < this.keys; i++) {
+            this.boxedKeys[i] = i;
+        }
+        this.registry = new SnowflakeRegistry<>(key -> CONFIG, 1, TimeUnit.MINUTES.toMillis(1));
+        this.map = new ConcurrentHashMap<>();
+        for (final Integer key : this.boxedKeys) {
+            this.registry.get(key);
+            this.map.put(key, new AtomicSnowflake(CONFIG, 1));
+        }
+    }
+
+    @Benchmark
+    public long registry() {
+        return this.registry.get(this.randomKey()).nextId();
+    }
+
+    @Benchmark
+    public long computeIfAbsent() {
+        return this.map.computeIfAbsent(this.randomKey(), key -> new AtomicSnowflake(CONFIG, 1)).nextId();
+    }
+
+    private Integer randomKey() {
+        return this.boxedKeys[ThreadLocalRandom.current().nextInt(this.keys)];
+    }
+}
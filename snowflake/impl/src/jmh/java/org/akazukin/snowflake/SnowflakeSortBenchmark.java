@@ -0,0 +1,99 @@
+package org.akazukin.snowflake;
+
+import org.akazukin.snowflake.clock.ManualClock;
+import org.akazukin.snowflake.collection.SnowflakeSorter;
+import org.akazukin.snowflake.generator.AtomicSnowflake;
+import org.akazukin.snowflake.generator.ISnowflake;
+import org.akazukin.snowflake.generator.SnowflakeOptions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link SnowflakeSorter} with {@link Arrays#sort(long[])} and {@link Arrays#parallelSort(long[])}
+ * on a shuffled batch of IDs issued by 64 nodes over {@link #millis} milliseconds.
+ * Every benchmark first copies the batch into the array it sorts.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SnowflakeSortBenchmark {
+    private static final SnowflakeConfig CONFIG = new SnowflakeConfig();
+
+    @Param({"65536", "1048576"})
+    private int size;
+
+    /**
+     * Time span of the batch.
+     */
+    @Param({"10", "60000"})
+    private int millis;
+
+    private long[] batch;
+    private long[] work;
+    private long[] scratch;
+    private SnowflakeSorter sorter;
+
+    @Setup
+    public void init() {
+        final Random random = new Random(42);
+        final ManualClock clock = new ManualClock(System.currentTimeMillis());
+        final ISnowflake[] nodes = new ISnowflake[64];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = new AtomicSnowflake(CONFIG, i, SnowflakeOptions.DEFAULT.withClock(clock));
+        }
+        this.batch = new long[this.size];
+        for (int i = 0; i < this.size; i++) {
+            if (random.nextInt(this.size / this.millis + 1) == 0) {
+                clock.advance(1);
+            }
+            this.batch[i] = nodes[random.nextInt(nodes.length)].nextId();
+        }
+        for (int i = this.size - 1; i > 0; i--) {
+            final int j = random.nextInt(i + 1);
+            final long id = this.batch[i];
+            this.batch[i] = this.batch[j];
+            this.batch[j] = id;
+        }
+        this.work = new long[this.size];
+        this.scratch = new long[this.size];
+        this.sorter = new SnowflakeSorter(CONFIG);
+    }
+
+    @Benchmark
+    public long[] arraysSort() {
+        System.arraycopy(this.batch, 0, this.work, 0, this.size);
+        Arrays.sort(this.work);
+        return this.work;
+    }
+
+    @Benchmark
+    public long[] arraysParallelSort() {
+        System.arraycopy(this.batch, 0, this.work, 0, this.size);
+        Arrays.parallelSort(this.work);
+        return this.work;
+    }
+
+    @Benchmark
+    public long[] radixSort() {
+        System.arraycopy(this.batch, 0, this.work, 0, this.size);
+        this.sorter.sort(this.work, 0, this.size, this.scratch);
+        return this.work;
+    }
+
+    @Benchmark
+    public long[] radixParallelSort() {
+        System.arraycopy(this.batch, 0, this.work, 0, this.size);
+        this.sorter.parallelSort(this.work, 0, this.size, this.scratch);
+        return this.work;
+    }
+}
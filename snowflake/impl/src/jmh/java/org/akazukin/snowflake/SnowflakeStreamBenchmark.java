@@ -0,0 +1,64 @@
+package org.akazukin.snowflake;
+
+import org.akazukin.snowflake.generator.AtomicSnowflake;
+import org.akazukin.snowflake.generator.ISnowflake;
+import org.akazukin.snowflake.generator.LockFreeSnowflake;
+import org.akazukin.snowflake.generator.SnowflakeStreams;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares generating a large number of identifiers with a sequential {@link ISnowflake#nextId()} loop
+ * against the chunked and sorted streams, sequential and parallel on the common fork/join pool.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SnowflakeStreamBenchmark {
+    @Param({"atomic", "lockFree"})
+    private String generator;
+
+    @Param({"1048576"})
+    private int count;
+
+    private ISnowflake gen;
+
+    @Setup
+    public void init() {
+        this.gen = "atomic".equals(this.generator)
+                ? new AtomicSnowflake(new SnowflakeConfig(), 0b111 << 7 | 0b1)
+                : new LockFreeSnowflake(new SnowflakeConfig(), 0b111 << 7 | 0b1);
+    }
+
+    @Benchmark
+    public long nextIdLoop() {
+        long acc = 0;
+        for (int i = 0; i < this.count; i++) {
+            acc ^= this.gen.nextId();
+        }
+        return acc;
+    }
+
+    @Benchmark
+    public long stream() {
+        return SnowflakeStreams.stream(this.gen, this.count, false).reduce(0, (a, b) -> a ^ b);
+    }
+
+    @Benchmark
+    public long parallelStream() {
+        return SnowflakeStreams.stream(this.gen, this.count, true).reduce(0, (a, b) -> a ^ b);
+    }
+
+    @Benchmark
+    public long sortedParallelStream() {
+        return SnowflakeStreams.sortedStream(this.gen, this.count, true).reduce(0, (a, b) -> a ^ b);
+    }
+}
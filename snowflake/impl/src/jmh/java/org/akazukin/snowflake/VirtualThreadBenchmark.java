@@ -0,0 +1,138 @@
+package org.akazukin.snowflake;
+
+import org.akazukin.snowflake.generator.AtomicSnowflake;
+import org.akazukin.snowflake.generator.ISnowflake;
+import org.akazukin.snowflake.generator.ISnowflakeLease;
+import org.akazukin.snowflake.generator.LockFreeSnowflake;
+import org.akazukin.snowflake.generator.ReentrantSnowflake;
+import org.akazukin.snowflake.generator.ThreadedSnowflake;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.CompilerControl;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs the single, bulk and lease scenarios from many tasks submitted to a virtual-thread executor,
+ * compared with a fixed pool of platform threads. Requires Java 21 for the {@code virtual} executor.
+ * Each invocation submits {@link #TASKS} tasks that generate {@link #IDS_PER_TASK} identifiers each.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@CompilerControl(CompilerControl.Mode.DONT_INLINE)
+public class VirtualThreadBenchmark {
+    public static final int TASKS = 1_000;
+    public static final int IDS_PER_TASK = 256;
+    public static final int BATCH = 64;
+    public static final int POOL_SIZE = 64;
+
+    @Param({"atomic", "lockFree", "reentrant", "threaded"})
+    private String generator;
+
+    @Param({"platform", "virtual"})
+    private String executor;
+
+    private ISnowflake gen;
+    private ExecutorService pool;
+    private final AtomicLong sink = new AtomicLong();
+
+    @Setup
+    public void init() throws ReflectiveOperationException {
+        switch (this.generator) {
+            case "atomic":
+                this.gen = new AtomicSnowflake(new SnowflakeConfig(), 0b111 << 7 | 0b1);
+                break;
+            case "lockFree":
+                this.gen = new LockFreeSnowflake(new SnowflakeConfig(), 0b111 << 7 | 0b1);
+                break;
+            case "reentrant":
+                this.gen = new ReentrantSnowflake(new SnowflakeConfig(), 0b111 << 7 | 0b1);
+                break;
+            case "threaded":
+                this.gen = new ThreadedSnowflake(new SnowflakeConfig(), 0b111 << 7 | 0b1, POOL_SIZE);
+                break;
+            default:
+                throw new IllegalArgumentException(this.generator);
+        }
+
+        if ("virtual".equals(this.executor)) {
+            // Looked up reflectively so the benchmarks still compile for Java 8
+            this.pool = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } else {
+            this.pool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        }
+    }
+
+    @TearDown
+    public void close() throws InterruptedException {
+        this.pool.shutdown();
+        this.pool.awaitTermination(1, TimeUnit.MINUTES);
+    }
+
+    @Benchmark
+    public long nextId() throws InterruptedException {
+        return this.run(() -> {
+            long acc = 0;
+            for (int i = 0; i < IDS_PER_TASK; i++) {
+                acc ^= this.gen.nextId();
+            }
+            return acc;
+        });
+    }
+
+    @Benchmark
+    public long nextIds() throws InterruptedException {
+        return this.run(() -> {
+            final long[] ids = new long[BATCH];
+            long acc = 0;
+            for (int i = 0; i < IDS_PER_TASK; i += BATCH) {
+                this.gen.nextIds(ids, 0, BATCH);
+                acc ^= ids[BATCH - 1];
+            }
+            return acc;
+        });
+    }
+
+    @Benchmark
+    public long lease() throws InterruptedException {
+        return this.run(() -> {
+            long acc = 0;
+            for (int i = 0; i < IDS_PER_TASK; i += BATCH) {
+                final ISnowflakeLease lease = this.gen.lease(BATCH);
+                while (lease.hasNext()) {
+                    acc ^= lease.nextLong();
+                }
+            }
+            return acc;
+        });
+    }
+
+    private long run(final Task task) throws InterruptedException {
+        final CountDownLatch done = new CountDownLatch(TASKS);
+        for (int i = 0; i < TASKS; i++) {
+            this.pool.execute(() -> {
+                this.sink.getAndAdd(task.run());
+                done.countDown();
+            });
+        }
+        done.await();
+        return this.sink.get();
+    }
+
+    @FunctionalInterface
+    private interface Task {
+        long run();
+    }
+}
@@ -14,4 +14,27 @@ public final class Constants {
      */
     public static final String EX_ILLEGAL_MACHINE_NUM_BIGGER = "machineId can't be greater than max machine id";
     public static final String EX_ILLEGAL_MACHINE_NUM_NEGATIVE = "machineId must not be negative";
+    public static final String EX_ILLEGAL_POOL_SIZE = "poolSize must be positive";
+    public static final String EX_ILLEGAL_TICK = "tick must be positive";
+    public static final String EX_ILLEGAL_COUNT_NEGATIVE = "count must not be negative";
+    public static final String EX_ILLEGAL_MAX_BORROW_NEGATIVE = "maxBorrowMillis must not be negative";
+    public static final String EX_CLOCK_REGRESSION = "The generator is further ahead of the clock than allowed";
+    public static final String EX_NO_SPARE_MACHINE_ID = "No spare machineId is left to switch to";
+    public static final String EX_ILLEGAL_PARK_NANOS = "parkNanos must be positive";
+    public static final String EX_ILLEGAL_CAPACITY = "capacity must be positive and at most 2^30";
+    public static final String EX_ILLEGAL_ENCODED_ID = "Not a valid encoded ID";
+    public static final String EX_ILLEGAL_ENCODED_BLOCK = "Not a valid encoded block of IDs";
+    public static final String EX_INCOMPATIBLE_LAYOUT = "The sets use different ID layouts";
+    public static final String EX_ILLEGAL_TTL = "ttlMillis must be positive";
+    public static final String EX_INCOMPATIBLE_LEASE_FILE = "The lease file was created for a different number of machine IDs";
+    public static final String EX_NO_FREE_MACHINE_ID = "No free range of machine IDs is large enough";
+    public static final String EX_ALLOCATOR_CLOSED = "The allocator is closed";
+    public static final String EX_ILLEGAL_WINDOW_MILLIS = "windowMillis must be positive";
+    public static final String EX_ILLEGAL_LOW_WATER_MARK = "lowWaterMark must be non-negative and less than capacity";
+    public static final String EX_ILLEGAL_BATCH_SIZE = "batchSize must be positive";
+    public static final String EX_ILLEGAL_DEMAND = "The requested number of batches must be positive";
+    public static final String EX_ILLEGAL_IDLE_MILLIS = "idleMillis must be positive";
+    public static final String EX_ILLEGAL_SCRATCH = "scratch must be at least as long as the sorted range";
+    public static final String EX_ILLEGAL_MACHINE_RANGE = "The machine ID range must not be empty or larger than a pool can hold";
+    public static final String EX_ILLEGAL_MACHINE_ORDER = "minMachineId can't be greater than maxMachineId";
 }
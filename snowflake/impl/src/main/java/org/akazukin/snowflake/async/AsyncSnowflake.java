@@ -0,0 +1,262 @@
+package org.akazukin.snowflake.async;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import org.akazukin.annotation.marker.ThreadSafe;
+import org.akazukin.snowflake.Constants;
+import org.akazukin.snowflake.clock.IClock;
+import org.akazukin.snowflake.clock.SystemClock;
+import org.akazukin.snowflake.config.ISnowflakeConfig;
+import org.akazukin.snowflake.config.SnowflakeTicks;
+import org.akazukin.snowflake.generator.ISnowflake;
+import org.akazukin.snowflake.parser.SnowflakeParser;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Non-blocking facade over a generator.
+ * <p>
+ * Identifiers are taken from the generator right away. Once the sequence of the current tick
+ * is exhausted the generator borrows the following ticks; the facade then delays the completion
+ * until the clock has reached the tick of the identifier, so a caller never sees an identifier
+ * from the future and the delay is spent on a scheduler instead of a blocked thread. Dependent stages of
+ * delayed futures run on the scheduler thread unless they are attached with an executor.
+ * <p>
+ * The wrapped generator should borrow without limit, which is its default, or it may block or fail
+ * itself before the facade gets to delay. The clock must be the one the generator reads.
+ */
+@ThreadSafe
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public final class AsyncSnowflake implements IAsyncSnowflake {
+    ISnowflake generator;
+    SnowflakeParser parser;
+    SnowflakeTicks ticks;
+    IClock clock;
+    ScheduledExecutorService scheduler;
+
+    /**
+     * Constructs a new {@code AsyncSnowflake} on the system clock,
+     * which delays on a shared daemon scheduler thread.
+     *
+     * @param generator generator to take identifiers from, thread-safe (must not be null)
+     * @param config    configuration of the generator (must not be null)
+     */
+    public AsyncSnowflake(@NotNull final ISnowflake generator, @NotNull final ISnowflakeConfig config) {
+        this(generator, config, SystemClock.INSTANCE, SharedScheduler.INSTANCE);
+    }
+
+    /**
+     * Constructs a new {@code AsyncSnowflake}.
+     *
+     * @param generator generator to take identifiers from, thread-safe (must not be null)
+     * @param config    configuration of the generator (must not be null)
+     * @param clock     clock of the generator (must not be null)
+     * @param scheduler scheduler to delay completions on (must not be null)
+     */
+    public AsyncSnowflake(@NotNull final ISnowflake generator, @NotNull final ISnowflakeConfig config,
+                          @NotNull final IClock clock, @NotNull final ScheduledExecutorService scheduler) {
+        this.generator = generator;
+        this.parser = new SnowflakeParser(config);
+        this.ticks = SnowflakeTicks.of(config);
+        this.clock = clock;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public CompletableFuture<Long> nextIdAsync() {
+        final CompletableFuture<Long> future = new CompletableFuture<>();
+        try {
+            final long id = this.generator.nextId();
+            this.whenDue(this.parser.timestampOf(id), future, id);
+        } catch (final RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    @Override
+    public CompletableFuture<long[]> nextIdsAsync(final int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException(Constants.EX_ILLEGAL_COUNT_NEGATIVE);
+        }
+        if (count == 0) {
+            return CompletableFuture.completedFuture(new long[0]);
+        }
+        final CompletableFuture<long[]> future = new CompletableFuture<>();
+        try {
+            final long[] ids = new long[count];
+            this.generator.nextIds(ids, 0, count);
+            this.whenDue(this.parser.timestampOf(ids[count - 1]), future, ids);
+        } catch (final RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    @Override
+    public ISnowflakePublisher publisher(final int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException(Constants.EX_ILLEGAL_BATCH_SIZE);
+        }
+        return subscriber -> {
+            final BatchSubscription subscription = new BatchSubscription(subscriber, batchSize);
+            subscriber.onSubscribe(subscription);
+        };
+    }
+
+    /**
+     * Completes the future once the clock has reached the given tick, at once if it already has.
+     * Completes it exceptionally if the scheduler rejects the delay.
+     *
+     * @param dueTick tick since the start timestamp
+     * @param future  future to complete
+     * @param value   value to complete the future with
+     * @param <T>     type of the value
+     */
+    private <T> void whenDue(final long dueTick, final CompletableFuture<T> future, final T value) {
+        final long ahead = dueTick - this.ticks.now(this.clock);
+        if (ahead <= 0) {
+            future.complete(value);
+            return;
+        }
+        try {
+            // Checked again when fired, as the clock may run slower than the scheduler
+            this.scheduler.schedule(() -> this.whenDue(dueTick, future, value), this.ticks.toMillis(ahead), TimeUnit.MILLISECONDS);
+        } catch (final RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Subscription generating one batch per requested element.
+     * Deliveries are serialized by a work-in-progress counter, so {@link #drain()} may be entered
+     * from {@link #request(long)}, from the subscriber itself, and from the scheduler.
+     */
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    private final class BatchSubscription implements ISnowflakeSubscription, Runnable {
+        ISnowflakeSubscriber subscriber;
+        int batchSize;
+
+        AtomicLong requested = new AtomicLong();
+        AtomicInteger wip = new AtomicInteger();
+        AtomicBoolean scheduled = new AtomicBoolean();
+
+        /**
+         * Set by a non-positive request, reported by the drain loop.
+         */
+        AtomicBoolean illegalDemand = new AtomicBoolean();
+
+        /**
+         * Generated batch that is not due yet, accessed by the drain loop only.
+         */
+        @NonFinal
+        long[] pending;
+
+        @NonFinal
+        volatile boolean cancelled;
+
+        BatchSubscription(final ISnowflakeSubscriber subscriber, final int batchSize) {
+            this.subscriber = subscriber;
+            this.batchSize = batchSize;
+        }
+
+        @Override
+        public void request(final long n) {
+            if (n <= 0) {
+                this.illegalDemand.set(true);
+            } else {
+                this.requested.getAndAccumulate(n, (r, add) -> r + add < 0 ? Long.MAX_VALUE : r + add);
+            }
+            this.drain();
+        }
+
+        @Override
+        public void cancel() {
+            this.cancelled = true;
+        }
+
+        @Override
+        public void run() {
+            this.scheduled.set(false);
+            this.drain();
+        }
+
+        private void drain() {
+            if (this.wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                this.deliver();
+                missed = this.wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void deliver() {
+            while (!this.cancelled) {
+                if (this.illegalDemand.get()) {
+                    this.cancelled = true;
+                    this.subscriber.onError(new IllegalArgumentException(Constants.EX_ILLEGAL_DEMAND));
+                    return;
+                }
+
+                long[] batch = this.pending;
+                if (batch == null) {
+                    if (this.requested.get() == 0) {
+                        return;
+                    }
+                    batch = new long[this.batchSize];
+                    try {
+                        AsyncSnowflake.this.generator.nextIds(batch, 0, this.batchSize);
+                    } catch (final RuntimeException e) {
+                        this.cancelled = true;
+                        this.subscriber.onError(e);
+                        return;
+                    }
+                    this.pending = batch;
+                }
+
+                final long ahead = AsyncSnowflake.this.parser.timestampOf(batch[this.batchSize - 1])
+                        - AsyncSnowflake.this.ticks.now(AsyncSnowflake.this.clock);
+                if (ahead > 0) {
+                    if (this.scheduled.compareAndSet(false, true)) {
+                        try {
+                            AsyncSnowflake.this.scheduler.schedule(this, AsyncSnowflake.this.ticks.toMillis(ahead), TimeUnit.MILLISECONDS);
+                        } catch (final RejectedExecutionException e) {
+                            this.cancelled = true;
+                            this.subscriber.onError(e);
+                        }
+                    }
+                    return;
+                }
+
+                this.pending = null;
+                if (this.requested.get() != Long.MAX_VALUE) {
+                    this.requested.decrementAndGet();
+                }
+                this.subscriber.onNext(batch);
+            }
+            this.pending = null;
+        }
+    }
+
+    /**
+     * Daemon scheduler shared by the facades constructed without one, created on first use.
+     */
+    private static final class SharedScheduler {
+        static final ScheduledExecutorService INSTANCE = Executors.newSingleThreadScheduledExecutor(r -> {
+            final Thread thread = new Thread(r, "Snowflake-AsyncScheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -0,0 +1,10 @@
+/**
+ * This package contains the non-blocking facade over the generators.
+ *
+ * <p>
+ * {@link org.akazukin.snowflake.async.AsyncSnowflake} wraps any generator. When the sequence of the
+ * current millisecond is exhausted, the generator borrows the next millisecond as usual, and the facade
+ * completes the borrowed identifiers only when the clock has reached it, on a scheduler thread.
+ * </p>
+ */
+package org.akazukin.snowflake.async;
@@ -0,0 +1,79 @@
+package org.akazukin.snowflake.clock;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.akazukin.annotation.marker.ThreadSafe;
+import org.akazukin.snowflake.Constants;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Clock that serves a cached time updated by a background thread.
+ * <p>
+ * Reading the clock is a single volatile read. The cached value lags behind the
+ * source by at most one tick plus the scheduling latency of the ticker thread.
+ * The ticker is a daemon thread and is stopped by {@link #close()}; after that
+ * the clock keeps returning the last cached value.
+ */
+@ThreadSafe
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public final class CachedClock implements IClock, AutoCloseable {
+    final IClock source;
+    final long tickNanos;
+    final Thread ticker;
+
+    volatile long now;
+    volatile boolean running = true;
+
+    /**
+     * Constructs a new {@code CachedClock} over the system clock, ticking every millisecond.
+     */
+    public CachedClock() {
+        this(SystemClock.INSTANCE, 1, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Constructs a new {@code CachedClock} and starts its ticker thread.
+     *
+     * @param source clock to cache (must not be null)
+     * @param tick   interval between two updates (positive)
+     * @param unit   unit of {@code tick} (must not be null)
+     * @throws IllegalArgumentException if {@code tick} is not positive
+     */
+    public CachedClock(@NotNull final IClock source, final long tick, @NotNull final TimeUnit unit) {
+        if (tick <= 0) {
+            throw new IllegalArgumentException(Constants.EX_ILLEGAL_TICK);
+        }
+
+        this.source = source;
+        this.tickNanos = unit.toNanos(tick);
+        this.now = source.currentTimeMillis();
+
+        this.ticker = new Thread(this::tick, "Snowflake-CachedClock");
+        this.ticker.setDaemon(true);
+        this.ticker.start();
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return this.now;
+    }
+
+    /**
+     * Stops the ticker thread.
+     */
+    @Override
+    public void close() {
+        this.running = false;
+        LockSupport.unpark(this.ticker);
+    }
+
+    private void tick() {
+        while (this.running) {
+            this.now = this.source.currentTimeMillis();
+            LockSupport.parkNanos(this, this.tickNanos);
+        }
+    }
+}
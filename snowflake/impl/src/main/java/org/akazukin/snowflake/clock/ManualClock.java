@@ -0,0 +1,68 @@
+package org.akazukin.snowflake.clock;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.akazukin.annotation.marker.ThreadSafe;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Clock whose time is set explicitly, intended for tests.
+ * <p>
+ * The time only changes through {@link #set(long)}, {@link #advance(long)} and {@link #advanceMicros(long)},
+ * which makes the timestamp component of generated identifiers deterministic
+ * and allows simulating clock jumps in both directions.
+ */
+@ThreadSafe
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public final class ManualClock implements IClock {
+    AtomicLong micros;
+
+    /**
+     * Constructs a new {@code ManualClock} starting at the given time.
+     *
+     * @param millis initial time in milliseconds since the Unix epoch
+     */
+    public ManualClock(final long millis) {
+        this.micros = new AtomicLong(millis * 1_000L);
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return Math.floorDiv(this.micros.get(), 1_000L);
+    }
+
+    @Override
+    public long currentTimeMicros() {
+        return this.micros.get();
+    }
+
+    /**
+     * Sets the current time.
+     *
+     * @param millis new time in milliseconds since the Unix epoch
+     */
+    public void set(final long millis) {
+        this.micros.set(millis * 1_000L);
+    }
+
+    /**
+     * Moves the current time by the given amount, which may be negative.
+     *
+     * @param delta milliseconds to add
+     * @return the new time in milliseconds since the Unix epoch
+     */
+    public long advance(final long delta) {
+        return Math.floorDiv(this.micros.addAndGet(delta * 1_000L), 1_000L);
+    }
+
+    /**
+     * Moves the current time by the given amount of microseconds, which may be negative.
+     *
+     * @param delta microseconds to add
+     * @return the new time in microseconds since the Unix epoch
+     */
+    public long advanceMicros(final long delta) {
+        return this.micros.addAndGet(delta);
+    }
+}
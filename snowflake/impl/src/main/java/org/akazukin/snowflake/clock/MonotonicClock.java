@@ -0,0 +1,48 @@
+package org.akazukin.snowflake.clock;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.akazukin.annotation.marker.ThreadSafe;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Clock that never goes backwards, derived from {@link System#nanoTime()}.
+ * <p>
+ * The wall-clock time is sampled once at construction and advanced by the elapsed
+ * monotonic time afterwards, so steps of the wall clock (NTP corrections, manual changes)
+ * are not observed. As a consequence the clock slowly drifts apart from the wall clock
+ * by the frequency error of the monotonic timer; recreate the clock to re-anchor it.
+ */
+@ThreadSafe
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public final class MonotonicClock implements IClock {
+    long anchorMillis;
+    long anchorNanos;
+
+    /**
+     * Constructs a new {@code MonotonicClock} anchored to the system clock.
+     */
+    public MonotonicClock() {
+        this(SystemClock.INSTANCE);
+    }
+
+    /**
+     * Constructs a new {@code MonotonicClock} anchored to the current time of the given clock.
+     *
+     * @param anchor clock supplying the wall-clock time at construction (must not be null)
+     */
+    public MonotonicClock(@NotNull final IClock anchor) {
+        this.anchorNanos = System.nanoTime();
+        this.anchorMillis = anchor.currentTimeMillis();
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return this.anchorMillis + (System.nanoTime() - this.anchorNanos) / 1_000_000L;
+    }
+
+    @Override
+    public long currentTimeMicros() {
+        return this.anchorMillis * 1_000L + (System.nanoTime() - this.anchorNanos) / 1_000L;
+    }
+}
@@ -0,0 +1,28 @@
+package org.akazukin.snowflake.clock;
+
+import org.akazukin.annotation.marker.ThreadSafe;
+
+/**
+ * Clock backed by {@link System#currentTimeMillis()}.
+ * <p>
+ * This is the clock used by the generators when none is specified.
+ * <p>
+ * The main class only uses the Java 8 API, so its {@link #currentTimeMicros()} has millisecond resolution.
+ * The multi-release JAR ships an overlay for Java 9, which newer JVMs load instead,
+ * reading microseconds from {@link java.time.Clock}.
+ */
+@ThreadSafe
+public final class SystemClock implements IClock {
+    /**
+     * The shared instance.
+     */
+    public static final SystemClock INSTANCE = new SystemClock();
+
+    private SystemClock() {
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+}
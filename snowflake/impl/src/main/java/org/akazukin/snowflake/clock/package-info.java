@@ -0,0 +1,11 @@
+/**
+ * Provides the clock implementations shipped with the library.
+ * <ul>
+ *   <li>{@link org.akazukin.snowflake.clock.SystemClock} - reads {@link java.lang.System#currentTimeMillis()}.</li>
+ *   <li>{@link org.akazukin.snowflake.clock.CachedClock} - serves a value refreshed by a background thread.</li>
+ *   <li>{@link org.akazukin.snowflake.clock.MonotonicClock} - anchored with {@link java.lang.System#nanoTime()}
+ *       and immune to wall-clock jumps.</li>
+ *   <li>{@link org.akazukin.snowflake.clock.ManualClock} - set explicitly, for tests.</li>
+ * </ul>
+ */
+package org.akazukin.snowflake.clock;
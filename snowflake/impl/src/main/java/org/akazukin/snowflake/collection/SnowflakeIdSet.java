@@ -0,0 +1,488 @@
+package org.akazukin.snowflake.collection;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import org.akazukin.annotation.marker.NonThreadSafe;
+import org.akazukin.snowflake.Constants;
+import org.akazukin.snowflake.config.ISnowflakeConfig;
+import org.akazukin.snowflake.config.SnowflakeConfigUtils;
+import org.akazukin.snowflake.config.SnowflakeTicks;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * This class is a compressed set of Snowflake IDs, organized along the configured layout.
+ * <p>
+ * The IDs are grouped into buckets by their timestamp, kept in timestamp order. A bucket holds the low parts
+ * (machine ID and sequence) of its IDs either as a sorted {@code int} array or, once that would be larger,
+ * as a bitmap over all low parts, in the manner of Roaring bitmaps. IDs of one generator arrive in order and
+ * are appended to the last bucket and the end of its array, so no boxing or hashing takes place.
+ * <p>
+ * Since whole buckets correspond to timestamps, iterating the IDs of a time window and dropping the IDs
+ * older than a cutoff touch only the buckets concerned. Time windows are given in milliseconds since the
+ * Unix epoch and are inclusive on both ends; the start timestamp, the timestamp offset and the tick of the
+ * configuration are applied as by the generators, so a window boundary within a tick includes the whole tick.
+ */
+@NonThreadSafe
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public final class SnowflakeIdSet {
+    /**
+     * The number of bits of the low part, and its mask
+     */
+    int timestampLeft;
+    long lowMask;
+
+    /**
+     * Start timestamp with the offset applied and tick length, as used by the generators
+     */
+    SnowflakeTicks ticks;
+
+    /**
+     * The number of words of a bitmap bucket, and the largest number of low parts of an array bucket
+     */
+    int bitmapWords;
+    int arrayMax;
+
+    /**
+     * Timestamps of the buckets in ascending order, and the buckets
+     */
+    @NonFinal
+    long[] keys = new long[16];
+    @NonFinal
+    Bucket[] buckets = new Bucket[16];
+    @NonFinal
+    int bucketCount;
+
+    /**
+     * Index of the bucket last added to
+     */
+    @NonFinal
+    int lastIndex;
+
+    @NonFinal
+    long size;
+
+    /**
+     * Constructs a new, empty instance of the SnowflakeIdSet with the specified configuration.
+     *
+     * @param cfg The configuration for the SnowFlake ID generator, specifying machine ID
+     *            bits, sequence bits, and the start timestamp.
+     * @throws IllegalStateException If the sum of machine ID bits and sequence bits exceeds 22 bits,
+     *                               or if either machine ID bits or sequence bits are negative.
+     */
+    public SnowflakeIdSet(final ISnowflakeConfig cfg) {
+        // Validate the configuration
+        SnowflakeConfigUtils.validate(cfg);
+
+        this.timestampLeft = cfg.getSequenceBits() + cfg.getMachineIdBits();
+        this.lowMask = ~(-1L << this.timestampLeft);
+        this.ticks = SnowflakeTicks.of(cfg);
+        this.bitmapWords = Math.max(1, (1 << this.timestampLeft) >>> 6);
+        // An array of 4-byte entries becomes larger than the bitmap beyond this
+        this.arrayMax = this.bitmapWords * 2;
+    }
+
+    /**
+     * Adds an ID to this set.
+     *
+     * @param id The ID.
+     * @return {@code true} if the ID was not contained yet.
+     */
+    public boolean add(final long id) {
+        final long key = id >>> this.timestampLeft;
+        int index = this.lastIndex;
+        if (index >= this.bucketCount || this.keys[index] != key) {
+            index = this.indexOf(key);
+            if (index < 0) {
+                index = -index - 1;
+                this.insertBucket(index, key, new Bucket());
+            }
+            this.lastIndex = index;
+        }
+
+        if (this.buckets[index].add((int) (id & this.lowMask), this.arrayMax, this.bitmapWords)) {
+            this.size++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns whether this set contains an ID.
+     *
+     * @param id The ID.
+     * @return {@code true} if the ID is contained.
+     */
+    public boolean contains(final long id) {
+        final int index = this.indexOf(id >>> this.timestampLeft);
+        return index >= 0 && this.buckets[index].contains((int) (id & this.lowMask));
+    }
+
+    /**
+     * Returns the number of IDs in this set.
+     *
+     * @return The number of IDs.
+     */
+    public long size() {
+        return this.size;
+    }
+
+    /**
+     * Returns whether this set contains no IDs.
+     *
+     * @return {@code true} if the set is empty.
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Returns the number of distinct timestamps of the IDs in this set.
+     *
+     * @return The number of buckets.
+     */
+    public int getBucketCount() {
+        return this.bucketCount;
+    }
+
+    /**
+     * Passes every ID of this set to an action in ascending order.
+     *
+     * @param action The action.
+     */
+    public void forEach(final LongConsumer action) {
+        for (int i = 0; i < this.bucketCount; i++) {
+            this.buckets[i].forEach(this.keys[i] << this.timestampLeft, action);
+        }
+    }
+
+    /**
+     * Passes every ID of this set generated within a time window to an action in ascending order.
+     *
+     * @param fromEpochMillis The start of the window in milliseconds since the Unix epoch.
+     * @param toEpochMillis   The end of the window in milliseconds since the Unix epoch.
+     * @param action          The action.
+     */
+    public void forEach(final long fromEpochMillis, final long toEpochMillis, final LongConsumer action) {
+        final long to = this.ticks.floorTickOf(toEpochMillis);
+        for (int i = this.lowerBound(this.ticks.floorTickOf(fromEpochMillis)); i < this.bucketCount && this.keys[i] <= to; i++) {
+            this.buckets[i].forEach(this.keys[i] << this.timestampLeft, action);
+        }
+    }
+
+    /**
+     * Removes every ID generated before the given instant. Whole buckets are dropped,
+     * so the IDs of the tick the instant lies in are kept.
+     *
+     * @param cutoffEpochMillis The instant in milliseconds since the Unix epoch.
+     * @return The number of removed IDs.
+     */
+    public long removeBefore(final long cutoffEpochMillis) {
+        final int n = this.lowerBound(this.ticks.floorTickOf(cutoffEpochMillis));
+        long removed = 0;
+        for (int i = 0; i < n; i++) {
+            removed += this.buckets[i].cardinality;
+        }
+
+        System.arraycopy(this.keys, n, this.keys, 0, this.bucketCount - n);
+        System.arraycopy(this.buckets, n, this.buckets, 0, this.bucketCount - n);
+        Arrays.fill(this.buckets, this.bucketCount - n, this.bucketCount, null);
+        this.bucketCount -= n;
+        this.lastIndex = 0;
+        this.size -= removed;
+        return removed;
+    }
+
+    /**
+     * Adds every ID of another set to this set.
+     *
+     * @param other The other set, which is left unchanged.
+     * @throws IllegalArgumentException If the other set uses a different layout.
+     */
+    public void or(final SnowflakeIdSet other) {
+        this.checkLayout(other);
+
+        final int capacity = Math.max(16, this.bucketCount + other.bucketCount);
+        final long[] mergedKeys = new long[capacity];
+        final Bucket[] merged = new Bucket[capacity];
+        int n = 0;
+        int i = 0;
+        int j = 0;
+        long total = 0;
+        while (i < this.bucketCount || j < other.bucketCount) {
+            final Bucket bucket;
+            if (j == other.bucketCount || i < this.bucketCount && this.keys[i] < other.keys[j]) {
+                mergedKeys[n] = this.keys[i];
+                bucket = this.buckets[i++];
+            } else if (i == this.bucketCount || other.keys[j] < this.keys[i]) {
+                mergedKeys[n] = other.keys[j];
+                bucket = other.buckets[j++].copy();
+            } else {
+                mergedKeys[n] = this.keys[i];
+                bucket = this.buckets[i++];
+                bucket.or(other.buckets[j++], this.arrayMax, this.bitmapWords);
+            }
+            merged[n++] = bucket;
+            total += bucket.cardinality;
+        }
+
+        this.keys = mergedKeys;
+        this.buckets = merged;
+        this.bucketCount = n;
+        this.lastIndex = 0;
+        this.size = total;
+    }
+
+    /**
+     * Removes every ID from this set that another set does not contain.
+     *
+     * @param other The other set, which is left unchanged.
+     * @throws IllegalArgumentException If the other set uses a different layout.
+     */
+    public void and(final SnowflakeIdSet other) {
+        this.checkLayout(other);
+
+        int n = 0;
+        int j = 0;
+        long total = 0;
+        for (int i = 0; i < this.bucketCount; i++) {
+            final long key = this.keys[i];
+            while (j < other.bucketCount && other.keys[j] < key) {
+                j++;
+            }
+            if (j == other.bucketCount || other.keys[j] != key) {
+                continue;
+            }
+
+            final Bucket bucket = this.buckets[i];
+            bucket.and(other.buckets[j], this.arrayMax);
+            if (bucket.cardinality > 0) {
+                this.keys[n] = key;
+                this.buckets[n++] = bucket;
+                total += bucket.cardinality;
+            }
+        }
+
+        Arrays.fill(this.buckets, n, this.bucketCount, null);
+        this.bucketCount = n;
+        this.lastIndex = 0;
+        this.size = total;
+    }
+
+    private void checkLayout(final SnowflakeIdSet other) {
+        if (other.timestampLeft != this.timestampLeft || other.ticks.getTickMicros() != this.ticks.getTickMicros()) {
+            throw new IllegalArgumentException(Constants.EX_INCOMPATIBLE_LAYOUT);
+        }
+    }
+
+    private int indexOf(final long key) {
+        // IDs of a generator arrive in timestamp order
+        final int last = this.bucketCount - 1;
+        if (last < 0 || this.keys[last] < key) {
+            return -this.bucketCount - 1;
+        }
+        if (this.keys[last] == key) {
+            return last;
+        }
+        return Arrays.binarySearch(this.keys, 0, this.bucketCount, key);
+    }
+
+    private int lowerBound(final long key) {
+        final int index = Arrays.binarySearch(this.keys, 0, this.bucketCount, key);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    private void insertBucket(final int index, final long key, final Bucket bucket) {
+        if (this.bucketCount == this.keys.length) {
+            this.keys = Arrays.copyOf(this.keys, this.bucketCount * 2);
+            this.buckets = Arrays.copyOf(this.buckets, this.bucketCount * 2);
+        }
+        System.arraycopy(this.keys, index, this.keys, index + 1, this.bucketCount - index);
+        System.arraycopy(this.buckets, index, this.buckets, index + 1, this.bucketCount - index);
+        this.keys[index] = key;
+        this.buckets[index] = bucket;
+        this.bucketCount++;
+    }
+
+    /**
+     * Low parts of the IDs sharing one timestamp. Either {@code values} holds them sorted,
+     * or {@code bits} holds them as a bitmap if there are more than {@code arrayMax}.
+     */
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    private static final class Bucket {
+        int[] values = new int[4];
+        long[] bits;
+        int cardinality;
+
+        boolean add(final int low, final int arrayMax, final int bitmapWords) {
+            if (this.bits != null) {
+                final long word = this.bits[low >>> 6];
+                if ((word & 1L << low) != 0) {
+                    return false;
+                }
+                this.bits[low >>> 6] = word | 1L << low;
+                this.cardinality++;
+                return true;
+            }
+
+            // Low parts of a generator arrive in order
+            int index = this.cardinality;
+            if (index > 0 && this.values[index - 1] >= low) {
+                index = Arrays.binarySearch(this.values, 0, this.cardinality, low);
+                if (index >= 0) {
+                    return false;
+                }
+                index = -index - 1;
+            }
+
+            if (this.cardinality == arrayMax) {
+                this.toBitmap(bitmapWords);
+                this.bits[low >>> 6] |= 1L << low;
+                this.cardinality++;
+                return true;
+            }
+            if (this.cardinality == this.values.length) {
+                this.values = Arrays.copyOf(this.values, Math.min(arrayMax, this.cardinality * 2));
+            }
+            System.arraycopy(this.values, index, this.values, index + 1, this.cardinality - index);
+            this.values[index] = low;
+            this.cardinality++;
+            return true;
+        }
+
+        boolean contains(final int low) {
+            if (this.bits != null) {
+                return (this.bits[low >>> 6] & 1L << low) != 0;
+            }
+            return Arrays.binarySearch(this.values, 0, this.cardinality, low) >= 0;
+        }
+
+        void forEach(final long base, final LongConsumer action) {
+            if (this.bits == null) {
+                for (int i = 0; i < this.cardinality; i++) {
+                    action.accept(base | this.values[i]);
+                }
+                return;
+            }
+            for (int i = 0; i < this.bits.length; i++) {
+                long word = this.bits[i];
+                while (word != 0) {
+                    action.accept(base | (long) i << 6 | Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+        }
+
+        void or(final Bucket other, final int arrayMax, final int bitmapWords) {
+            if (this.bits == null && other.bits == null) {
+                final int[] merged = new int[Math.max(4, this.cardinality + other.cardinality)];
+                int n = 0;
+                int i = 0;
+                int j = 0;
+                while (i < this.cardinality && j < other.cardinality) {
+                    final int a = this.values[i];
+                    final int b = other.values[j];
+                    merged[n++] = Math.min(a, b);
+                    if (a <= b) {
+                        i++;
+                    }
+                    if (b <= a) {
+                        j++;
+                    }
+                }
+                while (i < this.cardinality) {
+                    merged[n++] = this.values[i++];
+                }
+                while (j < other.cardinality) {
+                    merged[n++] = other.values[j++];
+                }
+                this.values = merged;
+                this.cardinality = n;
+                if (n > arrayMax) {
+                    this.toBitmap(bitmapWords);
+                }
+                return;
+            }
+
+            if (this.bits == null) {
+                this.toBitmap(bitmapWords);
+            }
+            if (other.bits != null) {
+                for (int i = 0; i < bitmapWords; i++) {
+                    this.bits[i] |= other.bits[i];
+                }
+            } else {
+                for (int i = 0; i < other.cardinality; i++) {
+                    this.bits[other.values[i] >>> 6] |= 1L << other.values[i];
+                }
+            }
+            this.cardinality = bitCount(this.bits);
+        }
+
+        void and(final Bucket other, final int arrayMax) {
+            if (this.bits != null && other.bits != null) {
+                for (int i = 0; i < this.bits.length; i++) {
+                    this.bits[i] &= other.bits[i];
+                }
+                this.cardinality = bitCount(this.bits);
+                if (this.cardinality <= arrayMax) {
+                    this.toArray();
+                }
+                return;
+            }
+
+            // The result is a subset of an array bucket and fits into it
+            final Bucket array = this.bits == null ? this : other;
+            final Bucket filter = array == this ? other : this;
+            final int[] result = array == this ? this.values : new int[Math.max(4, other.cardinality)];
+            int n = 0;
+            for (int i = 0; i < array.cardinality; i++) {
+                if (filter.contains(array.values[i])) {
+                    result[n++] = array.values[i];
+                }
+            }
+            this.values = result;
+            this.bits = null;
+            this.cardinality = n;
+        }
+
+        Bucket copy() {
+            final Bucket copy = new Bucket();
+            copy.values = this.values == null ? null : Arrays.copyOf(this.values, Math.max(4, this.cardinality));
+            copy.bits = this.bits == null ? null : this.bits.clone();
+            copy.cardinality = this.cardinality;
+            return copy;
+        }
+
+        private void toBitmap(final int bitmapWords) {
+            this.bits = new long[bitmapWords];
+            for (int i = 0; i < this.cardinality; i++) {
+                this.bits[this.values[i] >>> 6] |= 1L << this.values[i];
+            }
+            this.values = null;
+        }
+
+        private void toArray() {
+            this.values = new int[Math.max(4, this.cardinality)];
+            int n = 0;
+            for (int i = 0; i < this.bits.length; i++) {
+                long word = this.bits[i];
+                while (word != 0) {
+                    this.values[n++] = i << 6 | Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                }
+            }
+            this.bits = null;
+        }
+
+        private static int bitCount(final long[] bits) {
+            int count = 0;
+            for (final long word : bits) {
+                count += Long.bitCount(word);
+            }
+            return count;
+        }
+    }
+}
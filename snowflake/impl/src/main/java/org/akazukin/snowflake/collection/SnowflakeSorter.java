@@ -0,0 +1,354 @@
+package org.akazukin.snowflake.collection;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.akazukin.annotation.marker.ThreadSafe;
+import org.akazukin.snowflake.Constants;
+import org.akazukin.snowflake.config.ISnowflakeConfig;
+import org.akazukin.snowflake.config.SnowflakeConfigUtils;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Sorts arrays of Snowflake IDs in ascending order with a least significant digit radix sort.
+ * <p>
+ * The IDs of a batch share most of their high bits, since their timestamps are clustered. The sort
+ * orders the IDs by their distance to the smallest one and only visits the bits in which the IDs differ,
+ * in digits of at most {@value #MAX_DIGIT_BITS} bits; a digit found to be equal in every ID is skipped.
+ * A batch spanning a few seconds of 1 millisecond ticks is thus sorted in three passes over the data,
+ * while {@link Arrays#sort(long[])} compares its way through {@code log n} levels.
+ * Ranges shorter than {@value #RADIX_THRESHOLD} elements are sorted by {@link Arrays#sort(long[], int, int)}.
+ * <p>
+ * The parallel variant first distributes the IDs into time buckets by the highest varying timestamp bits,
+ * and then sorts the buckets independently in the common fork-join pool, each on its own varying bits.
+ * <p>
+ * The sort is not stable, which is of no concern for primitive values. The radix passes move the elements
+ * between the array and a scratch buffer as long as the sorted range; it is allocated per call unless given.
+ *
+ * @see SnowflakeIdSet
+ */
+@ThreadSafe
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public final class SnowflakeSorter {
+    /**
+     * Largest number of bits sorted per pass; the counts of a digit fit in the L1 cache.
+     */
+    private static final int MAX_DIGIT_BITS = 11;
+
+    /**
+     * Range length below which the comparison sort is faster.
+     */
+    private static final int RADIX_THRESHOLD = 1 << 8;
+
+    /**
+     * Range length below which {@link #parallelSort(long[], int, int, long[])} sorts sequentially.
+     */
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    /**
+     * Smallest number of bits of the time buckets of the parallel sort.
+     */
+    private static final int MIN_BUCKET_BITS = 6;
+
+    /**
+     * Smallest number of elements counted and distributed by one task of the parallel sort.
+     */
+    private static final int MIN_CHUNK = 1 << 14;
+
+    /**
+     * Bit position of the timestamp
+     */
+    int timestampLeft;
+
+    /**
+     * Constructs a new sorter for the IDs of the given layout.
+     *
+     * @param cfg The configuration for the SnowFlake ID generator, specifying machine ID
+     *            bits and sequence bits.
+     * @throws IllegalStateException If the sum of machine ID bits and sequence bits exceeds 22 bits,
+     *                               or if either machine ID bits or sequence bits are negative.
+     */
+    public SnowflakeSorter(@NotNull final ISnowflakeConfig cfg) {
+        // Validate the configuration
+        SnowflakeConfigUtils.validate(cfg);
+
+        this.timestampLeft = cfg.getSequenceBits() + cfg.getMachineIdBits();
+    }
+
+    /**
+     * Sorts the whole array.
+     *
+     * @param ids IDs to sort (must not be null)
+     */
+    public void sort(@NotNull final long[] ids) {
+        this.sort(ids, 0, ids.length);
+    }
+
+    /**
+     * Sorts a range of the array.
+     *
+     * @param ids  IDs to sort (must not be null)
+     * @param from first index to sort, inclusive
+     * @param to   last index to sort, exclusive
+     * @throws IllegalArgumentException       if {@code from > to}
+     * @throws ArrayIndexOutOfBoundsException if {@code from < 0} or {@code to > ids.length}
+     */
+    public void sort(@NotNull final long[] ids, final int from, final int to) {
+        rangeCheck(ids.length, from, to);
+        this.sort(ids, from, to, to - from < RADIX_THRESHOLD ? null : new long[to - from]);
+    }
+
+    /**
+     * Sorts a range of the array, using the given buffer for the radix passes.
+     * The buffer can be reused by later calls, but not by concurrent ones.
+     *
+     * @param ids     IDs to sort (must not be null)
+     * @param from    first index to sort, inclusive
+     * @param to      last index to sort, exclusive
+     * @param scratch buffer at least as long as the range, or null to allocate one if needed
+     * @throws IllegalArgumentException       if {@code from > to} or the buffer is too short
+     * @throws ArrayIndexOutOfBoundsException if {@code from < 0} or {@code to > ids.length}
+     */
+    public void sort(@NotNull final long[] ids, final int from, final int to, final long[] scratch) {
+        rangeCheck(ids.length, from, to);
+        final int n = to - from;
+        if (n < RADIX_THRESHOLD) {
+            Arrays.sort(ids, from, to);
+            return;
+        }
+        final long[] buf = scratch(scratch, n);
+        if (radix(ids, from, buf, 0, n)) {
+            System.arraycopy(buf, 0, ids, from, n);
+        }
+    }
+
+    /**
+     * Sorts the whole array in parallel.
+     *
+     * @param ids IDs to sort (must not be null)
+     */
+    public void parallelSort(@NotNull final long[] ids) {
+        this.parallelSort(ids, 0, ids.length);
+    }
+
+    /**
+     * Sorts a range of the array in parallel.
+     *
+     * @param ids  IDs to sort (must not be null)
+     * @param from first index to sort, inclusive
+     * @param to   last index to sort, exclusive
+     * @throws IllegalArgumentException       if {@code from > to}
+     * @throws ArrayIndexOutOfBoundsException if {@code from < 0} or {@code to > ids.length}
+     */
+    public void parallelSort(@NotNull final long[] ids, final int from, final int to) {
+        rangeCheck(ids.length, from, to);
+        this.parallelSort(ids, from, to, to - from < RADIX_THRESHOLD ? null : new long[to - from]);
+    }
+
+    /**
+     * Sorts a range of the array in parallel, using the given buffer for the radix passes.
+     * Ranges shorter than {@value #PARALLEL_THRESHOLD} elements are sorted sequentially.
+     * The buffer can be reused by later calls, but not by concurrent ones.
+     *
+     * @param ids     IDs to sort (must not be null)
+     * @param from    first index to sort, inclusive
+     * @param to      last index to sort, exclusive
+     * @param scratch buffer at least as long as the range, or null to allocate one if needed
+     * @throws IllegalArgumentException       if {@code from > to} or the buffer is too short
+     * @throws ArrayIndexOutOfBoundsException if {@code from < 0} or {@code to > ids.length}
+     */
+    public void parallelSort(@NotNull final long[] ids, final int from, final int to, final long[] scratch) {
+        rangeCheck(ids.length, from, to);
+        final int n = to - from;
+        if (n < PARALLEL_THRESHOLD) {
+            this.sort(ids, from, to, scratch);
+            return;
+        }
+        final long[] buf = scratch(scratch, n);
+
+        final int chunks = Math.max(1, Math.min(n / MIN_CHUNK, Runtime.getRuntime().availableProcessors() * 4));
+        final int chunkSize = (n + chunks - 1) / chunks;
+
+        // Bounds of the range, reduced from the chunks
+        final long[] mins = new long[chunks];
+        final long[] maxs = new long[chunks];
+        final long[] diffs = new long[chunks];
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            final int start = from + c * chunkSize;
+            final int end = Math.min(to, start + chunkSize);
+            final long first = ids[from];
+            long min = Long.MAX_VALUE, max = Long.MIN_VALUE, diff = 0;
+            for (int i = start; i < end; i++) {
+                final long id = ids[i];
+                min = Math.min(min, id);
+                max = Math.max(max, id);
+                diff |= id ^ first;
+            }
+            mins[c] = min;
+            maxs[c] = max;
+            diffs[c] = diff;
+        });
+        long min = Long.MAX_VALUE, max = Long.MIN_VALUE, diff = 0;
+        for (int c = 0; c < chunks; c++) {
+            min = Math.min(min, mins[c]);
+            max = Math.max(max, maxs[c]);
+            diff |= diffs[c];
+        }
+        if (diff == 0) {
+            return;
+        }
+
+        // Buckets of the highest varying bits, cut at the timestamp if it varies enough to spread the work
+        final int low = Long.numberOfTrailingZeros(diff);
+        final int high = 64 - Long.numberOfLeadingZeros(max - min);
+        final int shift = Math.max(low, high - MAX_DIGIT_BITS) < this.timestampLeft
+                && high - this.timestampLeft >= MIN_BUCKET_BITS
+                ? this.timestampLeft
+                : Math.max(low, high - MAX_DIGIT_BITS);
+        final int buckets = 1 << high - shift;
+        final long base = min;
+
+        final int[][] counts = new int[chunks][buckets];
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            final int start = from + c * chunkSize;
+            final int end = Math.min(to, start + chunkSize);
+            final int[] count = counts[c];
+            for (int i = start; i < end; i++) {
+                count[(int) (ids[i] - base >>> shift)]++;
+            }
+        });
+        final int[] bucketStarts = new int[buckets + 1];
+        for (int b = 0, offset = 0; b < buckets; b++) {
+            bucketStarts[b] = offset;
+            for (int c = 0; c < chunks; c++) {
+                final int count = counts[c][b];
+                counts[c][b] = offset;
+                offset += count;
+            }
+        }
+        bucketStarts[buckets] = n;
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            final int start = from + c * chunkSize;
+            final int end = Math.min(to, start + chunkSize);
+            final int[] offsets = counts[c];
+            for (int i = start; i < end; i++) {
+                final long id = ids[i];
+                buf[offsets[(int) (id - base >>> shift)]++] = id;
+            }
+        });
+
+        IntStream.range(0, buckets).parallel().forEach(b -> {
+            final int start = bucketStarts[b];
+            final int length = bucketStarts[b + 1] - start;
+            if (length == 0) {
+                return;
+            }
+            if (length < RADIX_THRESHOLD) {
+                Arrays.sort(buf, start, start + length);
+                System.arraycopy(buf, start, ids, from + start, length);
+            } else if (!radix(buf, start, ids, from + start, length)) {
+                System.arraycopy(buf, start, ids, from + start, length);
+            }
+        });
+    }
+
+    /**
+     * Sorts {@code n} elements with the radix passes needed, alternating between the array and the buffer.
+     * The array and the buffer must be distinct.
+     *
+     * @return whether the sorted elements ended up in the buffer
+     */
+    private static boolean radix(final long[] src, final int srcFrom, final long[] buf, final int bufFrom, final int n) {
+        final int srcTo = srcFrom + n;
+        final long first = src[srcFrom];
+        long min = first, max = first, diff = 0;
+        for (int i = srcFrom; i < srcTo; i++) {
+            final long id = src[i];
+            min = Math.min(min, id);
+            max = Math.max(max, id);
+            diff |= id ^ first;
+        }
+        if (diff == 0) {
+            return false;
+        }
+
+        // Bits in which the distances to the minimum differ, split into equal digits
+        final int low = Long.numberOfTrailingZeros(diff);
+        final int bits = 64 - Long.numberOfLeadingZeros(max - min) - low;
+        final int passes = (bits + MAX_DIGIT_BITS - 1) / MAX_DIGIT_BITS;
+        final int digitBits = (bits + passes - 1) / passes;
+        final int mask = (1 << digitBits) - 1;
+
+        final int[][] counts = new int[passes][1 << digitBits];
+        for (int i = srcFrom; i < srcTo; i++) {
+            final long key = src[i] - min >>> low;
+            for (int p = 0; p < passes; p++) {
+                counts[p][(int) (key >>> p * digitBits) & mask]++;
+            }
+        }
+
+        long[] from = src, to = buf;
+        int fromOff = srcFrom, toOff = bufFrom;
+        for (int p = 0; p < passes; p++) {
+            final int[] offsets = counts[p];
+            if (!prefixSum(offsets, n, toOff)) {
+                continue;
+            }
+            final int shift = low + p * digitBits;
+            for (int i = fromOff, end = fromOff + n; i < end; i++) {
+                final long id = from[i];
+                to[offsets[(int) (id - min >>> shift) & mask]++] = id;
+            }
+
+            final long[] array = from;
+            from = to;
+            to = array;
+            final int offset = fromOff;
+            fromOff = toOff;
+            toOff = offset;
+        }
+        return from == buf;
+    }
+
+    /**
+     * Turns the counts of a digit into the start offsets of its values.
+     *
+     * @return false if all elements have the same value of the digit, so the pass can be skipped
+     */
+    private static boolean prefixSum(final int[] counts, final int n, final int offset) {
+        int sum = offset;
+        for (int d = 0; d < counts.length; d++) {
+            final int count = counts[d];
+            if (count == n) {
+                return false;
+            }
+            counts[d] = sum;
+            sum += count;
+        }
+        return true;
+    }
+
+    private static long[] scratch(final long[] scratch, final int n) {
+        if (scratch == null) {
+            return new long[n];
+        }
+        if (scratch.length < n) {
+            throw new IllegalArgumentException(Constants.EX_ILLEGAL_SCRATCH);
+        }
+        return scratch;
+    }
+
+    private static void rangeCheck(final int length, final int from, final int to) {
+        if (from > to) {
+            throw new IllegalArgumentException("from(" + from + ") > to(" + to + ")");
+        }
+        if (from < 0) {
+            throw new ArrayIndexOutOfBoundsException(from);
+        }
+        if (to > length) {
+            throw new ArrayIndexOutOfBoundsException(to);
+        }
+    }
+}
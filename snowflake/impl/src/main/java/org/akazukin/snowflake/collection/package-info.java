@@ -0,0 +1,13 @@
+/**
+ * This package contains collections specialized for Snowflake IDs.
+ *
+ * <p>
+ * The collections split the IDs along the layout of the configuration, grouping them by
+ * their timestamp, so that large numbers of IDs are stored compactly without boxing and
+ * the IDs of a time window can be visited or dropped as a whole.
+ * </p>
+ * <p>
+ * Batches of IDs are sorted by a radix sort which only visits the bits in which the IDs of the batch differ.
+ * </p>
+ */
+package org.akazukin.snowflake.collection;
@@ -11,11 +11,18 @@ public final class SnowflakeConfig implements ISnowflakeConfig {
     long timestampOffset;
     byte machineIdBits;
     byte sequenceBits;
+    long tickMicros;
 
     public SnowflakeConfig(final long timestampStart, final long timestampOffset, final byte machineIdBits, final byte sequenceBits) {
+        this(timestampStart, timestampOffset, machineIdBits, sequenceBits, 1_000L);
+    }
+
+    public SnowflakeConfig(final long timestampStart, final long timestampOffset, final byte machineIdBits, final byte sequenceBits,
+                           final long tickMicros) {
         this.timestampStart = timestampStart;
         this.timestampOffset = timestampOffset;
         this.machineIdBits = machineIdBits;
         this.sequenceBits = sequenceBits;
+        this.tickMicros = tickMicros;
     }
 }
@@ -8,13 +8,15 @@ public class SnowflakeConfigUtils {
     public static final String EX_ILLEGAL_BITS = "The sum of machineId bits and sequence greater than 22 bits";
     public static final String EX_MACHINE_BITS_NEGATIVE = "The machineId bits must be positive";
     public static final String EX_SEQUENCE_BITS_NEGATIVE = "The sequence bits must be positive";
+    public static final String EX_TICK_NOT_POSITIVE = "The tick must be positive";
 
     /**
      * Validates the provided configuration for the SnowFlake ID generator.
      *
      * @param cfg The configuration to be validated.
      * @throws IllegalStateException    If the sum of machine ID bits and sequence bits exceeds 22 bits,
-     *                                  or if either machine ID bits or sequence bits are negative.
+     *                                  if either machine ID bits or sequence bits are negative,
+     *                                  or if the tick is not positive.
      * @throws IllegalArgumentException If the provided machine ID is negative or
      *                                  exceeds the maximum allowed value.
      */
@@ -28,5 +30,8 @@ public class SnowflakeConfigUtils {
         if (cfg.getSequenceBits() < 0) {
             throw new IllegalStateException(EX_SEQUENCE_BITS_NEGATIVE);
         }
+        if (cfg.getTickMicros() <= 0) {
+            throw new IllegalStateException(EX_TICK_NOT_POSITIVE);
+        }
     }
 }
@@ -0,0 +1,182 @@
+package org.akazukin.snowflake.config;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import org.akazukin.annotation.marker.ThreadSafe;
+import org.akazukin.snowflake.clock.IClock;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Conversions between clock readings and the timestamp ticks of a configuration.
+ * <p>
+ * A tick is the unit of the timestamp component, {@link ISnowflakeConfig#getTickMicros()} long.
+ * Ticks are counted from the start timestamp with the offset applied. Everything derived from the
+ * tick length is computed once, so that {@link #now(IClock)} is a clock read, a subtraction and
+ * a shift, or a division for tick lengths that are not a power of two of the clock unit.
+ * Converting ticks of whole milliseconds back into milliseconds is a multiplication.
+ * <p>
+ * Ticks of whole milliseconds are derived from {@link IClock#currentTimeMillis()},
+ * shorter ticks from {@link IClock#currentTimeMicros()}.
+ */
+@ThreadSafe
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public final class SnowflakeTicks {
+    /**
+     * Start timestamp with the offset applied, in milliseconds and microseconds since the Unix epoch.
+     */
+    @Getter
+    long startMillis;
+    long startMicros;
+
+    /**
+     * Length of a tick in microseconds.
+     */
+    @Getter
+    long tickMicros;
+
+    /**
+     * Whether the clock is read in microseconds, and the length of a tick in the unit read.
+     */
+    boolean micros;
+    long divisor;
+
+    /**
+     * Shift replacing the division by {@link #divisor}, or {@code -1} if it is not a power of two.
+     */
+    int shift;
+
+    /**
+     * Ratio of ticks to milliseconds in lowest terms: {@code perMillis} ticks last {@code millisPer} milliseconds.
+     */
+    long perMillis;
+    long millisPer;
+
+    private SnowflakeTicks(final long startMillis, final long tickMicros) {
+        this.startMillis = startMillis;
+        this.startMicros = startMillis * 1_000L;
+        this.tickMicros = tickMicros;
+        this.micros = tickMicros % 1_000L != 0;
+        this.divisor = this.micros ? tickMicros : tickMicros / 1_000L;
+        this.shift = Long.bitCount(this.divisor) == 1 ? Long.numberOfTrailingZeros(this.divisor) : -1;
+
+        final long gcd = gcd(tickMicros, 1_000L);
+        this.perMillis = 1_000L / gcd;
+        this.millisPer = tickMicros / gcd;
+    }
+
+    /**
+     * Returns the ticks of the given configuration.
+     *
+     * @param cfg configuration, validated by the caller (must not be null)
+     * @return ticks of the configuration
+     */
+    public static SnowflakeTicks of(@NotNull final ISnowflakeConfig cfg) {
+        return new SnowflakeTicks(cfg.getTimestampStart() + cfg.getTimestampOffset(), cfg.getTickMicros());
+    }
+
+    /**
+     * Returns the current tick.
+     *
+     * @param clock clock to read (must not be null)
+     * @return ticks elapsed since the start timestamp
+     */
+    public long now(@NotNull final IClock clock) {
+        final long elapsed = this.micros
+                ? clock.currentTimeMicros() - this.startMicros
+                : clock.currentTimeMillis() - this.startMillis;
+        return this.shift >= 0 ? elapsed >> this.shift : elapsed / this.divisor;
+    }
+
+    /**
+     * Returns the beginning of a tick.
+     *
+     * @param tick tick since the start timestamp
+     * @return beginning of the tick in milliseconds since the Unix epoch, rounded down
+     */
+    public long toEpochMillis(final long tick) {
+        return this.micros
+                ? this.startMillis + scale(tick, this.millisPer, this.perMillis)
+                : this.startMillis + tick * this.divisor;
+    }
+
+    /**
+     * Returns the beginning of a tick.
+     *
+     * @param tick tick since the start timestamp
+     * @return beginning of the tick in microseconds since the Unix epoch
+     */
+    public long toEpochMicros(final long tick) {
+        return this.startMicros + tick * this.tickMicros;
+    }
+
+    /**
+     * Returns the last millisecond a tick overlaps.
+     *
+     * @param tick tick since the start timestamp
+     * @return last millisecond of the tick since the Unix epoch
+     */
+    public long lastEpochMillisOf(final long tick) {
+        return this.micros
+                ? this.startMillis - scale(-tick - 1, this.millisPer, this.perMillis) - 1
+                : this.startMillis + (tick + 1) * this.divisor - 1;
+    }
+
+    /**
+     * Returns the tick an instant lies in.
+     *
+     * @param epochMillis instant in milliseconds since the Unix epoch
+     * @return tick since the start timestamp
+     */
+    public long floorTickOf(final long epochMillis) {
+        return scale(epochMillis - this.startMillis, this.perMillis, this.millisPer);
+    }
+
+    /**
+     * Returns the first tick beginning at or after an instant.
+     *
+     * @param epochMillis instant in milliseconds since the Unix epoch
+     * @return tick since the start timestamp
+     */
+    public long ceilTickOf(final long epochMillis) {
+        return -scale(this.startMillis - epochMillis, this.perMillis, this.millisPer);
+    }
+
+    /**
+     * Converts a duration into whole ticks.
+     *
+     * @param millis duration in milliseconds (non-negative)
+     * @return duration in ticks, rounded down and saturated at {@link Long#MAX_VALUE}
+     */
+    public long toTicks(final long millis) {
+        return scale(millis, this.perMillis, this.millisPer);
+    }
+
+    /**
+     * Converts a duration in ticks into milliseconds.
+     *
+     * @param ticks duration in ticks (non-negative)
+     * @return duration in milliseconds, rounded up
+     */
+    public long toMillis(final long ticks) {
+        return this.micros ? -scale(-ticks, this.millisPer, this.perMillis) : ticks * this.divisor;
+    }
+
+    /**
+     * Returns {@code value * num / den} rounded down, saturated instead of overflowing.
+     */
+    private static long scale(final long value, final long num, final long den) {
+        final long quotient = Math.floorDiv(value, den);
+        if (quotient > Long.MAX_VALUE / num) {
+            return Long.MAX_VALUE;
+        }
+        if (quotient < Long.MIN_VALUE / num) {
+            return Long.MIN_VALUE;
+        }
+        return quotient * num + Math.floorMod(value, den) * num / den;
+    }
+
+    private static long gcd(final long a, final long b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+}
@@ -8,6 +8,7 @@
  *   <li>The custom epoch (starting timestamp) for ID generation</li>
  *   <li>Machine-specific identifiers</li>
  *   <li>A bit of allocation for machine IDs and sequence numbers</li>
+ *   <li>The length of a timestamp tick, from microseconds to seconds</li>
  *   <li>Other offsets or limits influencing the ID structure</li>
  * </ul>
  * <p>
@@ -0,0 +1,85 @@
+package org.akazukin.snowflake.generator;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.akazukin.snowflake.config.ISnowflakeConfig;
+
+/**
+ * Base of the generators keeping their last issued identifier in a plain field.
+ * <p>
+ * The state transition is shared; a subclass only decides how {@link #reserve(long, int)}
+ * excludes concurrent calls of {@link #transition(long, int)}. The regression policy waits
+ * outside of the transition, so a waiting caller holds no lock.
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE)
+abstract class AbstractSnowflake extends LayoutSnowflake {
+    /**
+     * Last issued identifier. Starts below any reachable timestamp, or below the checkpoint mark,
+     * so the first call adopts the current time if the clock is past the mark.
+     */
+    long state;
+
+    /**
+     * Validates the supplied configuration and machine identifier.
+     *
+     * @param config    configuration specifying machine and sequence bits,
+     *                  timestamp start and offset
+     * @param machineId machine identifier for this instance
+     * @param options   clock, regression policy, checkpoint and metrics
+     * @throws IllegalStateException    if configuration bit sizes are invalid
+     * @throws IllegalArgumentException if {@code machineId} or a spare machine identifier
+     *                                  of the regression policy is out of range
+     */
+    AbstractSnowflake(final ISnowflakeConfig config, final long machineId, final SnowflakeOptions options) {
+        super(new SnowflakeLayout(config, options));
+        this.layout.checkMachineId(machineId);
+        this.state = this.layout.initialState(machineId);
+    }
+
+    /**
+     * Runs {@link #transition(long, int)} exclusively.
+     *
+     * @param now   current tick
+     * @param count number of identifiers to reserve (positive)
+     * @return state the block follows
+     */
+    abstract long reserve(long now, int count);
+
+    /**
+     * Stores the last identifier of the next block, unless the regression policy has to wait first.
+     * Must not run concurrently with itself.
+     *
+     * @param now   current tick
+     * @param count number of identifiers to reserve (positive)
+     * @return state the block follows: the previous state, or the initial state of a spare machine identifier
+     * @throws IllegalStateException if the regression policy refuses to run further ahead of the clock
+     */
+    final long transition(final long now, final int count) {
+        final SnowflakeLayout layout = this.layout;
+        final long prev = layout.follow(this.state, now, count);
+        final long last = layout.skip(layout.next(prev, now), count);
+        if (layout.excess(last, now) <= 0) {
+            this.state = last;
+        }
+        return prev;
+    }
+
+    @Override
+    final long advance(final int count) {
+        final SnowflakeLayout layout = this.layout;
+        long now = layout.ticks.now(layout.clock);
+
+        while (true) {
+            final long prev = this.reserve(now, count);
+            final long first = layout.next(prev, now);
+            final long last = layout.skip(first, count);
+            final long excess = layout.excess(last, now);
+            if (excess > 0) {
+                layout.await(prev, excess);
+                now = layout.ticks.now(layout.clock);
+                continue;
+            }
+            return layout.issue(prev, first, last, now, count);
+        }
+    }
+}
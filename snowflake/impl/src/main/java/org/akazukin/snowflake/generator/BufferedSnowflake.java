@@ -0,0 +1,271 @@
+package org.akazukin.snowflake.generator;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import org.akazukin.annotation.marker.ThreadSafe;
+import org.akazukin.snowflake.Constants;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Decorator that serves identifiers pre-generated by a background thread.
+ * <p>
+ * A filler thread reserves blocks from the wrapped generator into a lock-free ring buffer
+ * and tops it up whenever the occupancy falls to the low-water mark. {@link #nextId()} takes
+ * the oldest buffered identifier with a single array read and a compare-and-set; when the buffer
+ * is empty it falls back to the wrapped generator.
+ * <p>
+ * Identifiers stay unique, but a buffered identifier carries the time at which it was filled,
+ * and identifiers taken after a fallback may be smaller than the fallback identifier.
+ * The bulk methods bypass the buffer. The wrapped generator must be thread-safe, as it is used
+ * by the filler and by the callers falling back. The filler is a daemon thread, which sleeps until a caller
+ * takes the buffer down to the low-water mark, and is stopped by {@link #close()}; after that every call
+ * falls back once the buffer is drained.
+ */
+@ThreadSafe
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public final class BufferedSnowflake implements ISnowflake, AutoCloseable {
+    private static final AtomicLongFieldUpdater<CursorValue> VALUE =
+            AtomicLongFieldUpdater.newUpdater(CursorValue.class, "value");
+
+    /**
+     * Time the filler waits before retrying after the wrapped generator failed.
+     */
+    private static final long RETRY_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /**
+     * Generator filling the buffer and serving fallbacks.
+     */
+    ISnowflake delegate;
+
+    /**
+     * Ring buffer and the mask of its power-of-two length.
+     */
+    long[] buffer;
+    int mask;
+
+    /**
+     * Occupancy at which the filler tops the buffer up.
+     */
+    @Getter
+    int lowWaterMark;
+
+    /**
+     * Index of the next identifier to take, advanced by the callers.
+     * Index of the next identifier to fill, advanced by the filler only.
+     */
+    Cursor head = new Cursor();
+    Cursor tail = new Cursor();
+
+    Thread filler;
+
+    /**
+     * Statistics
+     */
+    LongAdder fallbacks = new LongAdder();
+    LongAdder refills = new LongAdder();
+
+    @NonFinal
+    volatile boolean running = true;
+
+    /**
+     * Constructs a new {@code BufferedSnowflake} and starts its filler thread.
+     *
+     * @param delegate     thread-safe generator to pre-generate from (must not be null)
+     * @param capacity     number of buffered identifiers (positive), rounded up to a power of two
+     * @param lowWaterMark occupancy at which the buffer is topped up (non-negative, less than {@code capacity})
+     * @throws IllegalArgumentException if {@code capacity} or {@code lowWaterMark} is out of range
+     */
+    public BufferedSnowflake(@NotNull final ISnowflake delegate, final int capacity, final int lowWaterMark) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException(Constants.EX_ILLEGAL_CAPACITY);
+        }
+        if (lowWaterMark < 0 || lowWaterMark >= capacity) {
+            throw new IllegalArgumentException(Constants.EX_ILLEGAL_LOW_WATER_MARK);
+        }
+
+        this.delegate = delegate;
+        this.buffer = new long[capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1];
+        this.mask = this.buffer.length - 1;
+        this.lowWaterMark = lowWaterMark;
+
+        this.filler = new Thread(this::fill, "Snowflake-BufferedSnowflake");
+        this.filler.setDaemon(true);
+        this.filler.start();
+    }
+
+    /**
+     * Returns the oldest buffered identifier, or the next identifier of the wrapped generator
+     * if the buffer is empty.
+     *
+     * @return next 64-bit identifier
+     */
+    @Override
+    public long nextId() {
+        while (true) {
+            final long h = this.head.value;
+            final long available = this.tail.value - h;
+            if (available <= 0) {
+                this.fallbacks.increment();
+                LockSupport.unpark(this.filler);
+                return this.delegate.nextId();
+            }
+
+            // The filler does not overwrite the entry before the head has moved past it
+            final long id = this.buffer[(int) h & this.mask];
+            if (VALUE.compareAndSet(this.head, h, h + 1)) {
+                if (available - 1 == this.lowWaterMark) {
+                    LockSupport.unpark(this.filler);
+                }
+                return id;
+            }
+        }
+    }
+
+    /**
+     * Fills the given array range with identifiers reserved directly from the wrapped generator.
+     *
+     * @param dst destination array
+     * @param off first index to write
+     * @param len number of identifiers to write
+     * @throws IndexOutOfBoundsException if the range is outside the bounds of {@code dst}
+     */
+    @Override
+    public void nextIds(final long[] dst, final int off, final int len) {
+        this.delegate.nextIds(dst, off, len);
+    }
+
+    /**
+     * Reserves the next {@code count} identifiers directly from the wrapped generator.
+     *
+     * @param count number of identifiers to reserve (non-negative)
+     * @return lease of the wrapped generator
+     * @throws IllegalArgumentException if {@code count} is negative
+     */
+    @Override
+    public ISnowflakeLease lease(final int count) {
+        return this.delegate.lease(count);
+    }
+
+    /**
+     * Returns the counters of the wrapped generator, which include the identifiers generated by the filler.
+     *
+     * @return metrics of the wrapped generator
+     */
+    @Override
+    public ISnowflakeMetrics getMetrics() {
+        return this.delegate.getMetrics();
+    }
+
+    /**
+     * Returns the number of buffered identifiers.
+     *
+     * @return current occupancy
+     */
+    public int getOccupancy() {
+        final long h = this.head.value;
+        return (int) Math.max(this.tail.value - h, 0);
+    }
+
+    /**
+     * Returns the number of identifiers the buffer holds when full.
+     *
+     * @return capacity
+     */
+    public int getCapacity() {
+        return this.buffer.length;
+    }
+
+    /**
+     * Returns the number of identifiers generated inline because the buffer was empty.
+     *
+     * @return number of fallbacks
+     */
+    public long getFallbacks() {
+        return this.fallbacks.sum();
+    }
+
+    /**
+     * Returns the number of times the filler topped the buffer up.
+     *
+     * @return number of refills
+     */
+    public long getRefills() {
+        return this.refills.sum();
+    }
+
+    /**
+     * Stops the filler thread and waits for it to finish its current refill.
+     * If the calling thread is interrupted meanwhile, returns early with its interrupt status set.
+     */
+    @Override
+    public void close() {
+        this.running = false;
+        LockSupport.unpark(this.filler);
+        try {
+            this.filler.join();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void fill() {
+        while (this.running) {
+            final long t = this.tail.value;
+            final long occupancy = t - this.head.value;
+            if (occupancy > this.lowWaterMark) {
+                // The caller taking the buffer down to the low-water mark unparks the filler
+                LockSupport.park(this);
+                continue;
+            }
+
+            final long free = this.buffer.length - occupancy;
+            try {
+                // The free range may wrap around the end of the array
+                final int from = (int) t & this.mask;
+                final int first = (int) Math.min(free, this.buffer.length - from);
+                this.delegate.nextIds(this.buffer, from, first);
+                if (free > first) {
+                    this.delegate.nextIds(this.buffer, 0, (int) free - first);
+                }
+            } catch (final RuntimeException e) {
+                // Callers fall back to the wrapped generator, which reports the failure
+                LockSupport.parkNanos(this, RETRY_NANOS);
+                continue;
+            }
+
+            // Publishes the filled entries
+            VALUE.lazySet(this.tail, t + free);
+            this.refills.increment();
+        }
+    }
+
+    /**
+     * Padding in front of the cursor value.
+     */
+    @SuppressWarnings("unused")
+    private abstract static class CursorPadding {
+        long p00, p01, p02, p03, p04, p05, p06, p07;
+    }
+
+    /**
+     * Value of a cursor. Declared in a separate class so the JVM keeps it between both paddings.
+     */
+    private abstract static class CursorValue extends CursorPadding {
+        volatile long value;
+    }
+
+    /**
+     * Ring buffer index on its own cache line.
+     */
+    @SuppressWarnings("unused")
+    private static final class Cursor extends CursorValue {
+        long p10, p11, p12, p13, p14, p15, p16, p17;
+    }
+}
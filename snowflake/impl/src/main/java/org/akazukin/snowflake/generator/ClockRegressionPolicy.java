@@ -0,0 +1,250 @@
+package org.akazukin.snowflake.generator;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import org.akazukin.annotation.marker.ThreadSafe;
+import org.akazukin.snowflake.Constants;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Policy deciding how far a generator may run ahead of its clock.
+ * <p>
+ * A generator borrows future milliseconds when the sequence of the current millisecond
+ * is exhausted, and keeps issuing identifiers above its last timestamp when the clock steps
+ * backwards. The distance between the timestamp of an issued identifier and the clock is the drift.
+ * Once an identifier would be issued with a drift above {@link #getMaxBorrowMillis()}, the policy
+ * {@link Action action} is applied instead. A block of identifiers reserved at once is checked by its last
+ * identifier; a block spanning more ticks than the allowed borrow even from the current tick is rejected
+ * with an {@link IllegalStateException} whatever the action.
+ * <p>
+ * A policy also records how much the generators using it ran in borrowed time.
+ * Policies may be shared by several generators; the statistics and the spare machine identifiers
+ * are then shared as well.
+ */
+@ThreadSafe
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public final class ClockRegressionPolicy {
+    /**
+     * Action applied by the generator when the drift would exceed the allowed borrow.
+     */
+    @Getter
+    Action action;
+
+    /**
+     * Maximum drift in milliseconds for which identifiers are issued without applying the action.
+     */
+    @Getter
+    long maxBorrowMillis;
+
+    long[] spareMachineIds;
+    AtomicInteger nextSpare = new AtomicInteger();
+
+    /**
+     * Statistics
+     */
+    LongAdder borrowedMillis = new LongAdder();
+    LongAccumulator maxDriftMillis = new LongAccumulator(Math::max, 0);
+    LongAdder waitedNanos = new LongAdder();
+    LongAdder failures = new LongAdder();
+    LongAdder switches = new LongAdder();
+
+    private ClockRegressionPolicy(final Action action, final long maxBorrowMillis, final long[] spareMachineIds) {
+        if (maxBorrowMillis < 0) {
+            throw new IllegalArgumentException(Constants.EX_ILLEGAL_MAX_BORROW_NEGATIVE);
+        }
+
+        this.action = action;
+        this.maxBorrowMillis = maxBorrowMillis;
+        this.spareMachineIds = spareMachineIds;
+    }
+
+    /**
+     * Returns a policy that borrows without limit.
+     * This is the behavior of the generators when no policy is specified.
+     *
+     * @return new policy
+     */
+    public static ClockRegressionPolicy unbounded() {
+        return new ClockRegressionPolicy(Action.WAIT, Long.MAX_VALUE, new long[0]);
+    }
+
+    /**
+     * Returns a policy that borrows up to {@code maxBorrowMillis} and then waits
+     * until the clock has caught up far enough.
+     *
+     * @param maxBorrowMillis maximum drift in milliseconds (non-negative)
+     * @return new policy
+     * @throws IllegalArgumentException if {@code maxBorrowMillis} is negative
+     */
+    public static ClockRegressionPolicy borrowThenWait(final long maxBorrowMillis) {
+        return new ClockRegressionPolicy(Action.WAIT, maxBorrowMillis, new long[0]);
+    }
+
+    /**
+     * Returns a policy that borrows up to {@code maxBorrowMillis} and then throws an {@link IllegalStateException}.
+     *
+     * @param maxBorrowMillis maximum drift in milliseconds (non-negative), {@code 0} never borrows
+     * @return new policy
+     * @throws IllegalArgumentException if {@code maxBorrowMillis} is negative
+     */
+    public static ClockRegressionPolicy failFast(final long maxBorrowMillis) {
+        return new ClockRegressionPolicy(Action.FAIL, maxBorrowMillis, new long[0]);
+    }
+
+    /**
+     * Returns a policy that borrows up to {@code maxBorrowMillis} and then moves the generator
+     * to the next unused spare machine identifier, restarting at the current clock time.
+     * Once all spares are used, an {@link IllegalStateException} is thrown instead.
+     * <p>
+     * The spare machine identifiers must not be used by any other generator. A spare may be
+     * consumed without being used when several threads of one generator race to switch.
+     *
+     * @param maxBorrowMillis maximum drift in milliseconds (non-negative)
+     * @param spareMachineIds machine identifiers reserved for switching
+     * @return new policy
+     * @throws IllegalArgumentException if {@code maxBorrowMillis} is negative
+     */
+    public static ClockRegressionPolicy switchMachineId(final long maxBorrowMillis, final long... spareMachineIds) {
+        return new ClockRegressionPolicy(Action.SWITCH_MACHINE_ID, maxBorrowMillis, spareMachineIds.clone());
+    }
+
+    /**
+     * Returns the number of distinct clock milliseconds in which identifiers were issued ahead of the clock,
+     * i.e. how long the generators spent in borrowed time while they were generating, summed over the generators.
+     * A tick of several milliseconds counts all of them.
+     *
+     * @return borrowed milliseconds
+     */
+    public long getBorrowedMillis() {
+        return this.borrowedMillis.sum();
+    }
+
+    /**
+     * Returns the largest drift observed for an issued identifier.
+     *
+     * @return maximum drift in milliseconds
+     */
+    public long getMaxDriftMillis() {
+        return this.maxDriftMillis.get();
+    }
+
+    /**
+     * Returns the total time spent waiting for the clock to catch up.
+     *
+     * @return waited time in nanoseconds
+     */
+    public long getWaitedNanos() {
+        return this.waitedNanos.sum();
+    }
+
+    /**
+     * Returns the number of identifiers refused because the allowed borrow was exceeded.
+     *
+     * @return number of failures
+     */
+    public long getFailures() {
+        return this.failures.sum();
+    }
+
+    /**
+     * Returns the number of spare machine identifiers taken.
+     *
+     * @return number of switches
+     */
+    public long getSwitches() {
+        return this.switches.sum();
+    }
+
+    /**
+     * Validates the spare machine identifiers against the configuration of a generator.
+     *
+     * @param maxMachineNum maximum machine identifier of the generator
+     * @throws IllegalArgumentException if a spare machine identifier is out of range
+     */
+    void validate(final long maxMachineNum) {
+        for (final long spare : this.spareMachineIds) {
+            if (spare < 0) {
+                throw new IllegalArgumentException(Constants.EX_ILLEGAL_MACHINE_NUM_NEGATIVE);
+            }
+            if (spare > maxMachineNum) {
+                throw new IllegalArgumentException(Constants.EX_ILLEGAL_MACHINE_NUM_BIGGER);
+            }
+        }
+    }
+
+    /**
+     * Records identifiers issued ahead of the clock.
+     *
+     * @param borrowedMillis clock time not yet counted as borrowed by the generator, in milliseconds
+     * @param drift          positive drift of the identifiers in milliseconds
+     */
+    void recordBorrow(final long borrowedMillis, final long drift) {
+        this.maxDriftMillis.accumulate(drift);
+        if (borrowedMillis != 0) {
+            this.borrowedMillis.add(borrowedMillis);
+        }
+    }
+
+    /**
+     * Waits until the clock has presumably advanced by the given amount.
+     * The caller has to read the clock again afterward.
+     *
+     * @param excessMillis drift above the allowed borrow in milliseconds
+     */
+    void await(final long excessMillis) {
+        final long start = System.nanoTime();
+        LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(Math.min(excessMillis, 1_000L)));
+        this.waitedNanos.add(System.nanoTime() - start);
+    }
+
+    /**
+     * Records a refused identifier and returns the exception to throw.
+     *
+     * @return exception describing the refusal
+     */
+    IllegalStateException reject() {
+        this.failures.increment();
+        return new IllegalStateException(Constants.EX_CLOCK_REGRESSION);
+    }
+
+    /**
+     * Takes the next unused spare machine identifier.
+     *
+     * @return spare machine identifier
+     * @throws IllegalStateException if all spare machine identifiers are used
+     */
+    long takeSpareMachineId() {
+        final int i = this.nextSpare.getAndIncrement();
+        if (i >= this.spareMachineIds.length) {
+            this.failures.increment();
+            throw new IllegalStateException(Constants.EX_NO_SPARE_MACHINE_ID);
+        }
+
+        this.switches.increment();
+        return this.spareMachineIds[i];
+    }
+
+    /**
+     * Action applied once the allowed borrow is exceeded.
+     */
+    public enum Action {
+        /**
+         * Wait until the clock has caught up.
+         */
+        WAIT,
+        /**
+         * Throw an {@link IllegalStateException}.
+         */
+        FAIL,
+        /**
+         * Continue with a spare machine identifier at the current clock time.
+         */
+        SWITCH_MACHINE_ID
+    }
+}
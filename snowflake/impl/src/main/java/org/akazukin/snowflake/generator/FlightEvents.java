@@ -0,0 +1,63 @@
+package org.akazukin.snowflake.generator;
+
+/**
+ * Java Flight Recorder events of the generators.
+ * <p>
+ * The main class only uses the Java 8 API and records nothing. The multi-release JAR ships
+ * an overlay for Java 11 under {@code META-INF/versions}, which newer JVMs load instead. Events with a duration are
+ * started by a {@code begin} method, whose result is passed on to the matching
+ * {@code commit} method; {@code null} stands for an event that is not recorded.
+ */
+final class FlightEvents {
+    private FlightEvents() {
+    }
+
+    /**
+     * Starts timing a wait for the clock to catch up.
+     *
+     * @return started event, or {@code null} if it is not recorded
+     */
+    static Object beginClockRegression() {
+        return null;
+    }
+
+    /**
+     * Records that a generator ran further ahead of the clock than the regression policy allows.
+     *
+     * @param event       event returned by {@link #beginClockRegression()}, or {@code null} for an instant event
+     * @param machineId   machine identifier in use when the regression was detected
+     * @param aheadMillis how far the generator was ahead of the clock
+     * @param action      action applied by the regression policy
+     */
+    static void commitClockRegression(final Object event, final long machineId, final long aheadMillis,
+                                      final ClockRegressionPolicy.Action action) {
+    }
+
+    /**
+     * Records that the sequence of a millisecond was exhausted and the next millisecond was borrowed.
+     *
+     * @param machineId   machine identifier of the generator
+     * @param aheadMillis how far the generator is ahead of the clock afterwards
+     */
+    static void sequenceExhausted(final long machineId, final long aheadMillis) {
+    }
+
+    /**
+     * Starts timing a wait for a free {@link ThreadedSnowflake} slot.
+     *
+     * @return started event, or {@code null} if it is not recorded
+     */
+    static Object beginSlotWait() {
+        return null;
+    }
+
+    /**
+     * Records a wait for a free {@link ThreadedSnowflake} slot.
+     *
+     * @param event     event returned by {@link #beginSlotWait()}, or {@code null}
+     * @param machineId machine identifier of the slot finally acquired
+     * @param rounds    number of times the wait strategy was applied
+     */
+    static void commitSlotWait(final Object event, final long machineId, final int rounds) {
+    }
+}
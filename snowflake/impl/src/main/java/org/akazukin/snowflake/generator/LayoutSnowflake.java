@@ -0,0 +1,87 @@
+package org.akazukin.snowflake.generator;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Base of the generators advancing states over a {@link SnowflakeLayout}.
+ * <p>
+ * The single and bulk operations are shared; a subclass only decides how {@link #advance(int)}
+ * reserves a block of consecutive identifiers.
+ */
+@FieldDefaults(level = AccessLevel.PACKAGE, makeFinal = true)
+abstract class LayoutSnowflake implements ISnowflake {
+    /**
+     * Bit layout of the configuration and collaborators taken from the options.
+     */
+    SnowflakeLayout layout;
+
+    LayoutSnowflake(final SnowflakeLayout layout) {
+        this.layout = layout;
+    }
+
+    /**
+     * Returns the next identifier.
+     *
+     * @return next 64-bit identifier
+     * @throws IllegalStateException if the regression policy refuses to run further ahead of the clock
+     */
+    @Override
+    public long nextId() {
+        return this.advance(1);
+    }
+
+    /**
+     * Fills the given array range with the next identifiers,
+     * reserving the whole block with a single clock read and a single state transition.
+     *
+     * @param dst destination array
+     * @param off first index to write
+     * @param len number of identifiers to write
+     * @throws IndexOutOfBoundsException if the range is outside the bounds of {@code dst}
+     * @throws IllegalStateException     if the regression policy refuses to run further ahead of the clock
+     */
+    @Override
+    public void nextIds(final long[] dst, final int off, final int len) {
+        SnowflakeLease.checkRange(off, len, dst.length);
+        if (len == 0) {
+            return;
+        }
+
+        SnowflakeLease.fill(this.advance(len), dst, off, len, this.layout.sequenceBits, this.layout.timestampLeft);
+    }
+
+    /**
+     * Reserves the next {@code count} identifiers with a single clock read and a single state transition.
+     *
+     * @param count number of identifiers to reserve (non-negative)
+     * @return lease composing the reserved identifiers lazily
+     * @throws IllegalArgumentException if {@code count} is negative
+     * @throws IllegalStateException    if the regression policy refuses to run further ahead of the clock
+     */
+    @Override
+    public ISnowflakeLease lease(final int count) {
+        SnowflakeLease.checkCount(count);
+        final long first = count == 0 ? 0 : this.advance(count);
+        return new SnowflakeLease(first, count, this.layout.sequenceBits, this.layout.timestampLeft);
+    }
+
+    /**
+     * Returns the counters of this generator.
+     *
+     * @return metrics given with the options, disabled by default
+     */
+    @Override
+    public ISnowflakeMetrics getMetrics() {
+        return this.layout.metrics;
+    }
+
+    /**
+     * Reserves a block of consecutive identifiers.
+     *
+     * @param count number of identifiers to reserve (positive)
+     * @return first reserved identifier
+     * @throws IllegalStateException if the regression policy refuses to run further ahead of the clock
+     */
+    abstract long advance(int count);
+}
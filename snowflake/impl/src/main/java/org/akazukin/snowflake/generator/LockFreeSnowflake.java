@@ -0,0 +1,97 @@
+package org.akazukin.snowflake.generator;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.akazukin.annotation.marker.ThreadSafe;
+import org.akazukin.snowflake.clock.IClock;
+import org.akazukin.snowflake.config.ISnowflakeConfig;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * Thread-safe generator implementation that never blocks.
+ * <p>
+ * Keeps the last issued identifier, which packs the timestamp, the machine identifier
+ * and the sequence into a single 64-bit word, and advances it with a
+ * compare-and-set retry loop instead of a monitor. Produces the same bit
+ * layout and the same overflow behavior as {@link AtomicSnowflake}: when the
+ * sequence of the current millisecond is exhausted, the next millisecond is
+ * borrowed.
+ */
+@ThreadSafe
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public final class LockFreeSnowflake extends LayoutSnowflake {
+    private static final AtomicLongFieldUpdater<LockFreeSnowflake> STATE =
+            AtomicLongFieldUpdater.newUpdater(LockFreeSnowflake.class, "state");
+
+    /**
+     * Last issued identifier. Starts below any reachable timestamp, or below the checkpoint mark,
+     * so the first call adopts the current time if the clock is past the mark.
+     */
+    volatile long state;
+
+    /**
+     * Constructs a new lock-free {@code LockFreeSnowflake}
+     * and validates the supplied configuration.
+     * Initializes bit shifts and the instance machine identifier.
+     * The configured timestamp offset is applied to the start timestamp.
+     * The {@link SnowflakeOptions#DEFAULT default options} are used.
+     *
+     * @param config    configuration specifying machine and sequence bits,
+     *                  timestamp start and offset (must not be null)
+     * @param machineId machine identifier for this instance (non-negative,
+     *                  must not exceed the maximum allowed by machine ID bits)
+     * @throws IllegalStateException    if configuration bit sizes are invalid
+     * @throws IllegalArgumentException if {@code machineId} is out of range
+     */
+    public LockFreeSnowflake(@NotNull final ISnowflakeConfig config, final long machineId) {
+        this(config, machineId, SnowflakeOptions.DEFAULT);
+    }
+
+    /**
+     * Constructs a new lock-free {@code LockFreeSnowflake}
+     * and validates the supplied configuration.
+     * Initializes bit shifts and the instance machine identifier.
+     * The configured timestamp offset is applied to the start timestamp.
+     * The {@link SnowflakeOptions#DEFAULT default options} are used with the given clock.
+     *
+     * @param config    configuration specifying machine and sequence bits,
+     *                  timestamp start and offset (must not be null)
+     * @param machineId machine identifier for this instance (non-negative,
+     *                  must not exceed the maximum allowed by machine ID bits)
+     * @param clock     source of the current time (must not be null)
+     * @throws IllegalStateException    if configuration bit sizes are invalid
+     * @throws IllegalArgumentException if {@code machineId} is out of range
+     */
+    public LockFreeSnowflake(@NotNull final ISnowflakeConfig config, final long machineId, @NotNull final IClock clock) {
+        this(config, machineId, SnowflakeOptions.DEFAULT.withClock(clock));
+    }
+
+    /**
+     * Constructs a new lock-free {@code LockFreeSnowflake}
+     * and validates the supplied configuration.
+     * Initializes bit shifts and the instance machine identifier.
+     * The configured timestamp offset is applied to the start timestamp.
+     *
+     * @param config    configuration specifying machine and sequence bits,
+     *                  timestamp start and offset (must not be null)
+     * @param machineId machine identifier for this instance (non-negative,
+     *                  must not exceed the maximum allowed by machine ID bits)
+     * @param options   clock, regression policy, checkpoint and metrics (must not be null)
+     * @throws IllegalStateException    if configuration bit sizes are invalid
+     * @throws IllegalArgumentException if {@code machineId} or a spare machine identifier
+     *                                  of the regression policy is out of range
+     */
+    public LockFreeSnowflake(@NotNull final ISnowflakeConfig config, final long machineId,
+                             @NotNull final SnowflakeOptions options) {
+        super(new SnowflakeLayout(config, options));
+        this.layout.checkMachineId(machineId);
+        this.state = this.layout.initialState(machineId);
+    }
+
+    @Override
+    long advance(final int count) {
+        return this.layout.advance(STATE, this, count);
+    }
+}
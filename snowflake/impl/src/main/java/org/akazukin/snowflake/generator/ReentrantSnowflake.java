@@ -0,0 +1,95 @@
+package org.akazukin.snowflake.generator;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.akazukin.annotation.marker.ThreadSafe;
+import org.akazukin.snowflake.clock.IClock;
+import org.akazukin.snowflake.config.ISnowflakeConfig;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Thread-safe generator implementation that guards its state with a {@link ReentrantLock}.
+ * <p>
+ * Produces the same identifiers as {@link AtomicSnowflake}. Unlike a monitor, the lock
+ * does not pin the carrier of a virtual thread on Java 21: a virtual thread waiting for it
+ * unmounts, and its carrier is free to run other virtual threads. Suited to applications
+ * running the generator on virtual threads; on platform threads prefer {@link AtomicSnowflake}
+ * or {@link LockFreeSnowflake}.
+ */
+@ThreadSafe
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public final class ReentrantSnowflake extends AbstractSnowflake {
+    /**
+     * Guards the state transition.
+     */
+    final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Constructs a new thread-safe {@code ReentrantSnowflake}
+     * and validates the supplied configuration.
+     * Initializes bit shifts and the instance machine identifier.
+     * The configured timestamp offset is applied to the start timestamp.
+     * The {@link SnowflakeOptions#DEFAULT default options} are used.
+     *
+     * @param config    configuration specifying machine and sequence bits,
+     *                  timestamp start and offset (must not be null)
+     * @param machineId machine identifier for this instance (non-negative,
+     *                  must not exceed the maximum allowed by machine ID bits)
+     * @throws IllegalStateException    if configuration bit sizes are invalid
+     * @throws IllegalArgumentException if {@code machineId} is out of range
+     */
+    public ReentrantSnowflake(@NotNull final ISnowflakeConfig config, final long machineId) {
+        this(config, machineId, SnowflakeOptions.DEFAULT);
+    }
+
+    /**
+     * Constructs a new thread-safe {@code ReentrantSnowflake}
+     * and validates the supplied configuration.
+     * Initializes bit shifts and the instance machine identifier.
+     * The configured timestamp offset is applied to the start timestamp.
+     * The {@link SnowflakeOptions#DEFAULT default options} are used with the given clock.
+     *
+     * @param config    configuration specifying machine and sequence bits,
+     *                  timestamp start and offset (must not be null)
+     * @param machineId machine identifier for this instance (non-negative,
+     *                  must not exceed the maximum allowed by machine ID bits)
+     * @param clock     source of the current time (must not be null)
+     * @throws IllegalStateException    if configuration bit sizes are invalid
+     * @throws IllegalArgumentException if {@code machineId} is out of range
+     */
+    public ReentrantSnowflake(@NotNull final ISnowflakeConfig config, final long machineId, @NotNull final IClock clock) {
+        this(config, machineId, SnowflakeOptions.DEFAULT.withClock(clock));
+    }
+
+    /**
+     * Constructs a new thread-safe {@code ReentrantSnowflake}
+     * and validates the supplied configuration.
+     * Initializes bit shifts and the instance machine identifier.
+     * The configured timestamp offset is applied to the start timestamp.
+     *
+     * @param config    configuration specifying machine and sequence bits,
+     *                  timestamp start and offset (must not be null)
+     * @param machineId machine identifier for this instance (non-negative,
+     *                  must not exceed the maximum allowed by machine ID bits)
+     * @param options   clock, regression policy, checkpoint and metrics (must not be null)
+     * @throws IllegalStateException    if configuration bit sizes are invalid
+     * @throws IllegalArgumentException if {@code machineId} or a spare machine identifier
+     *                                  of the regression policy is out of range
+     */
+    public ReentrantSnowflake(@NotNull final ISnowflakeConfig config, final long machineId,
+                           @NotNull final SnowflakeOptions options) {
+        super(config, machineId, options);
+    }
+
+    @Override
+    long reserve(final long now, final int count) {
+        this.lock.lock();
+        try {
+            return this.transition(now, count);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+}
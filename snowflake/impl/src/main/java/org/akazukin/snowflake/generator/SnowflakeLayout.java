@@ -0,0 +1,384 @@
+package org.akazukin.snowflake.generator;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.akazukin.annotation.marker.ThreadSafe;
+import org.akazukin.snowflake.Constants;
+import org.akazukin.snowflake.clock.IClock;
+import org.akazukin.snowflake.config.ISnowflakeConfig;
+import org.akazukin.snowflake.config.SnowflakeConfigUtils;
+import org.akazukin.snowflake.config.SnowflakeTicks;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * Values derived from a configuration and the options, and the advance of a generator state over them.
+ * <p>
+ * A generator state is its last issued identifier, which packs the timestamp, the machine identifier
+ * and the sequence into a single 64-bit word. When the sequence of the current tick is exhausted,
+ * the next tick is borrowed.
+ */
+@ThreadSafe
+@FieldDefaults(level = AccessLevel.PACKAGE, makeFinal = true)
+final class SnowflakeLayout {
+    /**
+     * State of an evicted generator. Never reached by an identifier, which is non-negative,
+     * nor by an initial state, whose bits between the layout and the sign bit are clear.
+     */
+    static final long RETIRED = -1L;
+
+    /**
+     * Largest machine identifier.
+     */
+    long maxMachineNum;
+
+    /**
+     * Maximum sequence value, also used as the mask of the sequence part.
+     */
+    long maxSequenceNum;
+
+    /**
+     * Mask of the machine part.
+     */
+    long machineMask;
+
+    /**
+     * Value to add to an identifier with an exhausted sequence
+     * to get the first identifier of the next tick.
+     */
+    long sequenceCarry;
+
+    /**
+     * Bit shift amounts used to pack machine ID and timestamp.
+     */
+    long sequenceBits;
+    long timestampLeft;
+
+    /**
+     * Configured start timestamp and tick length.
+     */
+    SnowflakeTicks ticks;
+
+    /**
+     * Collaborators taken from the options.
+     */
+    IClock clock;
+    ClockRegressionPolicy regressionPolicy;
+    long maxBorrowTicks;
+    TimestampCheckpoint checkpoint;
+    SnowflakeMetrics metrics;
+    IWaitStrategy waitStrategy;
+
+    /**
+     * End of the last clock milliseconds counted as borrowed, exclusive,
+     * for the regression policy and the metrics alike.
+     */
+    AtomicLong borrowedUntil = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * Constructs a new {@code SnowflakeLayout} and validates the supplied configuration.
+     *
+     * @param config  configuration specifying machine and sequence bits, timestamp start and offset
+     * @param options clock, regression policy, wait strategy, checkpoint and metrics
+     * @throws IllegalStateException    if configuration bit sizes are invalid
+     * @throws IllegalArgumentException if a spare machine identifier of the regression policy is out of range
+     */
+    SnowflakeLayout(final ISnowflakeConfig config, final SnowflakeOptions options) {
+        // Validate the configuration
+        SnowflakeConfigUtils.validate(config);
+
+        this.clock = options.getClock();
+        this.regressionPolicy = options.getRegressionPolicy();
+        this.checkpoint = options.getCheckpoint();
+        this.metrics = options.getMetrics();
+        this.waitStrategy = options.getWaitStrategy();
+        this.ticks = SnowflakeTicks.of(config);
+        this.maxBorrowTicks = this.ticks.toTicks(this.regressionPolicy.getMaxBorrowMillis());
+        //  The number of bits each part occupies
+        final long machineBits = config.getMachineIdBits();
+        this.sequenceBits = config.getSequenceBits();
+
+        this.maxMachineNum = ~(-1L << machineBits);
+        this.maxSequenceNum = ~(-1L << this.sequenceBits);
+
+        this.timestampLeft = this.sequenceBits + machineBits;
+        this.machineMask = this.maxMachineNum << this.sequenceBits;
+        this.sequenceCarry = (1L << this.timestampLeft) - this.maxSequenceNum;
+
+        this.regressionPolicy.validate(this.maxMachineNum);
+    }
+
+    /**
+     * Validates a machine identifier against the machine ID bits.
+     *
+     * @param machineId machine identifier
+     * @throws IllegalArgumentException if {@code machineId} is out of range
+     */
+    void checkMachineId(final long machineId) {
+        if (machineId < 0) {
+            throw new IllegalArgumentException(Constants.EX_ILLEGAL_MACHINE_NUM_NEGATIVE);
+        }
+        if (machineId > this.maxMachineNum) {
+            throw new IllegalArgumentException(Constants.EX_ILLEGAL_MACHINE_NUM_BIGGER);
+        }
+    }
+
+    /**
+     * Returns the state a new generator starts from.
+     * Starts below any reachable timestamp, or below the checkpoint mark,
+     * so the first call adopts the current time if the clock is past the mark.
+     *
+     * @param machineId machine identifier of the generator
+     * @return initial state
+     */
+    long initialState(final long machineId) {
+        final long markTick = this.ticks.ceilTickOf(this.checkpoint.getMark());
+        if (markTick > 0) {
+            return (markTick - 1) << this.timestampLeft
+                    | machineId << this.sequenceBits
+                    | this.maxSequenceNum;
+        }
+        return Long.MIN_VALUE | machineId << this.sequenceBits;
+    }
+
+    /**
+     * Reserves a block of consecutive identifiers with a compare-and-set retry loop on the given state.
+     *
+     * @param state updater of the state field of the generator
+     * @param owner generator holding the state
+     * @param count number of identifiers to reserve (positive)
+     * @param <T>   type of the generator
+     * @return first reserved identifier, or {@link #RETIRED} if the state is retired
+     */
+    <T> long advance(final AtomicLongFieldUpdater<T> state, final T owner, final int count) {
+        long now = this.ticks.now(this.clock);
+        // Initial state of the spare machine identifier, which is negative
+        long spare = 0;
+
+        long base, first, last;
+        for (int attempt = 0; ; attempt++) {
+            final long prev = state.get(owner);
+            if (prev == RETIRED) {
+                return RETIRED;
+            }
+            base = prev;
+            first = this.next(base, now);
+            last = this.skip(first, count);
+
+            final long excess = this.excess(last, now);
+            if (excess > 0) {
+                this.checkFits(count);
+                if (this.regressionPolicy.getAction() == ClockRegressionPolicy.Action.WAIT) {
+                    this.await(prev, excess);
+                    now = this.ticks.now(this.clock);
+                    attempt = -1;
+                    continue;
+                }
+                // A spare machine identifier is taken once, even if the compare-and-set is lost
+                if (spare == 0) {
+                    spare = this.rebase(prev, excess);
+                }
+                base = spare;
+                first = this.next(base, now);
+                last = this.skip(first, count);
+            }
+
+            if (state.compareAndSet(owner, prev, last)) {
+                break;
+            }
+            this.metrics.recordCasRetry();
+            this.waitStrategy.idle(attempt);
+        }
+        return this.issue(base, first, last, now, count);
+    }
+
+    /**
+     * Returns the first identifier following the given state, adopting the current tick
+     * if the state is behind it.
+     *
+     * @param prev last issued identifier
+     * @param now  current tick
+     * @return first identifier of the next block
+     */
+    long next(final long prev, final long now) {
+        // An exhausted sequence carries into the next tick
+        final long carried = (prev & this.maxSequenceNum) == this.maxSequenceNum ? prev + this.sequenceCarry : prev + 1;
+        return Math.max(carried, now << this.timestampLeft | prev & this.machineMask);
+    }
+
+    /**
+     * Returns the last identifier of a block.
+     *
+     * @param first first identifier of the block
+     * @param count number of identifiers of the block (positive)
+     * @return last identifier of the block
+     */
+    long skip(final long first, final int count) {
+        return count > 1 ? SnowflakeLease.skip(first, count - 1, this.sequenceBits, this.timestampLeft) : first;
+    }
+
+    /**
+     * Returns how many ticks a block runs ahead of the clock beyond what the regression policy allows.
+     *
+     * @param last last identifier of the block
+     * @param now  current tick
+     * @return ticks beyond the allowed borrow, positive if the regression policy has to act
+     */
+    long excess(final long last, final long now) {
+        return (last >> this.timestampLeft) - now - this.maxBorrowTicks;
+    }
+
+    /**
+     * Rejects a block that runs too far ahead of the clock even when it starts at the current tick,
+     * which neither waiting nor switching the machine identifier can help.
+     *
+     * @param count number of identifiers of the block (positive)
+     * @throws IllegalStateException if the block spans more ticks than the regression policy allows to borrow
+     */
+    void checkFits(final int count) {
+        if (count - 1L >> this.sequenceBits > this.maxBorrowTicks) {
+            throw this.regressionPolicy.reject();
+        }
+    }
+
+    /**
+     * Returns the state the next block follows. A block running too far ahead of the clock
+     * makes a failing regression policy throw and a switching one take a spare machine identifier;
+     * a waiting one leaves the state to the caller, which waits without holding its lock.
+     *
+     * @param prev  last issued identifier
+     * @param now   current tick
+     * @param count number of identifiers of the block (positive)
+     * @return the given state, or the initial state of a spare machine identifier
+     * @throws IllegalStateException if the regression policy fails, has no spare machine identifier left,
+     *                               or the block does not fit the allowed borrow at all
+     */
+    long follow(final long prev, final long now, final int count) {
+        final long excess = this.excess(this.skip(this.next(prev, now), count), now);
+        if (excess <= 0) {
+            return prev;
+        }
+        this.checkFits(count);
+        if (this.regressionPolicy.getAction() == ClockRegressionPolicy.Action.WAIT) {
+            return prev;
+        }
+        return this.rebase(prev, excess);
+    }
+
+    /**
+     * Applies a {@link ClockRegressionPolicy.Action#FAIL failing} or
+     * {@link ClockRegressionPolicy.Action#SWITCH_MACHINE_ID switching} regression policy.
+     *
+     * @param prev   last issued identifier
+     * @param excess ticks beyond the allowed borrow (positive)
+     * @return initial state of a spare machine identifier, which adopts the current tick
+     * @throws IllegalStateException if the regression policy fails, or has no spare machine identifier left
+     */
+    long rebase(final long prev, final long excess) {
+        final long machineId = this.machineIdOf(prev);
+        final long aheadMillis = this.ticks.toMillis(excess + this.maxBorrowTicks);
+        if (this.regressionPolicy.getAction() == ClockRegressionPolicy.Action.FAIL) {
+            FlightEvents.commitClockRegression(null, machineId, aheadMillis, ClockRegressionPolicy.Action.FAIL);
+            throw this.regressionPolicy.reject();
+        }
+        FlightEvents.commitClockRegression(null, machineId, aheadMillis, ClockRegressionPolicy.Action.SWITCH_MACHINE_ID);
+        return Long.MIN_VALUE | this.regressionPolicy.takeSpareMachineId() << this.sequenceBits;
+    }
+
+    /**
+     * Applies a {@link ClockRegressionPolicy.Action#WAIT waiting} regression policy.
+     * The caller re-reads the clock and retries.
+     *
+     * @param prev   last issued identifier
+     * @param excess ticks beyond the allowed borrow (positive)
+     */
+    void await(final long prev, final long excess) {
+        final Object event = FlightEvents.beginClockRegression();
+        this.metrics.recordWait();
+        this.regressionPolicy.await(this.ticks.toMillis(excess));
+        FlightEvents.commitClockRegression(event, this.machineIdOf(prev),
+                this.ticks.toMillis(excess + this.maxBorrowTicks), ClockRegressionPolicy.Action.WAIT);
+    }
+
+    /**
+     * Records a reserved block in the checkpoint, the metrics, the flight events and the regression policy.
+     *
+     * @param prev  state the block follows
+     * @param first first identifier of the block
+     * @param last  last identifier of the block
+     * @param now   tick the block was reserved at
+     * @param count number of identifiers of the block
+     * @return first identifier of the block
+     */
+    long issue(final long prev, final long first, final long last, final long now, final int count) {
+        final long lastTick = last >> this.timestampLeft;
+        this.checkpoint.reserve(this.ticks.lastEpochMillisOf(lastTick));
+        // The sequence was exhausted if it carried past the current tick
+        final boolean exhausted = (prev & this.maxSequenceNum) == this.maxSequenceNum
+                && prev + this.sequenceCarry > (now << this.timestampLeft | prev & this.machineMask);
+        this.metrics.recordIssued(count, exhausted);
+        final long drift = lastTick - now;
+        if (exhausted) {
+            FlightEvents.sequenceExhausted(this.machineIdOf(last), this.ticks.toMillis(drift));
+        }
+        if (drift > 0) {
+            this.recordBorrow(now, drift);
+        }
+        return first;
+    }
+
+    /**
+     * Records a block issued ahead of the clock. Counts the clock milliseconds the current tick covers,
+     * so a tick of several milliseconds counts all of them, and a millisecond shared by several ticks once.
+     *
+     * @param now   tick the block was reserved at
+     * @param drift positive drift of the block in ticks
+     */
+    private void recordBorrow(final long now, final long drift) {
+        final long from = this.ticks.toEpochMillis(now);
+        final long until = this.ticks.lastEpochMillisOf(now) + 1;
+        final long last = this.borrowedUntil.get();
+        long borrowedMillis = 0;
+        if (last != until && this.borrowedUntil.compareAndSet(last, until)) {
+            // Skips the milliseconds already counted for the previous tick, unless the clock stepped back
+            borrowedMillis = until - (last > from && last < until ? last : from);
+        }
+        this.regressionPolicy.recordBorrow(borrowedMillis, this.ticks.toMillis(drift));
+        if (borrowedMillis != 0) {
+            this.metrics.recordBorrow(borrowedMillis);
+        }
+    }
+
+    /**
+     * Returns the machine identifier of a state.
+     *
+     * @param state identifier or initial state
+     * @return machine identifier
+     */
+    long machineIdOf(final long state) {
+        return (state & this.machineMask) >> this.sequenceBits;
+    }
+
+    /**
+     * Returns whether the other layout has the same start timestamp, tick and bit sizes.
+     * The options are not compared; only layouts built from the same options should be compared.
+     */
+    @Override
+    public boolean equals(final Object o) {
+        if (!(o instanceof SnowflakeLayout)) {
+            return false;
+        }
+        final SnowflakeLayout other = (SnowflakeLayout) o;
+        return this.ticks.getStartMillis() == other.ticks.getStartMillis()
+                && this.ticks.getTickMicros() == other.ticks.getTickMicros()
+                && this.sequenceBits == other.sequenceBits
+                && this.timestampLeft == other.timestampLeft;
+    }
+
+    @Override
+    public int hashCode() {
+        return ((Long.hashCode(this.ticks.getStartMillis()) * 31 + Long.hashCode(this.ticks.getTickMicros())) * 31
+                + (int) this.sequenceBits) * 31 + (int) this.timestampLeft;
+    }
+}
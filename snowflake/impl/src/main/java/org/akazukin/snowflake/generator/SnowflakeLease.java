@@ -0,0 +1,255 @@
+package org.akazukin.snowflake.generator;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.akazukin.annotation.marker.NonThreadSafe;
+import org.akazukin.snowflake.Constants;
+
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.LongConsumer;
+
+/**
+ * Lease over a contiguous block of reserved generator states.
+ * <p>
+ * A generator state is the timestamp (relative to the start timestamp) and the sequence
+ * packed into one word ({@code timestamp << sequenceBits | sequence}),
+ * so a block of consecutive states covers the sequence overflow into following milliseconds.
+ * A block is described by its first identifier; the other identifiers are composed from
+ * the following states only when they are consumed.
+ */
+@NonThreadSafe
+@FieldDefaults(level = AccessLevel.PRIVATE)
+final class SnowflakeLease implements ISnowflakeLease {
+    final long end;
+    final long sequenceBits;
+    final long maxSequenceNum;
+    final long timestampLeft;
+    final long machinePart;
+
+    /**
+     * Next state to be composed.
+     */
+    long next;
+
+    SnowflakeLease(final long firstId, final int count, final long sequenceBits, final long timestampLeft) {
+        this.sequenceBits = sequenceBits;
+        this.maxSequenceNum = ~(-1L << sequenceBits);
+        this.timestampLeft = timestampLeft;
+        this.machinePart = machinePart(firstId, sequenceBits, timestampLeft);
+        this.next = state(firstId, sequenceBits, timestampLeft);
+        this.end = this.next + count;
+    }
+
+    /**
+     * Returns the state of the given identifier.
+     *
+     * @param id            identifier
+     * @param sequenceBits  number of sequence bits
+     * @param timestampLeft shift of the timestamp part
+     * @return timestamp and sequence of the identifier packed into one word
+     */
+    static long state(final long id, final long sequenceBits, final long timestampLeft) {
+        return (id >> timestampLeft) << sequenceBits | id & ~(-1L << sequenceBits);
+    }
+
+    /**
+     * Returns the machine identifier of the given identifier, left in its position.
+     *
+     * @param id            identifier
+     * @param sequenceBits  number of sequence bits
+     * @param timestampLeft shift of the timestamp part
+     * @return machine part of the identifier
+     */
+    static long machinePart(final long id, final long sequenceBits, final long timestampLeft) {
+        return id & ~(-1L << timestampLeft) & -1L << sequenceBits;
+    }
+
+    /**
+     * Returns the identifier {@code n} states after the given one, with the same machine identifier.
+     *
+     * @param id            identifier
+     * @param n             number of states to skip (non-negative)
+     * @param sequenceBits  number of sequence bits
+     * @param timestampLeft shift of the timestamp part
+     * @return identifier {@code n} states later
+     */
+    static long skip(final long id, final long n, final long sequenceBits, final long timestampLeft) {
+        final long state = state(id, sequenceBits, timestampLeft) + n;
+        return (state >> sequenceBits) << timestampLeft
+                | machinePart(id, sequenceBits, timestampLeft)
+                | state & ~(-1L << sequenceBits);
+    }
+
+    /**
+     * Validates the range of a bulk request before anything is reserved.
+     *
+     * @param off    first index to write
+     * @param len    number of identifiers to write
+     * @param length length of the destination
+     * @throws IndexOutOfBoundsException if the range is outside the bounds of the destination
+     */
+    static void checkRange(final int off, final int len, final int length) {
+        if (off < 0 || len < 0 || off > length - len) {
+            throw new IndexOutOfBoundsException("off: " + off + ", len: " + len + ", length: " + length);
+        }
+    }
+
+    /**
+     * Validates the number of identifiers requested for a lease.
+     *
+     * @param count number of identifiers
+     * @throws IllegalArgumentException if {@code count} is negative
+     */
+    static void checkCount(final int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException(Constants.EX_ILLEGAL_COUNT_NEGATIVE);
+        }
+    }
+
+    /**
+     * Composes the identifiers of {@code len} consecutive states into the given array range.
+     *
+     * @param firstId       first reserved identifier
+     * @param dst           destination array
+     * @param off           first index to write
+     * @param len           number of identifiers to write
+     * @param sequenceBits  number of sequence bits
+     * @param timestampLeft shift of the timestamp part
+     */
+    static void fill(final long firstId, final long[] dst, final int off, final int len,
+                     final long sequenceBits, final long timestampLeft) {
+        final long maxSequenceNum = ~(-1L << sequenceBits);
+        final long machinePart = machinePart(firstId, sequenceBits, timestampLeft);
+        long state = state(firstId, sequenceBits, timestampLeft);
+        for (int i = off, end = off + len; i < end; i++, state++) {
+            dst[i] = (state >> sequenceBits) << timestampLeft
+                    | machinePart
+                    | state & maxSequenceNum;
+        }
+    }
+
+    /**
+     * Hands the remaining states over to a spliterator, which splits them by range.
+     * The lease is empty afterwards.
+     *
+     * @return sorted spliterator over the remaining identifiers
+     */
+    Spliterator.OfLong spliterator() {
+        final Spliterator.OfLong spliterator = new StateSpliterator(this.next, this.end,
+                this.machinePart, this.sequenceBits, this.timestampLeft);
+        this.next = this.end;
+        return spliterator;
+    }
+
+    @Override
+    public int remaining() {
+        return (int) (this.end - this.next);
+    }
+
+    @Override
+    public boolean hasNext() {
+        return this.next < this.end;
+    }
+
+    @Override
+    public long nextLong() {
+        if (this.next >= this.end) {
+            throw new NoSuchElementException();
+        }
+        final long state = this.next++;
+        return (state >> this.sequenceBits) << this.timestampLeft
+                | this.machinePart
+                | state & this.maxSequenceNum;
+    }
+
+    @Override
+    public void forEachRemaining(final LongConsumer action) {
+        final long end = this.end;
+        long state = this.next;
+        this.next = end;
+        for (; state < end; state++) {
+            action.accept((state >> this.sequenceBits) << this.timestampLeft
+                    | this.machinePart
+                    | state & this.maxSequenceNum);
+        }
+    }
+
+    /**
+     * Spliterator over a range of reserved states with one machine identifier.
+     * A split takes the lower half of the range, so the identifiers are sorted across all splits.
+     */
+    @NonThreadSafe
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    private static final class StateSpliterator implements Spliterator.OfLong {
+        final long machinePart;
+        final long sequenceBits;
+        final long maxSequenceNum;
+        final long timestampLeft;
+        final long end;
+
+        long next;
+
+        StateSpliterator(final long next, final long end,
+                         final long machinePart, final long sequenceBits, final long timestampLeft) {
+            this.next = next;
+            this.end = end;
+            this.machinePart = machinePart;
+            this.sequenceBits = sequenceBits;
+            this.maxSequenceNum = ~(-1L << sequenceBits);
+            this.timestampLeft = timestampLeft;
+        }
+
+        @Override
+        public Spliterator.OfLong trySplit() {
+            final long mid = (this.next + this.end) >>> 1;
+            if (mid <= this.next) {
+                return null;
+            }
+            final Spliterator.OfLong prefix = new StateSpliterator(this.next, mid,
+                    this.machinePart, this.sequenceBits, this.timestampLeft);
+            this.next = mid;
+            return prefix;
+        }
+
+        @Override
+        public boolean tryAdvance(final LongConsumer action) {
+            if (this.next >= this.end) {
+                return false;
+            }
+            final long state = this.next++;
+            action.accept((state >> this.sequenceBits) << this.timestampLeft
+                    | this.machinePart
+                    | state & this.maxSequenceNum);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(final LongConsumer action) {
+            final long end = this.end;
+            long state = this.next;
+            this.next = end;
+            for (; state < end; state++) {
+                action.accept((state >> this.sequenceBits) << this.timestampLeft
+                        | this.machinePart
+                        | state & this.maxSequenceNum);
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            return this.end - this.next;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SORTED | DISTINCT | NONNULL | IMMUTABLE | SIZED | SUBSIZED;
+        }
+
+        @Override
+        public Comparator<? super Long> getComparator() {
+            return null;
+        }
+    }
+}
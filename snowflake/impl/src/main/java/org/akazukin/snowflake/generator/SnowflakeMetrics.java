@@ -0,0 +1,190 @@
+package org.akazukin.snowflake.generator;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.experimental.FieldDefaults;
+import org.akazukin.annotation.marker.ThreadSafe;
+import org.jetbrains.annotations.NotNull;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Striped counters recording the work of the generators.
+ * <p>
+ * Metrics are passed to a generator with {@link SnowflakeOptions#withMetrics(SnowflakeMetrics)} and read
+ * through {@link ISnowflake#getMetrics()}, as a {@link #snapshot() snapshot}, or over JMX once
+ * {@link #registerMBean(String) registered}. The counters are {@link LongAdder}s, so concurrent updates
+ * from many threads do not contend. When disabled, which is the default, the generators skip recording
+ * after a single branch on a final field.
+ * <p>
+ * Metrics may be shared by several generators; the counters are then summed up.
+ * <p>
+ * Independently of these metrics, on Java 11 and later the generators emit Java Flight Recorder events
+ * in the {@code Snowflake} category for clock regressions, sequence exhaustions and long slot waits.
+ */
+@ThreadSafe
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public final class SnowflakeMetrics implements ISnowflakeMetrics {
+    private static final SnowflakeMetrics DISABLED = new SnowflakeMetrics(false);
+
+    /**
+     * Domain of the registered MBeans.
+     */
+    public static final String JMX_DOMAIN = "org.akazukin.snowflake";
+
+    @Getter
+    boolean enabled;
+
+    LongAdder issuedIds = new LongAdder();
+    LongAdder sequenceExhaustions = new LongAdder();
+    LongAdder borrowedMillis = new LongAdder();
+    LongAdder casRetries = new LongAdder();
+    LongAdder slotHops = new LongAdder();
+    LongAdder waits = new LongAdder();
+
+    private SnowflakeMetrics(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Returns new metrics that record.
+     *
+     * @return new metrics
+     */
+    public static SnowflakeMetrics enabled() {
+        return new SnowflakeMetrics(true);
+    }
+
+    /**
+     * Returns metrics that record nothing.
+     * This is the behavior of the generators when no metrics are specified.
+     *
+     * @return shared instance
+     */
+    public static SnowflakeMetrics disabled() {
+        return DISABLED;
+    }
+
+    @Override
+    public long getIssuedIds() {
+        return this.issuedIds.sum();
+    }
+
+    @Override
+    public long getSequenceExhaustions() {
+        return this.sequenceExhaustions.sum();
+    }
+
+    @Override
+    public long getBorrowedMillis() {
+        return this.borrowedMillis.sum();
+    }
+
+    @Override
+    public long getCasRetries() {
+        return this.casRetries.sum();
+    }
+
+    @Override
+    public long getSlotHops() {
+        return this.slotHops.sum();
+    }
+
+    @Override
+    public long getWaits() {
+        return this.waits.sum();
+    }
+
+    /**
+     * Returns the current values of the counters.
+     *
+     * @return immutable snapshot
+     */
+    public Snapshot snapshot() {
+        return new Snapshot(this.getIssuedIds(), this.getSequenceExhaustions(), this.getBorrowedMillis(),
+                this.getCasRetries(), this.getSlotHops(), this.getWaits());
+    }
+
+    /**
+     * Registers these metrics as an MXBean with the platform MBean server,
+     * under {@code org.akazukin.snowflake:type=Snowflake,name=<name>}.
+     *
+     * @param name name distinguishing the generator
+     * @return name of the registered MBean, to unregister it with
+     * @throws JMException if the name is malformed or already registered
+     */
+    public ObjectName registerMBean(@NotNull final String name) throws JMException {
+        final ObjectName objectName = new ObjectName(JMX_DOMAIN + ":type=Snowflake,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer()
+                .registerMBean(new StandardMBean(this, ISnowflakeMetrics.class, true), objectName);
+        return objectName;
+    }
+
+    /**
+     * Records issued identifiers.
+     *
+     * @param count     number of identifiers
+     * @param exhausted whether the first identifier was taken from a later millisecond
+     *                  because the sequence was exhausted
+     */
+    void recordIssued(final int count, final boolean exhausted) {
+        if (!this.enabled) {
+            return;
+        }
+        this.issuedIds.add(count);
+        if (exhausted) {
+            this.sequenceExhaustions.increment();
+        }
+    }
+
+    /**
+     * Records clock time in which identifiers were issued ahead of the clock.
+     *
+     * @param borrowedMillis clock time not yet counted as borrowed by the generator, in milliseconds
+     */
+    void recordBorrow(final long borrowedMillis) {
+        if (this.enabled) {
+            this.borrowedMillis.add(borrowedMillis);
+        }
+    }
+
+    void recordCasRetry() {
+        if (this.enabled) {
+            this.casRetries.increment();
+        }
+    }
+
+    void recordSlotHop() {
+        if (this.enabled) {
+            this.slotHops.increment();
+        }
+    }
+
+    void recordWait() {
+        if (this.enabled) {
+            this.waits.increment();
+        }
+    }
+
+    /**
+     * Values of the counters at one point in time.
+     */
+    @Getter
+    @ToString
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    public static final class Snapshot implements ISnowflakeMetrics {
+        long issuedIds;
+        long sequenceExhaustions;
+        long borrowedMillis;
+        long casRetries;
+        long slotHops;
+        long waits;
+    }
+}
@@ -0,0 +1,60 @@
+package org.akazukin.snowflake.generator;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.With;
+import lombok.experimental.FieldDefaults;
+import org.akazukin.snowflake.clock.IClock;
+import org.akazukin.snowflake.clock.SystemClock;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Runtime collaborators of a generator, as opposed to the bit layout
+ * described by {@link org.akazukin.snowflake.config.ISnowflakeConfig}.
+ * <p>
+ * Instances are immutable; derive customized options from {@link #DEFAULT} with the {@code with} methods.
+ */
+@Getter
+@With
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public final class SnowflakeOptions {
+    /**
+     * The system clock, an unbounded regression policy, the {@link WaitStrategies#adaptive() adaptive} wait strategy,
+     * no checkpoint and disabled metrics.
+     */
+    public static final SnowflakeOptions DEFAULT = new SnowflakeOptions(
+            SystemClock.INSTANCE, ClockRegressionPolicy.unbounded(), WaitStrategies.adaptive(),
+            TimestampCheckpoint.none(), SnowflakeMetrics.disabled());
+
+    /**
+     * Source of the current time.
+     */
+    @NotNull
+    IClock clock;
+
+    /**
+     * Policy applied when the generator would run too far ahead of the clock.
+     */
+    @NotNull
+    ClockRegressionPolicy regressionPolicy;
+
+    /**
+     * Strategy used by threads waiting for a contended generator.
+     */
+    @NotNull
+    IWaitStrategy waitStrategy;
+
+    /**
+     * Persistent high-water mark of the issued timestamps, resumed from on construction.
+     */
+    @NotNull
+    TimestampCheckpoint checkpoint;
+
+    /**
+     * Counters recording the work of the generator.
+     */
+    @NotNull
+    SnowflakeMetrics metrics;
+}
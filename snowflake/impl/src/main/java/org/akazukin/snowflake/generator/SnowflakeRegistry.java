@@ -0,0 +1,243 @@
+package org.akazukin.snowflake.generator;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import org.akazukin.annotation.marker.ThreadSafe;
+import org.akazukin.snowflake.Constants;
+import org.akazukin.snowflake.config.ISnowflakeConfig;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.function.Function;
+
+/**
+ * Registry of lock-free generators, one per key, created on first use.
+ * <p>
+ * Each key, such as a tenant or an entity type, is mapped to its own configuration by a function given
+ * on construction. {@link #get(Object)} is a single lookup in a {@link ConcurrentHashMap}, which takes no lock
+ * once the generator exists. A generator holds little more than its last issued identifier; the values derived from
+ * a configuration and the options are kept once per distinct layout (start timestamp, tick and bit sizes), so keys
+ * sharing a layout share them.
+ * <p>
+ * Generators that issued nothing for {@code idleMillis} are evicted: sweeps run at most once per
+ * {@code idleMillis} when a generator is created, or whenever {@link #evictIdle()} is called.
+ * A caller still holding an evicted generator keeps working; its next call moves over to a new
+ * generator for the same key. A new generator starts at the clock, so {@code idleMillis} should exceed
+ * the largest step backward of the clock unless a checkpoint is configured.
+ * <p>
+ * The options are shared by all generators of the registry; so are the counters of the metrics and
+ * the spare machine identifiers of a {@link ClockRegressionPolicy#switchMachineId(long, long...) switching}
+ * regression policy. The machine identifier must fit the machine ID bits of every configuration.
+ *
+ * @param <K> type of the keys
+ */
+@ThreadSafe
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public final class SnowflakeRegistry<K> {
+    private static final AtomicLongFieldUpdater<Generator> STATE =
+            AtomicLongFieldUpdater.newUpdater(Generator.class, "state");
+
+    Function<? super K, ? extends ISnowflakeConfig> configs;
+    long machineId;
+    SnowflakeOptions options;
+
+    /**
+     * Time without issued identifiers after which a generator is evicted.
+     */
+    @Getter
+    long idleMillis;
+
+    Map<Object, Generator> generators = new ConcurrentHashMap<>();
+    Map<SnowflakeLayout, SnowflakeLayout> layouts = new ConcurrentHashMap<>();
+
+    /**
+     * Clock reading from which the next sweep is due.
+     */
+    AtomicLong nextSweep = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * Constructs a new {@code SnowflakeRegistry}.
+     * The {@link SnowflakeOptions#DEFAULT default options} are used.
+     *
+     * @param configs    function mapping a key to its configuration, deterministic (must not be null)
+     * @param machineId  machine identifier of all generators (non-negative)
+     * @param idleMillis time without issued identifiers after which a generator is evicted (positive)
+     * @throws IllegalArgumentException if {@code machineId} is negative or {@code idleMillis} is not positive
+     */
+    public SnowflakeRegistry(@NotNull final Function<? super K, ? extends ISnowflakeConfig> configs,
+                             final long machineId, final long idleMillis) {
+        this(configs, machineId, idleMillis, SnowflakeOptions.DEFAULT);
+    }
+
+    /**
+     * Constructs a new {@code SnowflakeRegistry}.
+     *
+     * @param configs    function mapping a key to its configuration, deterministic (must not be null)
+     * @param machineId  machine identifier of all generators (non-negative)
+     * @param idleMillis time without issued identifiers after which a generator is evicted (positive)
+     * @param options    clock, regression policy, wait strategy, checkpoint and metrics shared by
+     *                   all generators (must not be null)
+     * @throws IllegalArgumentException if {@code machineId} is negative or {@code idleMillis} is not positive
+     */
+    public SnowflakeRegistry(@NotNull final Function<? super K, ? extends ISnowflakeConfig> configs,
+                             final long machineId, final long idleMillis, @NotNull final SnowflakeOptions options) {
+        if (machineId < 0) {
+            throw new IllegalArgumentException(Constants.EX_ILLEGAL_MACHINE_NUM_NEGATIVE);
+        }
+        if (idleMillis <= 0) {
+            throw new IllegalArgumentException(Constants.EX_ILLEGAL_IDLE_MILLIS);
+        }
+        this.configs = configs;
+        this.machineId = machineId;
+        this.idleMillis = idleMillis;
+        this.options = options;
+    }
+
+    /**
+     * Returns the generator of the given key, creating it if there is none.
+     *
+     * @param key key of the generator (must not be null)
+     * @return thread-safe generator
+     * @throws IllegalStateException    if the configuration of the key has invalid bit sizes
+     * @throws IllegalArgumentException if the machine identifier or a spare machine identifier
+     *                                  of the regression policy does not fit the configuration
+     */
+    public ISnowflake get(@NotNull final K key) {
+        // Unlike computeIfAbsent, get never locks a bin
+        final Generator generator = this.generators.get(key);
+        if (generator != null) {
+            return generator;
+        }
+
+        this.sweepIfDue();
+        return this.generators.computeIfAbsent(key, k -> new Generator(this, k, this.layoutOf(this.configs.apply(key))));
+    }
+
+    /**
+     * Returns the number of generators.
+     *
+     * @return number of registered generators
+     */
+    public int size() {
+        return this.generators.size();
+    }
+
+    /**
+     * Returns the number of distinct layouts the generators share.
+     *
+     * @return number of layouts
+     */
+    public int layoutCount() {
+        return this.layouts.size();
+    }
+
+    /**
+     * Evicts the generators that issued nothing for {@code idleMillis}.
+     *
+     * @return number of evicted generators
+     */
+    public int evictIdle() {
+        final long now = this.options.getClock().currentTimeMillis();
+        this.nextSweep.set(now + this.idleMillis);
+
+        int evicted = 0;
+        for (final Generator generator : this.generators.values()) {
+            if (generator.retireIfIdle(now, this.idleMillis) && this.generators.remove(generator.key, generator)) {
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    private void sweepIfDue() {
+        final long next = this.nextSweep.get();
+        if (this.options.getClock().currentTimeMillis() >= next && this.nextSweep.compareAndSet(next, Long.MAX_VALUE)) {
+            this.evictIdle();
+        }
+    }
+
+    /**
+     * Returns the shared layout of the given configuration.
+     *
+     * @param config configuration of a key
+     * @return layout equal to any other layout of the same start timestamp, tick and bit sizes
+     */
+    private SnowflakeLayout layoutOf(final ISnowflakeConfig config) {
+        final SnowflakeLayout layout = new SnowflakeLayout(config, this.options);
+        if (this.machineId > layout.maxMachineNum) {
+            throw new IllegalArgumentException(Constants.EX_ILLEGAL_MACHINE_NUM_BIGGER);
+        }
+        final SnowflakeLayout shared = this.layouts.putIfAbsent(layout, layout);
+        return shared != null ? shared : layout;
+    }
+
+    /**
+     * Returns the live generator of the key of an evicted one, creating it if there is none.
+     *
+     * @param retired evicted generator
+     * @return live generator
+     */
+    private Generator successorOf(final Generator retired) {
+        return this.generators.compute(retired.key, (k, current) ->
+                current != null && current.state != SnowflakeLayout.RETIRED ? current : new Generator(this, k, retired.layout));
+    }
+
+    /**
+     * Generator of one key. Advances its last issued identifier like {@link LockFreeSnowflake}, with the same
+     * {@link SnowflakeLayout#advance(AtomicLongFieldUpdater, Object, int) compare-and-set loop}.
+     */
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    private static final class Generator extends LayoutSnowflake {
+        SnowflakeRegistry<?> registry;
+        Object key;
+
+        /**
+         * Last issued identifier, or {@link SnowflakeLayout#RETIRED} once evicted.
+         */
+        @NonFinal
+        volatile long state;
+
+        Generator(final SnowflakeRegistry<?> registry, final Object key, final SnowflakeLayout layout) {
+            super(layout);
+            this.registry = registry;
+            this.key = key;
+            this.state = layout.initialState(registry.machineId);
+        }
+
+        /**
+         * Evicts this generator if it issued nothing since {@code idleMillis} before {@code now}.
+         *
+         * @param now        clock reading
+         * @param idleMillis time without issued identifiers
+         * @return whether this generator is evicted
+         */
+        boolean retireIfIdle(final long now, final long idleMillis) {
+            final long prev = this.state;
+            if (prev == SnowflakeLayout.RETIRED) {
+                return true;
+            }
+            // A generator that never issued anything is idle
+            if (prev >= 0 && now - this.layout.ticks.lastEpochMillisOf(prev >> this.layout.timestampLeft) <= idleMillis) {
+                return false;
+            }
+            return STATE.compareAndSet(this, prev, SnowflakeLayout.RETIRED);
+        }
+
+        /**
+         * Reserves a block of consecutive identifiers, from the successor if this generator is evicted.
+         *
+         * @param count number of identifiers to reserve (positive)
+         * @return first reserved identifier
+         */
+        @Override
+        long advance(final int count) {
+            final long first = this.layout.advance(STATE, this, count);
+            return first != SnowflakeLayout.RETIRED ? first : this.registry.successorOf(this).advance(count);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package org.akazukin.snowflake.generator;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.UtilityClass;
+import org.akazukin.annotation.marker.NonThreadSafe;
+import org.akazukin.snowflake.Constants;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Streams of identifiers for bulk generation, which split for parallel streams and fork/join.
+ * <p>
+ * {@link #stream(ISnowflake, long, boolean)} hands every split its own share of the count.
+ * A split reserves its identifiers from the generator as leases of {@value #CHUNK_SIZE}, so the generator
+ * is hit once per chunk rather than once per identifier. The identifiers of one split ascend,
+ * but the splits interleave, so the stream as a whole is unordered.
+ * <p>
+ * {@link #sortedStream(ISnowflake, int, boolean)} reserves all identifiers as a single lease and splits
+ * that range, so the stream is sorted across all splits. The generator runs ahead of the clock by
+ * the whole range at once, and the {@link ClockRegressionPolicy} checks the whole block up to its last identifier.
+ * A {@code count} spanning more ticks than the {@code maxBorrowMillis} of a bounded policy is therefore
+ * refused with an {@link IllegalStateException}, whether the policy waits or fails.
+ */
+@UtilityClass
+public class SnowflakeStreams {
+    /**
+     * Number of identifiers reserved at once by {@link #stream(ISnowflake, long, boolean)}.
+     */
+    public final int CHUNK_SIZE = 4096;
+
+    /**
+     * Returns a stream of {@code count} identifiers reserved in chunks.
+     *
+     * @param generator generator to reserve from, thread-safe if the stream is parallel
+     * @param count     number of identifiers (non-negative)
+     * @param parallel  whether the stream is parallel
+     * @return unordered stream of distinct identifiers
+     * @throws IllegalArgumentException if {@code count} is negative
+     */
+    public LongStream stream(@NotNull final ISnowflake generator, final long count, final boolean parallel) {
+        return StreamSupport.longStream(spliterator(generator, count), parallel);
+    }
+
+    /**
+     * Reserves {@code count} identifiers at once and returns them as a sorted stream.
+     *
+     * @param generator generator to reserve from
+     * @param count     number of identifiers (non-negative)
+     * @param parallel  whether the stream is parallel
+     * @return sorted stream of distinct identifiers
+     * @throws IllegalArgumentException if {@code count} is negative
+     * @throws IllegalStateException    if the regression policy refuses to run further ahead of the clock,
+     *                                  or {@code count} spans more ticks than it may borrow
+     */
+    public LongStream sortedStream(@NotNull final ISnowflake generator, final int count, final boolean parallel) {
+        return StreamSupport.longStream(sortedSpliterator(generator, count), parallel);
+    }
+
+    /**
+     * Returns a spliterator over {@code count} identifiers reserved in chunks as they are consumed.
+     *
+     * @param generator generator to reserve from, thread-safe if the splits are consumed concurrently
+     * @param count     number of identifiers (non-negative)
+     * @return unordered spliterator of distinct identifiers
+     * @throws IllegalArgumentException if {@code count} is negative
+     */
+    public Spliterator.OfLong spliterator(@NotNull final ISnowflake generator, final long count) {
+        if (count < 0) {
+            throw new IllegalArgumentException(Constants.EX_ILLEGAL_COUNT_NEGATIVE);
+        }
+        return new ChunkSpliterator(generator, count);
+    }
+
+    /**
+     * Reserves {@code count} identifiers at once and returns a spliterator over them.
+     * Leases of the generators of this library are split by range; other leases are split in batches.
+     *
+     * @param generator generator to reserve from
+     * @param count     number of identifiers (non-negative)
+     * @return sorted spliterator of distinct identifiers
+     * @throws IllegalArgumentException if {@code count} is negative
+     * @throws IllegalStateException    if the regression policy refuses to run further ahead of the clock,
+     *                                  or {@code count} spans more ticks than it may borrow
+     */
+    public Spliterator.OfLong sortedSpliterator(@NotNull final ISnowflake generator, final int count) {
+        final ISnowflakeLease lease = generator.lease(count);
+        if (lease instanceof SnowflakeLease) {
+            return ((SnowflakeLease) lease).spliterator();
+        }
+        return Spliterators.spliterator(lease, count, Spliterator.ORDERED | Spliterator.SORTED
+                | Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.IMMUTABLE);
+    }
+
+    /**
+     * Spliterator handing each split a share of the count, reserved from the generator in chunks.
+     */
+    @NonThreadSafe
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    private final class ChunkSpliterator implements Spliterator.OfLong {
+        final ISnowflake generator;
+
+        /**
+         * Identifiers not reserved yet.
+         */
+        long unreserved;
+
+        /**
+         * Chunk being consumed.
+         */
+        ISnowflakeLease lease;
+
+        ChunkSpliterator(final ISnowflake generator, final long count) {
+            this.generator = generator;
+            this.unreserved = count;
+        }
+
+        @Override
+        public Spliterator.OfLong trySplit() {
+            final long half = this.unreserved >>> 1;
+            if (half == 0) {
+                return null;
+            }
+            this.unreserved -= half;
+            return new ChunkSpliterator(this.generator, half);
+        }
+
+        @Override
+        public boolean tryAdvance(final LongConsumer action) {
+            if (this.lease == null || !this.lease.hasNext()) {
+                if (this.unreserved == 0) {
+                    return false;
+                }
+                this.reserve();
+            }
+            action.accept(this.lease.nextLong());
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(final LongConsumer action) {
+            if (this.lease != null) {
+                this.lease.forEachRemaining(action);
+            }
+            while (this.unreserved > 0) {
+                this.reserve();
+                this.lease.forEachRemaining(action);
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            return this.unreserved + (this.lease == null ? 0 : this.lease.remaining());
+        }
+
+        @Override
+        public int characteristics() {
+            return DISTINCT | NONNULL | IMMUTABLE | SIZED | SUBSIZED;
+        }
+
+        private void reserve() {
+            final int count = (int) Math.min(CHUNK_SIZE, this.unreserved);
+            this.lease = this.generator.lease(count);
+            this.unreserved -= count;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package org.akazukin.snowflake.generator;
+
+/**
+ * Access to thread features of newer Java versions.
+ * <p>
+ * The main class only uses the Java 8 API, whatever release it is compiled for. The multi-release JAR
+ * ships overlays for Java 9 and Java 21 under {@code META-INF/versions}, which newer JVMs load instead.
+ */
+final class ThreadSupport {
+    private ThreadSupport() {
+    }
+
+    /**
+     * Hints that the calling thread is busy-waiting.
+     */
+    static void onSpinWait() {
+    }
+
+    /**
+     * Returns whether the given thread is a virtual thread.
+     *
+     * @param thread thread to check
+     * @return {@code true} if the thread is virtual
+     */
+    static boolean isVirtual(final Thread thread) {
+        return false;
+    }
+}
@@ -2,85 +2,454 @@ package org.akazukin.snowflake.generator;
 
 import lombok.AccessLevel;
 import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
 import org.akazukin.annotation.marker.ThreadSafe;
+import org.akazukin.snowflake.Constants;
+import org.akazukin.snowflake.clock.IClock;
 import org.akazukin.snowflake.config.ISnowflakeConfig;
+import org.jetbrains.annotations.NotNull;
 
 import java.util.concurrent.ThreadLocalRandom;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
- * Pool-based implementation that delegates generation to a pool of
- * internal generator instances.
+ * Striped implementation that spreads generation over a pool of slots,
+ * each owning its own machine identifier.
  *
- * <p>Uses multiple internal generator instances (one per pool entry) to
- * produce identifiers and reduce contention under concurrent use.
+ * <p>Every slot keeps its last issued identifier guarded by
+ * a slot-local lock, and is padded to its own cache line so that slots used by
+ * different threads do not false-share. A thread keeps using the slot it was
+ * assigned to; only after losing the lock of that slot it moves to another
+ * slot picked by a per-thread random probe and stays there.
+ *
+ * <p>A fixed pool uses all of its slots from the start. An adaptive pool starts with a single slot
+ * and takes the next machine identifier of its range whenever threads keep finding their slots held;
+ * once fewer slots than the pool holds were used for an idle period, the last slot is retired.
+ * A retired slot keeps its state, so the machine identifier resumes above it when the pool grows again.
  */
 @ThreadSafe
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
-public final class ThreadedSnowflake implements ISnowflake {
+public final class ThreadedSnowflake extends LayoutSnowflake {
+    private static final AtomicIntegerFieldUpdater<SlotFields> LOCK =
+            AtomicIntegerFieldUpdater.newUpdater(SlotFields.class, "lock");
+
+    /**
+     * Number of failed attempts to lock the own slot after which an adaptive pool grows by one slot.
+     * Counted from the last resize or idle check.
+     */
+    private static final int GROW_CONTENTIONS = 64;
+
+    /**
+     * Slots used to produce identifiers, allocated as the pool grows and guarding its resizes.
+     */
+    Slot[] pool;
+
+    /**
+     * Number of slots threads are spread over.
+     */
+    @NonFinal
+    volatile int poolSize;
+
+    /**
+     * Machine identifier of the first slot; slot {@code i} uses {@code firstMachineId + i}.
+     */
+    long firstMachineId;
+
+    /**
+     * Whether the pool size adapts to the contention, and the length of an idle period in ticks.
+     */
+    boolean adaptive;
+    long idleTicks;
+
+    /**
+     * Failed attempts to lock the own slot, in total and since the last resize or idle check.
+     */
+    LongAdder contentions = new LongAdder();
+    AtomicInteger pressure = new AtomicInteger();
+
     /**
-     * Pool of internal generator instances used to produce identifiers.
+     * Tick from which the next idle check is due. Written while holding the pool.
      */
-    SnowFlakeContainer[] pool;
+    @NonFinal
+    volatile long nextIdleCheck = Long.MIN_VALUE;
 
     /**
-     * Number of entries in the pool.
+     * Per-thread slot assignment.
+     */
+    ThreadLocal<Probe> probe;
+
+    /**
+     * Constructs a new {@code ThreadedSnowFlake} with the provided configuration.
+     * The configured timestamp offset is applied to the start timestamp.
+     * The {@link SnowflakeOptions#DEFAULT default options} are used.
+     *
+     * @param config    configuration specifying machine and sequence bits,
+     *                  timestamp start and offset (must not be null)
+     * @param machineId base machine identifier for the first slot;
+     *                  slot {@code i} uses {@code machineId + i}
+     * @param poolSize  number of slots (positive)
+     * @throws IllegalStateException    if configuration bit sizes are invalid
+     * @throws IllegalArgumentException if {@code poolSize} is not positive or
+     *                                  any of the slot machine identifiers is out of range
      */
-    int poolSize;
+    public ThreadedSnowflake(@NotNull final ISnowflakeConfig config, final long machineId, final int poolSize) {
+        this(config, machineId, poolSize, SnowflakeOptions.DEFAULT);
+    }
 
     /**
-     * Per-thread starting index into the pool.
+     * Constructs a new {@code ThreadedSnowFlake} with the provided configuration.
+     * The configured timestamp offset is applied to the start timestamp.
+     * The {@link SnowflakeOptions#DEFAULT default options} are used with the given clock.
+     *
+     * @param config    configuration specifying machine and sequence bits,
+     *                  timestamp start and offset (must not be null)
+     * @param machineId base machine identifier for the first slot;
+     *                  slot {@code i} uses {@code machineId + i}
+     * @param poolSize  number of slots (positive)
+     * @param clock     source of the current time (must not be null)
+     * @throws IllegalStateException    if configuration bit sizes are invalid
+     * @throws IllegalArgumentException if {@code poolSize} is not positive or
+     *                                  any of the slot machine identifiers is out of range
      */
-    ThreadLocal<Integer> threadIdx;
+    public ThreadedSnowflake(@NotNull final ISnowflakeConfig config, final long machineId, final int poolSize,
+                             @NotNull final IClock clock) {
+        this(config, machineId, poolSize, SnowflakeOptions.DEFAULT.withClock(clock));
+    }
 
     /**
      * Constructs a new {@code ThreadedSnowFlake} with the provided configuration.
+     * The configured timestamp offset is applied to the start timestamp.
+     * Each slot switching machine identifiers takes its own spare from the regression policy.
+     *
+     * @param config    configuration specifying machine and sequence bits,
+     *                  timestamp start and offset (must not be null)
+     * @param machineId base machine identifier for the first slot;
+     *                  slot {@code i} uses {@code machineId + i}
+     * @param poolSize  number of slots (positive)
+     * @param options   clock, regression policy, checkpoint and metrics (must not be null)
+     * @throws IllegalStateException    if configuration bit sizes are invalid
+     * @throws IllegalArgumentException if {@code poolSize} is not positive or
+     *                                  any of the slot or spare machine identifiers is out of range
+     */
+    public ThreadedSnowflake(@NotNull final ISnowflakeConfig config, final long machineId, final int poolSize,
+                             @NotNull final SnowflakeOptions options) {
+        this(config, machineId, poolSize, false, 0, options);
+    }
+
+    /**
+     * Constructs a new adaptive {@code ThreadedSnowFlake} with the provided configuration.
+     * The configured timestamp offset is applied to the start timestamp.
+     * The pool starts with the first machine identifier of the range and grows under contention,
+     * up to one slot per identifier of the range.
+     * Each slot switching machine identifiers takes its own spare from the regression policy.
+     *
+     * @param config         configuration specifying machine and sequence bits,
+     *                       timestamp start and offset (must not be null)
+     * @param firstMachineId first machine identifier of the range
+     * @param lastMachineId  last machine identifier of the range, inclusive
+     * @param idleMillis     length of the periods after which unused slots are retired (positive)
+     * @param options        clock, regression policy, checkpoint and metrics (must not be null)
+     * @throws IllegalStateException    if configuration bit sizes are invalid
+     * @throws IllegalArgumentException if the range is empty, larger than a pool can hold or out of range,
+     *                                  if {@code idleMillis} is not positive or
+     *                                  if any of the spare machine identifiers is out of range
+     */
+    public ThreadedSnowflake(@NotNull final ISnowflakeConfig config, final long firstMachineId, final long lastMachineId,
+                             final long idleMillis, @NotNull final SnowflakeOptions options) {
+        this(config, firstMachineId, rangeSize(firstMachineId, lastMachineId), true, idleMillis, options);
+    }
+
+    private ThreadedSnowflake(final ISnowflakeConfig config, final long machineId, final int poolSize,
+                              final boolean adaptive, final long idleMillis, final SnowflakeOptions options) {
+        super(new SnowflakeLayout(config, options));
+
+        if (poolSize <= 0) {
+            throw new IllegalArgumentException(Constants.EX_ILLEGAL_POOL_SIZE);
+        }
+        if (machineId < 0) {
+            throw new IllegalArgumentException(Constants.EX_ILLEGAL_MACHINE_NUM_NEGATIVE);
+        }
+        if (machineId > this.layout.maxMachineNum - (poolSize - 1)) {
+            throw new IllegalArgumentException(Constants.EX_ILLEGAL_MACHINE_NUM_BIGGER);
+        }
+        if (adaptive && idleMillis <= 0) {
+            throw new IllegalArgumentException(Constants.EX_ILLEGAL_IDLE_MILLIS);
+        }
+        this.firstMachineId = machineId;
+        this.adaptive = adaptive;
+        this.idleTicks = adaptive ? Math.max(1, this.layout.ticks.toTicks(idleMillis)) : 0;
+
+        this.pool = new Slot[poolSize];
+        this.poolSize = adaptive ? 1 : poolSize;
+        for (int i = 0; i < this.poolSize; i++) {
+            this.pool[i] = this.newSlot(i);
+        }
+        this.probe = ThreadLocal.withInitial(() -> new Probe(ThreadLocalRandom.current().nextInt() | 1));
+    }
+
+    /**
+     * Returns the number of machine identifiers in a range.
      *
-     * @param config    configuration for each pooled instance (must not be null)
-     * @param machineId base machine identifier for the first pooled instance
-     * @param poolSize  number of pooled instances (positive)
+     * @throws IllegalArgumentException if the range is empty or larger than a pool can hold
      */
-    public ThreadedSnowflake(final ISnowflakeConfig config, final long machineId, final int poolSize) {
-        this.poolSize = poolSize;
-        this.pool = new SnowFlakeContainer[poolSize];
-        for (int i = 0; i < poolSize; i++) {
-            this.pool[i] = new SnowFlakeContainer(new Snowflake(config, machineId + i));
+    private static int rangeSize(final long firstMachineId, final long lastMachineId) {
+        if (firstMachineId < 0) {
+            throw new IllegalArgumentException(Constants.EX_ILLEGAL_MACHINE_NUM_NEGATIVE);
         }
-        this.threadIdx = ThreadLocal.withInitial(() -> ThreadLocalRandom.current().nextInt(poolSize));
+        if (lastMachineId < firstMachineId || lastMachineId - firstMachineId >= Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException(Constants.EX_ILLEGAL_MACHINE_RANGE);
+        }
+        return (int) (lastMachineId - firstMachineId + 1);
+    }
+
+    /**
+     * Returns the number of slots threads are currently spread over.
+     *
+     * @return current pool size, always the maximum for a fixed pool
+     */
+    public int getPoolSize() {
+        return this.poolSize;
+    }
+
+    /**
+     * Returns the number of slots the pool can hold.
+     *
+     * @return pool size of a fixed pool, the size of the machine identifier range of an adaptive pool
+     */
+    public int getMaxPoolSize() {
+        return this.pool.length;
+    }
+
+    /**
+     * Returns the number of times a thread found the slot it was assigned to held by another thread.
+     *
+     * @return number of contended slot acquisitions
+     */
+    public long getContentions() {
+        return this.contentions.sum();
     }
 
     /**
-     * Returns the next 64-bit identifier by delegating to a pooled generator.
+     * Reserves a block of consecutive identifiers from the slot of the calling thread.
+     * The slot is released before waiting for the clock.
      *
-     * @return next 64-bit identifier as produced by a pooled generator
+     * @param count number of identifiers to reserve (positive)
+     * @return first reserved identifier
+     * @throws IllegalStateException if the regression policy refuses to run further ahead of the clock
      */
     @Override
-    public long nextId() {
-        int i = this.threadIdx.get();
+    long advance(final int count) {
+        final SnowflakeLayout layout = this.layout;
+        long now = layout.ticks.now(layout.clock);
+        if (this.adaptive && now >= this.nextIdleCheck) {
+            this.checkIdle(now);
+        }
+
         while (true) {
-            final SnowFlakeContainer container = this.pool[i];
+            final long prev, first, last;
+            final Slot slot = this.acquire();
+            try {
+                prev = layout.follow(slot.state, now, count);
+                first = layout.next(prev, now);
+                last = layout.skip(first, count);
+                if (layout.excess(last, now) <= 0) {
+                    slot.state = last;
+                }
+            } finally {
+                LOCK.lazySet(slot, 0);
+            }
+
+            final long excess = layout.excess(last, now);
+            if (excess > 0) {
+                layout.await(prev, excess);
+                now = layout.ticks.now(layout.clock);
+                continue;
+            }
+            return layout.issue(prev, first, last, now, count);
+        }
+    }
+
+    /**
+     * Locks the slot of the calling thread. If that slot is held by another thread,
+     * the calling thread is re-homed to the first free slot its probe hits.
+     * After as many misses as there are slots, the wait strategy is applied.
+     * A thread assigned to a retired slot is re-homed within the pool first.
+     * The caller must release the returned slot.
+     *
+     * @return locked slot
+     */
+    private Slot acquire() {
+        final Probe probe = this.probe.get();
+
+        int size = this.poolSize;
+        if (probe.index >= size) {
+            probe.index = (probe.seed >>> 1) % size;
+        }
+        Slot slot = this.pool[probe.index];
+        if (LOCK.compareAndSet(slot, 0, 1)) {
+            return slot;
+        }
+
+        this.contentions.increment();
+        if (this.adaptive && size < this.pool.length && this.pressure.incrementAndGet() >= GROW_CONTENTIONS) {
+            size = this.grow(size);
+        }
+        int mask = maskOf(size);
+        int h = probe.seed;
+        Object event = null;
+        for (int misses = 1, rounds = 0; ; ) {
+            // Xorshift step, never yields zero for a non-zero seed
+            h ^= h << 13;
+            h ^= h >>> 17;
+            h ^= h << 5;
+
+            int i = h & mask;
+            if (i >= size) {
+                i -= size;
+            }
 
-            if (container.lock.compareAndSet(false, true)) {
-                try {
-                    return container.instance.nextId();
-                } finally {
-                    container.lock.set(false);
+            slot = this.pool[i];
+            if (slot.lock == 0 && LOCK.compareAndSet(slot, 0, 1)) {
+                probe.index = i;
+                probe.seed = h;
+                this.layout.metrics.recordSlotHop();
+                FlightEvents.commitSlotWait(event, this.layout.machineIdOf(slot.state), rounds);
+                return slot;
+            }
+            if (++misses >= size) {
+                misses = 0;
+                if (rounds == 0) {
+                    event = FlightEvents.beginSlotWait();
                 }
+                this.layout.metrics.recordWait();
+                this.layout.waitStrategy.idle(rounds++);
+                size = this.poolSize;
+                mask = maskOf(size);
+            }
+        }
+    }
+
+    /**
+     * Adds the next slot to the pool, unless it was resized since the caller read its size.
+     *
+     * @param seen pool size read by the caller
+     * @return current pool size
+     */
+    private int grow(final int seen) {
+        synchronized (this.pool) {
+            this.pressure.set(0);
+            final int size = this.poolSize;
+            if (size != seen || size == this.pool.length) {
+                return size;
+            }
+            if (this.pool[size] == null) {
+                this.pool[size] = this.newSlot(size);
             }
+            // Publishes the new slot
+            this.poolSize = size + 1;
+            return size + 1;
+        }
+    }
+
+    /**
+     * Retires the last slot if fewer slots than the pool holds issued identifiers during the last idle period.
+     * Slots held at the time of the check count as used.
+     *
+     * @param tick current tick
+     */
+    private void checkIdle(final long tick) {
+        synchronized (this.pool) {
+            if (tick < this.nextIdleCheck) {
+                return;
+            }
+            this.nextIdleCheck = tick + this.idleTicks;
+            this.pressure.set(0);
+
+            final int size = this.poolSize;
+            if (size == 1) {
+                return;
+            }
+            int used = 0;
+            for (int i = 0; i < size; i++) {
+                final Slot slot = this.pool[i];
+                if (!LOCK.compareAndSet(slot, 0, 1)) {
+                    used++;
+                    continue;
+                }
+                if (slot.state >> this.layout.timestampLeft > tick - this.idleTicks) {
+                    used++;
+                }
+                LOCK.lazySet(slot, 0);
+            }
+            if (used < size) {
+                this.poolSize = size - 1;
+            }
+        }
+    }
+
+    private Slot newSlot(final int index) {
+        return new Slot(this.layout.initialState(this.firstMachineId + index));
+    }
+
+    /**
+     * Returns the mask of the smallest power of two not less than the pool size.
+     */
+    private static int maskOf(final int size) {
+        return size == 1 ? 0 : -1 >>> Integer.numberOfLeadingZeros(size - 1);
+    }
+
+    /**
+     * Slot assignment of a single thread.
+     */
+    private static final class Probe {
+        int seed;
+        int index;
+
+        Probe(final int seed) {
+            this.seed = seed;
+            // Assigned on first use, within the pool size of that time
+            this.index = Integer.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Padding in front of the slot fields.
+     */
+    @SuppressWarnings("unused")
+    private abstract static class SlotPadding {
+        long p00, p01, p02, p03, p04, p05, p06, p07;
+    }
+
+    /**
+     * Fields of a slot. Declared in a separate class so the JVM keeps them between both paddings.
+     */
+    private abstract static class SlotFields extends SlotPadding {
+        /**
+         * {@code 1} while a thread holds the slot.
+         */
+        volatile int lock;
+
+        /**
+         * Last issued identifier. Guarded by {@link #lock}.
+         */
+        long state;
 
-            i = (i + 1) % this.poolSize;
+        SlotFields(final long state) {
+            this.state = state;
         }
     }
 
     /**
-     * Pool entry that holds a pooled {@code SnowFlake} and a lock.
+     * Pool entry holding the state of one machine identifier on its own cache line.
      */
-    private static class SnowFlakeContainer {
-        final Snowflake instance;
-        final AtomicBoolean lock = new AtomicBoolean(false);
+    @SuppressWarnings("unused")
+    private static final class Slot extends SlotFields {
+        long p10, p11, p12, p13, p14, p15, p16, p17;
 
-        SnowFlakeContainer(final Snowflake instance) {
-            this.instance = instance;
+        Slot(final long state) {
+            super(state);
         }
     }
 }
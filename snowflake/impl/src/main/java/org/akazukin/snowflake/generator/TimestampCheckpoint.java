@@ -0,0 +1,157 @@
+package org.akazukin.snowflake.generator;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import org.akazukin.annotation.marker.ThreadSafe;
+import org.akazukin.snowflake.Constants;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * High-water mark of the timestamps issued by the generators, persisted across restarts.
+ * <p>
+ * A generator never issues an identifier at or above the mark. When it is about to, it moves the mark
+ * {@link #getWindowMillis() a window} ahead first, so the file is written once per window rather than
+ * once per identifier, and the identifiers issued within the window only compare their timestamp against it.
+ * <p>
+ * A generator created with a checkpoint resumes at the current mark, so identifiers issued before a crash
+ * are not issued again even if the clock is now behind. It may therefore start up to a window ahead of
+ * the clock; the {@link ClockRegressionPolicy} decides how it runs ahead until the clock has caught up.
+ * <p>
+ * The mark is kept in a memory-mapped file and forced to the storage device on every write. A checkpoint
+ * may be shared by several generators of one process, but a file must not be used by several processes.
+ *
+ * @see SnowflakeOptions#withCheckpoint(TimestampCheckpoint)
+ */
+@ThreadSafe
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public final class TimestampCheckpoint implements AutoCloseable {
+    private static final TimestampCheckpoint NONE = new TimestampCheckpoint(null, null, 0, Long.MAX_VALUE);
+
+    FileChannel channel;
+    MappedByteBuffer map;
+
+    /**
+     * How far ahead of the issued timestamps the mark is moved, in milliseconds.
+     */
+    @Getter
+    long windowMillis;
+
+    /**
+     * Current mark, as absolute milliseconds.
+     */
+    @NonFinal
+    volatile long mark;
+
+    /**
+     * Statistics
+     */
+    LongAdder writes = new LongAdder();
+
+    private TimestampCheckpoint(final FileChannel channel, final MappedByteBuffer map,
+                                final long windowMillis, final long mark) {
+        this.channel = channel;
+        this.map = map;
+        this.windowMillis = windowMillis;
+        this.mark = mark;
+    }
+
+    /**
+     * Returns a checkpoint that persists nothing.
+     * This is the behavior of the generators when no checkpoint is specified.
+     *
+     * @return shared instance
+     */
+    public static TimestampCheckpoint none() {
+        return NONE;
+    }
+
+    /**
+     * Opens or creates a checkpoint file and reads the recorded mark.
+     *
+     * @param file         file holding the mark
+     * @param windowMillis how far ahead the mark is moved on each write (positive)
+     * @return new checkpoint
+     * @throws IOException              if the file cannot be opened or mapped
+     * @throws IllegalArgumentException if {@code windowMillis} is not positive
+     */
+    public static TimestampCheckpoint mapped(@NotNull final Path file, final long windowMillis) throws IOException {
+        if (windowMillis <= 0) {
+            throw new IllegalArgumentException(Constants.EX_ILLEGAL_WINDOW_MILLIS);
+        }
+
+        final FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            // Mapping extends a new file with zeros
+            final MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_WRITE, 0, Long.BYTES);
+            return new TimestampCheckpoint(channel, map, windowMillis, map.getLong(0));
+        } catch (final IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the current mark, at which a new generator resumes. No identifier has been issued at or above it.
+     *
+     * @return mark in milliseconds since the Unix epoch, {@code 0} if nothing was recorded
+     */
+    public long getMark() {
+        return this.mark == Long.MAX_VALUE ? 0 : this.mark;
+    }
+
+    /**
+     * Returns the number of times the mark was written to the file.
+     *
+     * @return number of writes
+     */
+    public long getWrites() {
+        return this.writes.sum();
+    }
+
+    /**
+     * Closes the file. The generators using this checkpoint must not be used afterwards.
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        if (this.channel != null) {
+            this.channel.close();
+        }
+    }
+
+    /**
+     * Makes sure the mark lies above an issued timestamp, moving and persisting it if necessary.
+     * Must be called before the identifier is handed out.
+     *
+     * @param timestamp largest timestamp about to be issued, in milliseconds since the Unix epoch
+     */
+    void reserve(final long timestamp) {
+        if (timestamp < this.mark) {
+            return;
+        }
+        this.extend(timestamp);
+    }
+
+    private synchronized void extend(final long timestamp) {
+        if (timestamp < this.mark) {
+            return;
+        }
+
+        final long next = timestamp + 1 + this.windowMillis;
+        this.map.putLong(0, next);
+        this.map.force();
+        this.mark = next;
+        this.writes.increment();
+    }
+}
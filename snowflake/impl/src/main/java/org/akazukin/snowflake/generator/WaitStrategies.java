@@ -0,0 +1,103 @@
+package org.akazukin.snowflake.generator;
+
+import lombok.experimental.UtilityClass;
+import org.akazukin.snowflake.Constants;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Factory of the {@link IWaitStrategy wait strategies} shipped with the library.
+ */
+@UtilityClass
+public class WaitStrategies {
+    /**
+     * Longest single park of the default strategies.
+     */
+    private final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final IWaitStrategy SPINNING = attempt -> ThreadSupport.onSpinWait();
+    private final IWaitStrategy YIELDING = attempt -> Thread.yield();
+    private final IWaitStrategy PLATFORM = backoff(64, 8, MAX_PARK_NANOS);
+    private final IWaitStrategy VIRTUAL = backoff(0, 8, MAX_PARK_NANOS);
+    private final IWaitStrategy ADAPTIVE = attempt ->
+            (ThreadSupport.isVirtual(Thread.currentThread()) ? VIRTUAL : PLATFORM).idle(attempt);
+
+    /**
+     * Returns a strategy that busy-spins. Lowest latency, but occupies the processor
+     * (or the carrier of a virtual thread) for as long as the contention lasts.
+     *
+     * @return spinning strategy
+     */
+    public IWaitStrategy spinning() {
+        return SPINNING;
+    }
+
+    /**
+     * Returns a strategy that yields the processor on every attempt.
+     * A virtual thread unmounts from its carrier when yielding.
+     *
+     * @return yielding strategy
+     */
+    public IWaitStrategy yielding() {
+        return YIELDING;
+    }
+
+    /**
+     * Returns a strategy that parks for a fixed time on every attempt.
+     *
+     * @param parkNanos time to park in nanoseconds (positive)
+     * @return parking strategy
+     * @throws IllegalArgumentException if {@code parkNanos} is not positive
+     */
+    public IWaitStrategy parking(final long parkNanos) {
+        if (parkNanos <= 0) {
+            throw new IllegalArgumentException(Constants.EX_ILLEGAL_PARK_NANOS);
+        }
+        return attempt -> LockSupport.parkNanos(parkNanos);
+    }
+
+    /**
+     * Returns a strategy that spins for the first {@code spins} attempts, yields for the next {@code yields}
+     * attempts and parks afterward, doubling the park time on every attempt up to {@code maxParkNanos}.
+     *
+     * @param spins        number of attempts to spin (non-negative)
+     * @param yields       number of attempts to yield (non-negative)
+     * @param maxParkNanos longest time to park in nanoseconds (positive)
+     * @return backoff strategy
+     * @throws IllegalArgumentException if a count is negative or {@code maxParkNanos} is not positive
+     */
+    public IWaitStrategy backoff(final int spins, final int yields, final long maxParkNanos) {
+        if (spins < 0 || yields < 0) {
+            throw new IllegalArgumentException(Constants.EX_ILLEGAL_COUNT_NEGATIVE);
+        }
+        if (maxParkNanos <= 0) {
+            throw new IllegalArgumentException(Constants.EX_ILLEGAL_PARK_NANOS);
+        }
+
+        final int parkFrom = spins + yields;
+        // Doubling step from which a microsecond shifted left reaches the longest park, without overflowing
+        final int maxStep = 64 - Long.numberOfLeadingZeros((maxParkNanos - 1) / 1_000L);
+        return attempt -> {
+            if (attempt < spins) {
+                ThreadSupport.onSpinWait();
+            } else if (attempt < parkFrom) {
+                Thread.yield();
+            } else {
+                final int step = Math.min(attempt - parkFrom, maxStep);
+                LockSupport.parkNanos(Math.min(1_000L << step, maxParkNanos));
+            }
+        };
+    }
+
+    /**
+     * Returns the default strategy. Platform threads spin briefly, then yield, then park with
+     * an exponential backoff of at most a millisecond. Virtual threads never spin: they yield, which
+     * unmounts them from their carrier, and then park.
+     *
+     * @return adaptive strategy
+     */
+    public IWaitStrategy adaptive() {
+        return ADAPTIVE;
+    }
+}
@@ -0,0 +1,343 @@
+package org.akazukin.snowflake.machine;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import org.akazukin.annotation.marker.ThreadSafe;
+import org.akazukin.snowflake.Constants;
+import org.akazukin.snowflake.clock.IClock;
+import org.akazukin.snowflake.clock.SystemClock;
+import org.akazukin.snowflake.config.ISnowflakeConfig;
+import org.akazukin.snowflake.config.SnowflakeConfigUtils;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Leases machine IDs to the processes of a host through a shared, memory-mapped lease file.
+ * <p>
+ * The file holds one slot per machine ID of the configuration, recording the owner of the ID and the time
+ * its lease expires. Slots are claimed and released under a {@link FileLock}, so any number of processes
+ * can share a file without a coordinator. A daemon thread renews the leases of this allocator every third
+ * of the time-to-live; the leases of a process that died expire and are reclaimed by the next acquisition.
+ * <p>
+ * A lease covers a range of consecutive machine IDs, which is passed to the generators:
+ * <pre>{@code
+ * FileMachineIdAllocator allocator = new FileMachineIdAllocator(path, config, 10_000);
+ * MachineIdLease lease = allocator.acquire(poolSize);
+ * ISnowflake gen = new ThreadedSnowflake(config, lease.getMachineId(), lease.getCount());
+ * }</pre>
+ * A lease that was not renewed in time may be taken over by another process; {@link MachineIdLease#isValid()}
+ * turns {@code false} a tenth of the time-to-live before the recorded expiry, and a new lease must be acquired.
+ * Once a lease turned invalid it is dropped and never renewed again.
+ */
+@ThreadSafe
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public final class FileMachineIdAllocator implements AutoCloseable {
+    private static final long MAGIC = 0x534E4F574D494431L; // "SNOWMID1"
+    private static final int HEADER_BYTES = 16;
+    private static final int SLOT_BYTES = 16;
+
+    /**
+     * Serializes the file locks of this JVM, as a JVM may hold only one lock on a file.
+     */
+    private static final Object JVM_LOCK = new Object();
+
+    FileChannel channel;
+    MappedByteBuffer map;
+
+    /**
+     * The number of slots, one per machine ID.
+     */
+    @Getter
+    int slotCount;
+
+    @Getter
+    long ttlMillis;
+
+    /**
+     * Time before the recorded expiry at which a lease stops being valid, covering the skew between the
+     * clocks of the processes and the time between checking a lease and using its machine IDs.
+     */
+    long marginMillis;
+
+    IClock clock;
+
+    /**
+     * Owner token identifying this allocator in the file.
+     */
+    long token;
+
+    List<MachineIdLease> leases = new ArrayList<>();
+
+    Thread heartbeat;
+
+    @NonFinal
+    volatile boolean running = true;
+
+    /**
+     * Opens or creates the lease file and starts the heartbeat thread.
+     *
+     * @param file      lease file shared by the processes of the host
+     * @param config    configuration of the generators, whose machine ID bits determine the number of slots
+     * @param ttlMillis time after which a lease that was not renewed expires (positive)
+     * @throws IOException              if the file cannot be opened or mapped
+     * @throws IllegalArgumentException if {@code ttlMillis} is not positive
+     * @throws IllegalStateException    if the file was created for a different number of machine IDs
+     */
+    public FileMachineIdAllocator(@NotNull final Path file, @NotNull final ISnowflakeConfig config,
+                                  final long ttlMillis) throws IOException {
+        this(file, config, ttlMillis, SystemClock.INSTANCE);
+    }
+
+    /**
+     * Opens or creates the lease file and starts the heartbeat thread.
+     *
+     * @param file      lease file shared by the processes of the host
+     * @param config    configuration of the generators, whose machine ID bits determine the number of slots
+     * @param ttlMillis time after which a lease that was not renewed expires (positive)
+     * @param clock     clock the expiry times are based on; must agree between the processes (must not be null)
+     * @throws IOException              if the file cannot be opened or mapped
+     * @throws IllegalArgumentException if {@code ttlMillis} is not positive
+     * @throws IllegalStateException    if the file was created for a different number of machine IDs
+     */
+    public FileMachineIdAllocator(@NotNull final Path file, @NotNull final ISnowflakeConfig config,
+                                  final long ttlMillis, @NotNull final IClock clock) throws IOException {
+        // Validate the configuration
+        SnowflakeConfigUtils.validate(config);
+        if (ttlMillis <= 0) {
+            throw new IllegalArgumentException(Constants.EX_ILLEGAL_TTL);
+        }
+
+        this.slotCount = 1 << config.getMachineIdBits();
+        this.ttlMillis = ttlMillis;
+        this.marginMillis = ttlMillis / 10;
+        this.clock = clock;
+
+        long token;
+        do {
+            token = ThreadLocalRandom.current().nextLong();
+        } while (token == 0);
+        this.token = token;
+
+        this.channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            synchronized (JVM_LOCK) {
+                final FileLock lock = this.channel.lock();
+                try {
+                    // Mapping extends a new file with zeros
+                    this.map = this.channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                            HEADER_BYTES + (long) this.slotCount * SLOT_BYTES);
+                    if (this.map.getLong(0) == 0) {
+                        this.map.putInt(8, this.slotCount);
+                        this.map.putLong(0, MAGIC);
+                    } else if (this.map.getLong(0) != MAGIC || this.map.getInt(8) != this.slotCount) {
+                        throw new IllegalStateException(Constants.EX_INCOMPATIBLE_LEASE_FILE);
+                    }
+                } finally {
+                    lock.release();
+                }
+            }
+        } catch (final IOException | RuntimeException e) {
+            this.channel.close();
+            throw e;
+        }
+
+        this.heartbeat = new Thread(this::heartbeat, "Snowflake-FileMachineIdAllocator");
+        this.heartbeat.setDaemon(true);
+        this.heartbeat.start();
+    }
+
+    /**
+     * Leases a single machine ID.
+     *
+     * @return the lease
+     * @throws IOException           if the file cannot be locked
+     * @throws IllegalStateException if every machine ID is leased, or the allocator is closed
+     */
+    public MachineIdLease acquire() throws IOException {
+        return this.acquire(1);
+    }
+
+    /**
+     * Leases {@code count} consecutive machine IDs, reclaiming expired leases.
+     *
+     * @param count number of machine IDs (positive)
+     * @return the lease
+     * @throws IOException              if the file cannot be locked
+     * @throws IllegalArgumentException if {@code count} is not positive
+     * @throws IllegalStateException    if no free range is large enough, or the allocator is closed
+     */
+    public synchronized MachineIdLease acquire(final int count) throws IOException {
+        if (count <= 0) {
+            throw new IllegalArgumentException(Constants.EX_ILLEGAL_POOL_SIZE);
+        }
+        this.checkOpen();
+
+        synchronized (JVM_LOCK) {
+            final FileLock lock = this.channel.lock();
+            try {
+                final long now = this.clock.currentTimeMillis();
+                int run = 0;
+                for (int slot = 0; slot < this.slotCount; slot++) {
+                    final int pos = HEADER_BYTES + slot * SLOT_BYTES;
+                    if (this.map.getLong(pos) != 0 && this.map.getLong(pos + 8) > now) {
+                        run = 0;
+                        continue;
+                    }
+                    if (++run < count) {
+                        continue;
+                    }
+
+                    final int first = slot - count + 1;
+                    final long expiry = now + this.ttlMillis;
+                    for (int i = first; i <= slot; i++) {
+                        this.map.putLong(HEADER_BYTES + i * SLOT_BYTES + 8, expiry);
+                        this.map.putLong(HEADER_BYTES + i * SLOT_BYTES, this.token);
+                    }
+                    final MachineIdLease lease = new MachineIdLease(this, first, count,
+                            this.clock, expiry - this.marginMillis);
+                    this.leases.add(lease);
+                    return lease;
+                }
+            } finally {
+                lock.release();
+            }
+        }
+        throw new IllegalStateException(Constants.EX_NO_FREE_MACHINE_ID);
+    }
+
+    /**
+     * Extends the expiry of every lease of this allocator. This is done by the heartbeat thread;
+     * leases that expired or were taken over by another process are invalidated.
+     *
+     * @throws IOException if the file cannot be locked
+     */
+    public synchronized void renew() throws IOException {
+        if (this.leases.isEmpty() || !this.running) {
+            return;
+        }
+
+        synchronized (JVM_LOCK) {
+            final FileLock lock = this.channel.lock();
+            try {
+                final long expiry = this.clock.currentTimeMillis() + this.ttlMillis;
+                for (int i = this.leases.size() - 1; i >= 0; i--) {
+                    final MachineIdLease lease = this.leases.get(i);
+                    if (!lease.isValid() || !this.owns(lease)) {
+                        // Frees the rest of the range, as the lease as a whole is lost
+                        lease.invalidate();
+                        this.leases.remove(i);
+                        this.clear(lease);
+                        continue;
+                    }
+                    for (int slot = lease.getMachineId(); slot < lease.getMachineId() + lease.getCount(); slot++) {
+                        this.map.putLong(HEADER_BYTES + slot * SLOT_BYTES + 8, expiry);
+                    }
+                    lease.extend(expiry - this.marginMillis);
+                }
+            } finally {
+                lock.release();
+            }
+        }
+    }
+
+    /**
+     * Releases every lease and stops the heartbeat thread.
+     *
+     * @throws IOException if the file cannot be locked or closed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (!this.running) {
+            return;
+        }
+        try {
+            for (int i = this.leases.size() - 1; i >= 0; i--) {
+                this.release(this.leases.get(i));
+            }
+        } finally {
+            this.running = false;
+            LockSupport.unpark(this.heartbeat);
+            this.channel.close();
+        }
+    }
+
+    synchronized void release(final MachineIdLease lease) throws IOException {
+        if (!this.leases.remove(lease)) {
+            return;
+        }
+        lease.invalidate();
+
+        synchronized (JVM_LOCK) {
+            final FileLock lock = this.channel.lock();
+            try {
+                this.clear(lease);
+            } finally {
+                lock.release();
+            }
+        }
+    }
+
+    private void clear(final MachineIdLease lease) {
+        for (int slot = lease.getMachineId(); slot < lease.getMachineId() + lease.getCount(); slot++) {
+            final int pos = HEADER_BYTES + slot * SLOT_BYTES;
+            if (this.map.getLong(pos) == this.token) {
+                this.map.putLong(pos, 0);
+            }
+        }
+    }
+
+    /**
+     * Drops the leases that expired, without touching the file. Their slots stay expired there.
+     */
+    private synchronized void expire() {
+        for (int i = this.leases.size() - 1; i >= 0; i--) {
+            final MachineIdLease lease = this.leases.get(i);
+            if (!lease.isValid()) {
+                lease.invalidate();
+                this.leases.remove(i);
+            }
+        }
+    }
+
+    private boolean owns(final MachineIdLease lease) {
+        for (int slot = lease.getMachineId(); slot < lease.getMachineId() + lease.getCount(); slot++) {
+            if (this.map.getLong(HEADER_BYTES + slot * SLOT_BYTES) != this.token) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void checkOpen() {
+        if (!this.running) {
+            throw new IllegalStateException(Constants.EX_ALLOCATOR_CLOSED);
+        }
+    }
+
+    private void heartbeat() {
+        final long interval = TimeUnit.MILLISECONDS.toNanos(Math.max(1, this.ttlMillis / 3));
+        while (this.running) {
+            LockSupport.parkNanos(this, interval);
+            try {
+                this.renew();
+            } catch (final IOException | RuntimeException e) {
+                // Retried on the next beat; the leases that expire meanwhile are lost
+                this.expire();
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package org.akazukin.snowflake.machine;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import org.akazukin.annotation.marker.ThreadSafe;
+import org.akazukin.snowflake.clock.IClock;
+
+import java.io.IOException;
+
+/**
+ * A range of consecutive machine IDs leased from a {@link FileMachineIdAllocator}.
+ * <p>
+ * The lease is renewed by its allocator until it is closed. The first machine ID and the count
+ * match the {@code machineId} and {@code poolSize} parameters of the generator constructors.
+ * <p>
+ * The lease ends a safety margin before the expiry recorded in the lease file, so it is no longer
+ * valid by the time another process may take its machine IDs over, even if it was not renewed.
+ */
+@ThreadSafe
+@Getter
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public final class MachineIdLease implements AutoCloseable {
+    @Getter(AccessLevel.NONE)
+    FileMachineIdAllocator allocator;
+
+    /**
+     * The first leased machine ID.
+     */
+    int machineId;
+
+    /**
+     * The number of leased machine IDs.
+     */
+    int count;
+
+    @Getter(AccessLevel.NONE)
+    IClock clock;
+
+    @Getter(AccessLevel.NONE)
+    @NonFinal
+    volatile boolean valid = true;
+
+    /**
+     * The time from which the machine IDs must no longer be used, unless the lease is renewed.
+     */
+    @Getter(AccessLevel.NONE)
+    @NonFinal
+    volatile long validUntil;
+
+    MachineIdLease(final FileMachineIdAllocator allocator, final int machineId, final int count,
+                   final IClock clock, final long validUntil) {
+        this.allocator = allocator;
+        this.machineId = machineId;
+        this.count = count;
+        this.clock = clock;
+        this.validUntil = validUntil;
+    }
+
+    /**
+     * Returns whether this lease is held. It is not once it was closed, once it was not renewed
+     * before its expiry, or once another process took its machine IDs over.
+     *
+     * @return {@code true} if the machine IDs may be used
+     */
+    public boolean isValid() {
+        return this.valid && this.clock.currentTimeMillis() < this.validUntil;
+    }
+
+    /**
+     * Releases the machine IDs.
+     *
+     * @throws IOException if the lease file cannot be locked
+     */
+    @Override
+    public void close() throws IOException {
+        this.allocator.release(this);
+    }
+
+    void invalidate() {
+        this.valid = false;
+    }
+
+    void extend(final long validUntil) {
+        this.validUntil = validUntil;
+    }
+}
@@ -0,0 +1,10 @@
+/**
+ * This package assigns machine IDs to the processes generating Snowflake IDs.
+ *
+ * <p>
+ * {@link org.akazukin.snowflake.machine.FileMachineIdAllocator} leases ranges of machine IDs
+ * through a lease file shared by the processes of a host, so that generators started side by side
+ * never use the same machine ID, and the IDs of processes that died are reused.
+ * </p>
+ */
+package org.akazukin.snowflake.machine;
@@ -0,0 +1,32 @@
+package org.akazukin.snowflake.parser;
+
+/**
+ * Loops decoding SnowFlake IDs into columns for {@link SnowflakeParser}.
+ * Every column is decoded in its own pass so the JIT compiler can vectorize each loop.
+ * <p>
+ * This is the scalar variant; the multi-release JAR ships a Java 21 overlay using the Vector API.
+ */
+final class ParserKernel {
+    private ParserKernel() {
+    }
+
+    static void decode(final long[] ids, final int off, final int len,
+                       final long[] timestamps, final long[] machineIds, final long[] sequences, final int dstOff,
+                       final int machineLeft, final int timestampLeft, final long machineMask, final long sequenceMask) {
+        if (timestamps != null) {
+            for (int i = 0; i < len; i++) {
+                timestamps[dstOff + i] = ids[off + i] >>> timestampLeft;
+            }
+        }
+        if (machineIds != null) {
+            for (int i = 0; i < len; i++) {
+                machineIds[dstOff + i] = ids[off + i] >>> machineLeft & machineMask;
+            }
+        }
+        if (sequences != null) {
+            for (int i = 0; i < len; i++) {
+                sequences[dstOff + i] = ids[off + i] & sequenceMask;
+            }
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package org.akazukin.snowflake.parser;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.akazukin.annotation.marker.ThreadSafe;
+import org.akazukin.snowflake.Constants;
+import org.akazukin.snowflake.config.ISnowflakeConfig;
+import org.akazukin.snowflake.config.SnowflakeConfigUtils;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * This class compresses blocks of Snowflake IDs into a {@link ByteBuffer} and decompresses them back.
+ * <p>
+ * Each ID is split along the configured layout into its timestamp and its low part (machine ID and sequence).
+ * The first ID of a block is stored as is and serves as the frame of reference. The timestamps of the
+ * following IDs are stored as zigzag varint deltas to their predecessor, which for the IDs of one generator
+ * are mostly {@code 0} or {@code 1} and take a single byte. Their low parts are stored relative to the
+ * smallest low part of the block, bit-packed with the width of the largest one.
+ * <p>
+ * A block is laid out as:
+ * <pre>
+ * varint   count
+ * long     first ID                        (if count &gt; 0, in the byte order of the buffer)
+ * varint   smallest low part               (if count &gt; 1)
+ * byte     bit width of the low parts      (if count &gt; 1)
+ * varint   zigzag timestamp delta          (count - 1 times)
+ * bits     low part - smallest low part    (count - 1 times, padded to a byte)
+ * </pre>
+ * Blocks are read and written in place at the position of the buffer, so heap, direct and memory-mapped
+ * buffers are processed without copying. Blocks can be written back to back to form a stream.
+ * Any sequence of IDs can be encoded; sorted sequences compress best.
+ */
+@ThreadSafe
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public final class SnowflakeBlockCodec {
+    /**
+     * The number of bits of the low part, and its mask
+     */
+    int timestampLeft;
+    long lowMask;
+
+    /**
+     * Constructs a new instance of the SnowflakeBlockCodec with the specified configuration.
+     *
+     * @param cfg The configuration for the SnowFlake ID generator, specifying machine ID
+     *            bits, sequence bits, and the start timestamp.
+     * @throws IllegalStateException If the sum of machine ID bits and sequence bits exceeds 22 bits,
+     *                               or if either machine ID bits or sequence bits are negative.
+     */
+    public SnowflakeBlockCodec(final ISnowflakeConfig cfg) {
+        // Validate the configuration
+        SnowflakeConfigUtils.validate(cfg);
+
+        this.timestampLeft = cfg.getSequenceBits() + cfg.getMachineIdBits();
+        this.lowMask = ~(-1L << this.timestampLeft);
+    }
+
+    /**
+     * Returns an upper bound of the size of a block of the given number of IDs.
+     *
+     * @param count The number of IDs.
+     * @return The maximum size in bytes.
+     */
+    public int maxEncodedSize(final int count) {
+        if (count <= 0) {
+            return 1;
+        }
+        final long rest = count - 1L;
+        return (int) Math.min(Integer.MAX_VALUE,
+                5 + 8 + 4 + 1 + rest * 10 + (rest * this.timestampLeft + 7) / 8);
+    }
+
+    /**
+     * Returns the size of the block the given IDs are encoded into.
+     *
+     * @param ids The IDs.
+     * @param off The index of the first ID.
+     * @param len The number of IDs.
+     * @return The size in bytes.
+     * @throws IndexOutOfBoundsException If the range is outside the bounds of {@code ids}.
+     */
+    public int encodedSize(final long[] ids, final int off, final int len) {
+        checkRange(off, len, ids.length);
+        if (len <= 1) {
+            return varintSize(len) + len * Long.BYTES;
+        }
+
+        final long minLow = this.minLow(ids, off, len);
+        final int width = this.width(ids, off, len, minLow);
+        long size = varintSize(len) + Long.BYTES + varintSize(minLow) + 1;
+        long prev = ids[off] >>> this.timestampLeft;
+        for (int i = 1; i < len; i++) {
+            final long timestamp = ids[off + i] >>> this.timestampLeft;
+            size += varintSize(zigzag(timestamp - prev));
+            prev = timestamp;
+        }
+        return (int) (size + ((len - 1L) * width + 7) / 8);
+    }
+
+    /**
+     * Encodes the given IDs as one block at the position of a buffer and advances the position.
+     * Nothing is written if the block does not fit.
+     *
+     * @param ids The IDs.
+     * @param off The index of the first ID.
+     * @param len The number of IDs.
+     * @param dst The destination buffer.
+     * @return The number of bytes written.
+     * @throws IndexOutOfBoundsException If the range is outside the bounds of {@code ids}.
+     * @throws BufferOverflowException   If the remaining space of {@code dst} is too small.
+     */
+    public int encode(final long[] ids, final int off, final int len, final ByteBuffer dst) {
+        final int size = this.encodedSize(ids, off, len);
+        if (dst.remaining() < size) {
+            throw new BufferOverflowException();
+        }
+
+        putVarint(dst, len);
+        if (len == 0) {
+            return size;
+        }
+        dst.putLong(ids[off]);
+        if (len == 1) {
+            return size;
+        }
+
+        final long minLow = this.minLow(ids, off, len);
+        final int width = this.width(ids, off, len, minLow);
+        putVarint(dst, minLow);
+        dst.put((byte) width);
+
+        long prev = ids[off] >>> this.timestampLeft;
+        for (int i = 1; i < len; i++) {
+            final long timestamp = ids[off + i] >>> this.timestampLeft;
+            putVarint(dst, zigzag(timestamp - prev));
+            prev = timestamp;
+        }
+
+        long acc = 0;
+        int bits = 0;
+        for (int i = 1; i < len; i++) {
+            acc |= ((ids[off + i] & this.lowMask) - minLow) << bits;
+            bits += width;
+            while (bits >= 8) {
+                dst.put((byte) acc);
+                acc >>>= 8;
+                bits -= 8;
+            }
+        }
+        if (bits > 0) {
+            dst.put((byte) acc);
+        }
+        return size;
+    }
+
+    /**
+     * Returns the number of IDs of the block at the position of a buffer without advancing the position.
+     *
+     * @param src The source buffer.
+     * @return The number of IDs.
+     * @throws java.nio.BufferUnderflowException If the buffer ends within the count.
+     * @throws IllegalArgumentException          If the count is malformed.
+     */
+    public int count(final ByteBuffer src) {
+        final int pos = src.position();
+        try {
+            return this.readCount(src);
+        } finally {
+            src.position(pos);
+        }
+    }
+
+    /**
+     * Decodes the block at the position of a buffer and advances the position past it.
+     *
+     * @param src The source buffer.
+     * @param dst The destination array.
+     * @param off The first index to write.
+     * @return The number of decoded IDs.
+     * @throws IndexOutOfBoundsException        If the IDs do not fit into {@code dst}; the position is left unchanged.
+     * @throws java.nio.BufferUnderflowException If the buffer ends within the block.
+     * @throws IllegalArgumentException          If the block is malformed.
+     */
+    public int decode(final ByteBuffer src, final long[] dst, final int off) {
+        final int pos = src.position();
+        final int len = this.readCount(src);
+        try {
+            checkRange(off, len, dst.length);
+        } catch (final IndexOutOfBoundsException e) {
+            src.position(pos);
+            throw e;
+        }
+        if (len == 0) {
+            return 0;
+        }
+
+        final long first = src.getLong();
+        dst[off] = first;
+        if (len == 1) {
+            return 1;
+        }
+
+        final long minLow = getVarint(src);
+        final int width = src.get();
+        if (width < 0 || width > this.timestampLeft) {
+            throw new IllegalArgumentException(Constants.EX_ILLEGAL_ENCODED_BLOCK);
+        }
+
+        long timestamp = first >>> this.timestampLeft;
+        for (int i = 1; i < len; i++) {
+            timestamp += unzigzag(getVarint(src));
+            dst[off + i] = timestamp << this.timestampLeft;
+        }
+
+        final long mask = ~(-1L << width);
+        long acc = 0;
+        int bits = 0;
+        for (int i = 1; i < len; i++) {
+            while (bits < width) {
+                acc |= (src.get() & 0xFFL) << bits;
+                bits += 8;
+            }
+            dst[off + i] |= (acc & mask) + minLow & this.lowMask;
+            acc >>>= width;
+            bits -= width;
+        }
+        return len;
+    }
+
+    private int readCount(final ByteBuffer src) {
+        final long count = getVarint(src);
+        if (count < 0 || count > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(Constants.EX_ILLEGAL_ENCODED_BLOCK);
+        }
+        return (int) count;
+    }
+
+    private long minLow(final long[] ids, final int off, final int len) {
+        long min = this.lowMask;
+        for (int i = 1; i < len; i++) {
+            min = Math.min(min, ids[off + i] & this.lowMask);
+        }
+        return min;
+    }
+
+    private int width(final long[] ids, final int off, final int len, final long minLow) {
+        long max = 0;
+        for (int i = 1; i < len; i++) {
+            max = Math.max(max, (ids[off + i] & this.lowMask) - minLow);
+        }
+        return 64 - Long.numberOfLeadingZeros(max);
+    }
+
+    private static long zigzag(final long value) {
+        return value << 1 ^ value >> 63;
+    }
+
+    private static long unzigzag(final long value) {
+        return value >>> 1 ^ -(value & 1);
+    }
+
+    private static int varintSize(final long value) {
+        return Math.max(1, (64 - Long.numberOfLeadingZeros(value) + 6) / 7);
+    }
+
+    private static void putVarint(final ByteBuffer dst, final long value) {
+        long v = value;
+        while ((v & ~0x7FL) != 0) {
+            dst.put((byte) (v | 0x80));
+            v >>>= 7;
+        }
+        dst.put((byte) v);
+    }
+
+    private static long getVarint(final ByteBuffer src) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            final byte b = src.get();
+            value |= (b & 0x7FL) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException(Constants.EX_ILLEGAL_ENCODED_BLOCK);
+    }
+
+    private static void checkRange(final int off, final int len, final int length) {
+        if (off < 0 || len < 0 || off > length - len) {
+            throw new IndexOutOfBoundsException("off: " + off + ", len: " + len + ", length: " + length);
+        }
+    }
+}
@@ -0,0 +1,466 @@
+package org.akazukin.snowflake.parser;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import org.akazukin.annotation.marker.ThreadSafe;
+import org.akazukin.snowflake.Constants;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * This class encodes Snowflake IDs into fixed-width text and decodes them back.
+ * <p>
+ * Every ID is encoded into exactly {@link #getLength()} ASCII characters taken from an alphabet
+ * in ascending ASCII order, so the encoded IDs sort lexicographically in the same order as the
+ * IDs compared as unsigned numbers, which for the non-negative IDs of the generators is their numeric order.
+ * Encoding and decoding work directly on the caller's {@code char[]}, {@code byte[]}, {@link ByteBuffer}
+ * or {@link Appendable} and do not allocate.
+ * <ul>
+ *   <li>{@link #CROCKFORD_BASE32} - 13 characters of Crockford's Base32. Decoding is case-insensitive
+ *       and accepts {@code I}, {@code L} and {@code O} as aliases of {@code 1} and {@code 0}.</li>
+ *   <li>{@link #BASE62} - 11 characters of {@code 0-9A-Za-z}.</li>
+ * </ul>
+ */
+@ThreadSafe
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public abstract class SnowflakeCodec {
+    /**
+     * Crockford's Base32, 13 characters per ID.
+     */
+    public static final SnowflakeCodec CROCKFORD_BASE32 = new Base32();
+
+    /**
+     * Base62 over {@code 0-9A-Za-z}, 11 characters per ID.
+     */
+    public static final SnowflakeCodec BASE62 = new Base62();
+
+    /**
+     * The number of characters of an encoded ID.
+     */
+    @Getter
+    int length;
+
+    /**
+     * Digits and the digit value of every ASCII character, {@code -1} if the character is not a digit.
+     */
+    char[] alphabet;
+    byte[] values;
+
+    int radix;
+
+    /**
+     * Packing of the digits following the first one, see {@link #pack(long)}
+     */
+    int digitBits;
+    long digitMask;
+
+    /**
+     * Value of the first digit, and the largest first digit and remainder still fitting into 64 bits
+     */
+    long firstUnit;
+    int maxFirst;
+    long maxRest;
+
+    SnowflakeCodec(final String alphabet, final int length, final int digitBits, final long firstUnit) {
+        this.length = length;
+        this.alphabet = alphabet.toCharArray();
+        this.radix = alphabet.length();
+        this.digitBits = digitBits;
+        this.digitMask = ~(-1L << digitBits);
+        this.firstUnit = firstUnit;
+        this.maxFirst = (int) Long.divideUnsigned(-1L, firstUnit);
+        this.maxRest = -1L - this.maxFirst * firstUnit;
+
+        this.values = new byte[128];
+        Arrays.fill(this.values, (byte) -1);
+        for (int i = 0; i < this.alphabet.length; i++) {
+            this.values[this.alphabet[i]] = (byte) i;
+        }
+    }
+
+    /**
+     * Makes a character decode to the same value as a digit.
+     *
+     * @param alias The accepted character.
+     * @param digit The digit it stands for.
+     */
+    final void alias(final char alias, final char digit) {
+        this.values[alias] = this.values[digit];
+    }
+
+    /**
+     * Returns the first digit of the given ID, i.e. the ID divided by {@link #firstUnit} as unsigned numbers.
+     *
+     * @param id The ID.
+     * @return The first digit.
+     */
+    abstract int first(long id);
+
+    /**
+     * Packs the digits of a value below {@link #firstUnit}, most significant first,
+     * into consecutive {@link #digitBits}-bit fields.
+     *
+     * @param rest The value.
+     * @return The packed digits.
+     */
+    abstract long pack(long rest);
+
+    /**
+     * Encodes the given ID into a new string.
+     *
+     * @param id The ID.
+     * @return The encoded ID.
+     */
+    public String encode(final long id) {
+        final char[] chars = new char[this.length];
+        this.encode(id, chars, 0);
+        return new String(chars);
+    }
+
+    /**
+     * Encodes the given ID into a character array.
+     *
+     * @param id  The ID.
+     * @param dst The destination array.
+     * @param off The first index to write.
+     * @return The index following the last written character.
+     * @throws IndexOutOfBoundsException If the encoded ID does not fit into {@code dst}.
+     */
+    public int encode(final long id, final char[] dst, final int off) {
+        checkRange(off, this.length, dst.length);
+
+        final int d0 = this.first(id);
+        final long packed = this.pack(id - d0 * this.firstUnit);
+        dst[off] = this.alphabet[d0];
+        for (int i = 1, shift = (this.length - 2) * this.digitBits; i < this.length; i++, shift -= this.digitBits) {
+            dst[off + i] = this.alphabet[(int) (packed >>> shift & this.digitMask)];
+        }
+        return off + this.length;
+    }
+
+    /**
+     * Encodes the given ID into an array of ASCII bytes.
+     *
+     * @param id  The ID.
+     * @param dst The destination array.
+     * @param off The first index to write.
+     * @return The index following the last written byte.
+     * @throws IndexOutOfBoundsException If the encoded ID does not fit into {@code dst}.
+     */
+    public int encode(final long id, final byte[] dst, final int off) {
+        checkRange(off, this.length, dst.length);
+
+        final int d0 = this.first(id);
+        final long packed = this.pack(id - d0 * this.firstUnit);
+        dst[off] = (byte) this.alphabet[d0];
+        for (int i = 1, shift = (this.length - 2) * this.digitBits; i < this.length; i++, shift -= this.digitBits) {
+            dst[off + i] = (byte) this.alphabet[(int) (packed >>> shift & this.digitMask)];
+        }
+        return off + this.length;
+    }
+
+    /**
+     * Encodes the given ID as ASCII bytes at the position of a buffer and advances the position.
+     *
+     * @param id  The ID.
+     * @param dst The destination buffer.
+     * @throws BufferOverflowException If fewer than {@link #getLength()} bytes remain.
+     */
+    public void encode(final long id, final ByteBuffer dst) {
+        if (dst.remaining() < this.length) {
+            throw new BufferOverflowException();
+        }
+
+        final int pos = dst.position();
+        if (dst.hasArray()) {
+            this.encode(id, dst.array(), dst.arrayOffset() + pos);
+        } else {
+            final int d0 = this.first(id);
+            final long packed = this.pack(id - d0 * this.firstUnit);
+            dst.put(pos, (byte) this.alphabet[d0]);
+            for (int i = 1, shift = (this.length - 2) * this.digitBits; i < this.length; i++, shift -= this.digitBits) {
+                dst.put(pos + i, (byte) this.alphabet[(int) (packed >>> shift & this.digitMask)]);
+            }
+        }
+        dst.position(pos + this.length);
+    }
+
+    /**
+     * Appends the encoded ID to an {@link Appendable}, e.g. a {@link StringBuilder} or a {@link java.io.Writer}.
+     *
+     * @param id  The ID.
+     * @param dst The destination.
+     * @param <A> The type of the destination.
+     * @return The destination.
+     * @throws IOException If the destination fails to append.
+     */
+    public <A extends Appendable> A encode(final long id, final A dst) throws IOException {
+        final int d0 = this.first(id);
+        final long packed = this.pack(id - d0 * this.firstUnit);
+        dst.append(this.alphabet[d0]);
+        for (int shift = (this.length - 2) * this.digitBits; shift >= 0; shift -= this.digitBits) {
+            dst.append(this.alphabet[(int) (packed >>> shift & this.digitMask)]);
+        }
+        return dst;
+    }
+
+    /**
+     * Encodes a range of IDs back to back into a character array.
+     * The {@code i}-th ID is written at index {@code dstOff + i * getLength()}.
+     *
+     * @param ids    The IDs.
+     * @param off    The index of the first ID.
+     * @param len    The number of IDs.
+     * @param dst    The destination array.
+     * @param dstOff The first index to write.
+     * @return The index following the last written character.
+     * @throws IndexOutOfBoundsException If a range is outside the bounds of its array.
+     */
+    public int encode(final long[] ids, final int off, final int len, final char[] dst, final int dstOff) {
+        checkRange(off, len, ids.length);
+        checkRange(dstOff, len * this.length, dst.length);
+
+        int pos = dstOff;
+        for (int i = 0; i < len; i++) {
+            pos = this.encode(ids[off + i], dst, pos);
+        }
+        return pos;
+    }
+
+    /**
+     * Encodes a range of IDs back to back into an array of ASCII bytes.
+     * The {@code i}-th ID is written at index {@code dstOff + i * getLength()}.
+     *
+     * @param ids    The IDs.
+     * @param off    The index of the first ID.
+     * @param len    The number of IDs.
+     * @param dst    The destination array.
+     * @param dstOff The first index to write.
+     * @return The index following the last written byte.
+     * @throws IndexOutOfBoundsException If a range is outside the bounds of its array.
+     */
+    public int encode(final long[] ids, final int off, final int len, final byte[] dst, final int dstOff) {
+        checkRange(off, len, ids.length);
+        checkRange(dstOff, len * this.length, dst.length);
+
+        int pos = dstOff;
+        for (int i = 0; i < len; i++) {
+            pos = this.encode(ids[off + i], dst, pos);
+        }
+        return pos;
+    }
+
+    /**
+     * Decodes the encoded ID starting at the given index of a character sequence.
+     *
+     * @param src The characters.
+     * @param off The index of the first character.
+     * @return The ID.
+     * @throws IndexOutOfBoundsException If fewer than {@link #getLength()} characters follow {@code off}.
+     * @throws IllegalArgumentException  If the characters are not a valid encoded ID.
+     */
+    public long decode(final CharSequence src, final int off) {
+        checkRange(off, this.length, src.length());
+
+        long rest = 0;
+        for (int i = 1; i < this.length; i++) {
+            rest = rest * this.radix + this.value(src.charAt(off + i));
+        }
+        return this.combine(this.value(src.charAt(off)), rest);
+    }
+
+    /**
+     * Decodes the encoded ID starting at the given index of a character array.
+     *
+     * @param src The characters.
+     * @param off The index of the first character.
+     * @return The ID.
+     * @throws IndexOutOfBoundsException If fewer than {@link #getLength()} characters follow {@code off}.
+     * @throws IllegalArgumentException  If the characters are not a valid encoded ID.
+     */
+    public long decode(final char[] src, final int off) {
+        checkRange(off, this.length, src.length);
+
+        long rest = 0;
+        for (int i = 1; i < this.length; i++) {
+            rest = rest * this.radix + this.value(src[off + i]);
+        }
+        return this.combine(this.value(src[off]), rest);
+    }
+
+    /**
+     * Decodes the encoded ID starting at the given index of an array of ASCII bytes.
+     *
+     * @param src The bytes.
+     * @param off The index of the first byte.
+     * @return The ID.
+     * @throws IndexOutOfBoundsException If fewer than {@link #getLength()} bytes follow {@code off}.
+     * @throws IllegalArgumentException  If the bytes are not a valid encoded ID.
+     */
+    public long decode(final byte[] src, final int off) {
+        checkRange(off, this.length, src.length);
+
+        long rest = 0;
+        for (int i = 1; i < this.length; i++) {
+            rest = rest * this.radix + this.value(src[off + i] & 0xFF);
+        }
+        return this.combine(this.value(src[off] & 0xFF), rest);
+    }
+
+    /**
+     * Decodes the encoded ID at the position of a buffer of ASCII bytes and advances the position.
+     *
+     * @param src The buffer.
+     * @return The ID.
+     * @throws BufferUnderflowException If fewer than {@link #getLength()} bytes remain.
+     * @throws IllegalArgumentException          If the bytes are not a valid encoded ID.
+     */
+    public long decode(final ByteBuffer src) {
+        if (src.remaining() < this.length) {
+            throw new BufferUnderflowException();
+        }
+
+        final int pos = src.position();
+        long rest = 0;
+        for (int i = 1; i < this.length; i++) {
+            rest = rest * this.radix + this.value(src.get(pos + i) & 0xFF);
+        }
+        final long id = this.combine(this.value(src.get(pos) & 0xFF), rest);
+        src.position(pos + this.length);
+        return id;
+    }
+
+    /**
+     * Decodes IDs encoded back to back in a character array.
+     * The {@code i}-th ID is read from index {@code srcOff + i * getLength()}.
+     *
+     * @param src    The characters.
+     * @param srcOff The index of the first character.
+     * @param ids    The destination array.
+     * @param off    The first index to write.
+     * @param len    The number of IDs.
+     * @throws IndexOutOfBoundsException If a range is outside the bounds of its array.
+     * @throws IllegalArgumentException  If the characters are not valid encoded IDs.
+     */
+    public void decode(final char[] src, final int srcOff, final long[] ids, final int off, final int len) {
+        checkRange(off, len, ids.length);
+        checkRange(srcOff, len * this.length, src.length);
+
+        for (int i = 0; i < len; i++) {
+            ids[off + i] = this.decode(src, srcOff + i * this.length);
+        }
+    }
+
+    /**
+     * Decodes IDs encoded back to back in an array of ASCII bytes.
+     * The {@code i}-th ID is read from index {@code srcOff + i * getLength()}.
+     *
+     * @param src    The bytes.
+     * @param srcOff The index of the first byte.
+     * @param ids    The destination array.
+     * @param off    The first index to write.
+     * @param len    The number of IDs.
+     * @throws IndexOutOfBoundsException If a range is outside the bounds of its array.
+     * @throws IllegalArgumentException  If the bytes are not valid encoded IDs.
+     */
+    public void decode(final byte[] src, final int srcOff, final long[] ids, final int off, final int len) {
+        checkRange(off, len, ids.length);
+        checkRange(srcOff, len * this.length, src.length);
+
+        for (int i = 0; i < len; i++) {
+            ids[off + i] = this.decode(src, srcOff + i * this.length);
+        }
+    }
+
+    private int value(final int c) {
+        final int v = c < 128 ? this.values[c] : -1;
+        if (v < 0) {
+            throw new IllegalArgumentException(Constants.EX_ILLEGAL_ENCODED_ID);
+        }
+        return v;
+    }
+
+    private long combine(final int first, final long rest) {
+        if (first > this.maxFirst || first == this.maxFirst && rest > this.maxRest) {
+            throw new IllegalArgumentException(Constants.EX_ILLEGAL_ENCODED_ID);
+        }
+        return first * this.firstUnit + rest;
+    }
+
+    private static void checkRange(final int off, final int len, final int length) {
+        if (off < 0 || len < 0 || off > length - len) {
+            throw new IndexOutOfBoundsException("off: " + off + ", len: " + len + ", length: " + length);
+        }
+    }
+
+    /**
+     * Crockford's Base32. The first character holds the top 4 bits, each following one 5 bits.
+     */
+    private static final class Base32 extends SnowflakeCodec {
+        Base32() {
+            super("0123456789ABCDEFGHJKMNPQRSTVWXYZ", 13, 5, 1L << 60);
+
+            for (char c = 'a'; c <= 'z'; c++) {
+                this.alias(c, Character.toUpperCase(c));
+            }
+            this.alias('I', '1');
+            this.alias('i', '1');
+            this.alias('L', '1');
+            this.alias('l', '1');
+            this.alias('O', '0');
+            this.alias('o', '0');
+        }
+
+        @Override
+        int first(final long id) {
+            return (int) (id >>> 60);
+        }
+
+        @Override
+        long pack(final long rest) {
+            // The binary representation already holds the digits in 5-bit fields
+            return rest;
+        }
+    }
+
+    /**
+     * Base62. The first character holds the quotient by 62^10, each following one a digit of the remainder.
+     */
+    private static final class Base62 extends SnowflakeCodec {
+        private static final long FIRST_UNIT = 839_299_365_868_340_224L; // 62^10
+        private static final long HALF_UNIT = 916_132_832L; // 62^5
+
+        Base62() {
+            super("0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz", 11, 6, FIRST_UNIT);
+        }
+
+        @Override
+        int first(final long id) {
+            // Unsigned division by an even divisor
+            return (int) ((id >>> 1) / (FIRST_UNIT >>> 1));
+        }
+
+        @Override
+        long pack(final long rest) {
+            // Splits into two halves of 5 digits so the divisions work on ints
+            final long hi = rest / HALF_UNIT;
+            return (long) packHalf((int) hi) << 30 | packHalf((int) (rest - hi * HALF_UNIT));
+        }
+
+        private static int packHalf(final int half) {
+            int value = half;
+            int packed = 0;
+            for (int shift = 0; shift < 30; shift += 6) {
+                final int q = value / 62;
+                packed |= (value - q * 62) << shift;
+                value = q;
+            }
+            return packed;
+        }
+    }
+}
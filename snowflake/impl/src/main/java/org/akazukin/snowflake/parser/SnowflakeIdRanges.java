@@ -0,0 +1,209 @@
+package org.akazukin.snowflake.parser;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.akazukin.snowflake.Constants;
+import org.akazukin.snowflake.config.ISnowflakeConfig;
+import org.akazukin.snowflake.config.SnowflakeConfigUtils;
+import org.akazukin.snowflake.config.SnowflakeTicks;
+
+/**
+ * This class converts time windows into the range of Snowflake IDs whose embedded timestamp falls within them.
+ * Since the timestamp occupies the most significant bits, every ID carrying a timestamp between two instants lies
+ * between the bounds computed here, so range scans over an ID-keyed index can prune on the key alone.
+ * <p>
+ * The bounds apply to the timestamp of an ID, not to the time it was issued at. A generator that exhausts
+ * its sequence or runs ahead of a clock stepping back borrows future ticks, so an ID issued before the end
+ * of a window can carry a later timestamp; the default regression policy borrows without limit. To find every
+ * ID issued within a window, widen its end by the {@code maxBorrowMillis} of the regression policy of the
+ * generators.
+ * <p>
+ * Windows are given in milliseconds since the Unix epoch and are inclusive on both ends. The start timestamp,
+ * the timestamp offset and the tick of the configuration are applied as by the generators; a window boundary
+ * within a tick includes the whole tick. A window which no ID can
+ * fall into, e.g. one that ends before the start timestamp, yields a minimum greater than its maximum.
+ *
+ * @see SnowflakeParser
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public final class SnowflakeIdRanges {
+    /**
+     * The number of bits each part to shift
+     */
+    int machineLeft;
+    int timestampLeft;
+
+    /**
+     * Largest machine ID and the mask of the sequence
+     */
+    long maxMachineNum;
+    long sequenceMask;
+
+    /**
+     * Largest relative timestamp of a non-negative ID
+     */
+    long maxTimestamp;
+
+    /**
+     * Start timestamp with the offset applied and tick length, as used by the generators
+     */
+    SnowflakeTicks ticks;
+
+    /**
+     * Constructs a new instance of the SnowflakeIdRanges with the specified configuration.
+     *
+     * @param cfg The configuration for the SnowFlake ID generator, specifying machine ID
+     *            bits, sequence bits, and the start timestamp.
+     * @throws IllegalStateException If the sum of machine ID bits and sequence bits exceeds 22 bits,
+     *                               or if either machine ID bits or sequence bits are negative.
+     */
+    public SnowflakeIdRanges(final ISnowflakeConfig cfg) {
+        // Validate the configuration
+        SnowflakeConfigUtils.validate(cfg);
+
+        this.machineLeft = cfg.getSequenceBits();
+        this.timestampLeft = this.machineLeft + cfg.getMachineIdBits();
+        this.maxMachineNum = ~(-1L << cfg.getMachineIdBits());
+        this.sequenceMask = ~(-1L << this.machineLeft);
+        this.maxTimestamp = Long.MAX_VALUE >>> this.timestampLeft;
+        this.ticks = SnowflakeTicks.of(cfg);
+    }
+
+    /**
+     * Returns the smallest ID that can have been generated at or after the given instant.
+     *
+     * @param fromEpochMillis The start of the window in milliseconds since the Unix epoch.
+     * @return The smallest possible ID.
+     */
+    public long minId(final long fromEpochMillis) {
+        return this.lower(fromEpochMillis, 0);
+    }
+
+    /**
+     * Returns the largest ID that can have been generated at or before the given instant.
+     *
+     * @param toEpochMillis The end of the window in milliseconds since the Unix epoch.
+     * @return The largest possible ID.
+     */
+    public long maxId(final long toEpochMillis) {
+        return this.upper(toEpochMillis, this.maxMachineNum);
+    }
+
+    /**
+     * Returns the smallest ID that a machine with an ID of at least {@code minMachineId}
+     * can have generated at or after the given instant.
+     *
+     * @param fromEpochMillis The start of the window in milliseconds since the Unix epoch.
+     * @param minMachineId    The smallest machine ID of interest.
+     * @return The smallest possible ID.
+     * @throws IllegalArgumentException If the machine ID is out of range.
+     */
+    public long minId(final long fromEpochMillis, final long minMachineId) {
+        this.checkMachineId(minMachineId);
+        return this.lower(fromEpochMillis, minMachineId);
+    }
+
+    /**
+     * Returns the largest ID that a machine with an ID of at most {@code maxMachineId}
+     * can have generated at or before the given instant.
+     *
+     * @param toEpochMillis The end of the window in milliseconds since the Unix epoch.
+     * @param maxMachineId  The largest machine ID of interest.
+     * @return The largest possible ID.
+     * @throws IllegalArgumentException If the machine ID is out of range.
+     */
+    public long maxId(final long toEpochMillis, final long maxMachineId) {
+        this.checkMachineId(maxMachineId);
+        return this.upper(toEpochMillis, maxMachineId);
+    }
+
+    /**
+     * Converts many windows at once. The {@code i}-th window is converted into index {@code dstOff + i}
+     * of {@code minIds} and {@code maxIds}.
+     *
+     * @param fromEpochMillis The starts of the windows in milliseconds since the Unix epoch.
+     * @param toEpochMillis   The ends of the windows in milliseconds since the Unix epoch.
+     * @param off             The index of the first window.
+     * @param len             The number of windows.
+     * @param minIds          The column receiving the smallest possible IDs.
+     * @param maxIds          The column receiving the largest possible IDs.
+     * @param dstOff          The first index to write in the columns.
+     * @throws IndexOutOfBoundsException If a range is outside the bounds of its array.
+     */
+    public void idRanges(final long[] fromEpochMillis, final long[] toEpochMillis, final int off, final int len,
+                         final long[] minIds, final long[] maxIds, final int dstOff) {
+        this.idRanges(fromEpochMillis, toEpochMillis, off, len, minIds, maxIds, dstOff, 0, this.maxMachineNum);
+    }
+
+    /**
+     * Converts many windows at once, restricted to the machines with an ID between
+     * {@code minMachineId} and {@code maxMachineId}. The {@code i}-th window is converted
+     * into index {@code dstOff + i} of {@code minIds} and {@code maxIds}.
+     *
+     * @param fromEpochMillis The starts of the windows in milliseconds since the Unix epoch.
+     * @param toEpochMillis   The ends of the windows in milliseconds since the Unix epoch.
+     * @param off             The index of the first window.
+     * @param len             The number of windows.
+     * @param minIds          The column receiving the smallest possible IDs.
+     * @param maxIds          The column receiving the largest possible IDs.
+     * @param dstOff          The first index to write in the columns.
+     * @param minMachineId    The smallest machine ID of interest.
+     * @param maxMachineId    The largest machine ID of interest.
+     * @throws IndexOutOfBoundsException If a range is outside the bounds of its array.
+     * @throws IllegalArgumentException  If a machine ID is out of range,
+     *                                   or {@code minMachineId} is greater than {@code maxMachineId}.
+     */
+    public void idRanges(final long[] fromEpochMillis, final long[] toEpochMillis, final int off, final int len,
+                         final long[] minIds, final long[] maxIds, final int dstOff,
+                         final long minMachineId, final long maxMachineId) {
+        checkRange(off, len, fromEpochMillis.length);
+        checkRange(off, len, toEpochMillis.length);
+        checkRange(dstOff, len, minIds.length);
+        checkRange(dstOff, len, maxIds.length);
+        this.checkMachineId(minMachineId);
+        this.checkMachineId(maxMachineId);
+        if (minMachineId > maxMachineId) {
+            throw new IllegalArgumentException(Constants.EX_ILLEGAL_MACHINE_ORDER);
+        }
+
+        for (int i = 0; i < len; i++) {
+            minIds[dstOff + i] = this.lower(fromEpochMillis[off + i], minMachineId);
+        }
+        for (int i = 0; i < len; i++) {
+            maxIds[dstOff + i] = this.upper(toEpochMillis[off + i], maxMachineId);
+        }
+    }
+
+    private long lower(final long fromEpochMillis, final long minMachineId) {
+        final long timestamp = this.ticks.floorTickOf(fromEpochMillis);
+        if (timestamp > this.maxTimestamp) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(timestamp, 0) << this.timestampLeft | minMachineId << this.machineLeft;
+    }
+
+    private long upper(final long toEpochMillis, final long maxMachineId) {
+        final long timestamp = this.ticks.floorTickOf(toEpochMillis);
+        if (timestamp < 0) {
+            return -1;
+        }
+        return Math.min(timestamp, this.maxTimestamp) << this.timestampLeft
+                | maxMachineId << this.machineLeft
+                | this.sequenceMask;
+    }
+
+    private void checkMachineId(final long machineId) {
+        if (machineId < 0) {
+            throw new IllegalArgumentException(Constants.EX_ILLEGAL_MACHINE_NUM_NEGATIVE);
+        }
+        if (machineId > this.maxMachineNum) {
+            throw new IllegalArgumentException(Constants.EX_ILLEGAL_MACHINE_NUM_BIGGER);
+        }
+    }
+
+    private static void checkRange(final int off, final int len, final int length) {
+        if (off < 0 || len < 0 || off > length - len) {
+            throw new IndexOutOfBoundsException("off: " + off + ", len: " + len + ", length: " + length);
+        }
+    }
+}
@@ -6,11 +6,21 @@ import lombok.Getter;
 import lombok.experimental.FieldDefaults;
 import org.akazukin.snowflake.config.ISnowflakeConfig;
 import org.akazukin.snowflake.config.SnowflakeConfigUtils;
+import org.akazukin.snowflake.config.SnowflakeTicks;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.LongBuffer;
 
 /**
  * This class is responsible for parsing Snowflake IDs into their constituent parts.
  * It uses a configuration-based approach to define the structure of a Snowflake ID.
  * The parsed components typically include the machine ID, sequence number, and timestamp.
+ * <p>
+ * The single-field extractors such as {@link #epochMillisOf(long)} decode one part without allocating.
+ * Besides {@link #parse(long)}, which returns one {@link Result} per ID, the bulk methods decode
+ * many IDs into caller-owned column arrays without allocating. On Java 21 the bulk methods use the
+ * Vector API when the {@code jdk.incubator.vector} module is enabled
+ * ({@code --add-modules jdk.incubator.vector}); otherwise a scalar loop is used.
  *
  * @see ISnowflakeConfig
  * @see SnowflakeConfigUtils#validate(ISnowflakeConfig)
@@ -20,8 +30,19 @@ public final class SnowflakeParser {
     /**
      * The number of bits each part to shift
      */
-    long machineLeft;
-    long timestampLeft;
+    int machineLeft;
+    int timestampLeft;
+
+    /**
+     * Masks of the machine ID (after shifting) and of the sequence
+     */
+    long machineMask;
+    long sequenceMask;
+
+    /**
+     * Start timestamp with the offset applied and tick length, as used by the generators
+     */
+    SnowflakeTicks ticks;
 
     /**
      * Constructs a new instance of the SnowFlakeParser with the specified configuration.
@@ -39,20 +60,155 @@ public final class SnowflakeParser {
 
         this.machineLeft = cfg.getSequenceBits();
         this.timestampLeft = this.machineLeft + cfg.getMachineIdBits();
+        this.machineMask = ~(-1L << cfg.getMachineIdBits());
+        this.sequenceMask = ~(-1L << this.machineLeft);
+        this.ticks = SnowflakeTicks.of(cfg);
     }
 
     /**
      * Parses the given SnowFlake ID into its constituent parts.
+     * <p>
+     * The timestamp is relative to the start timestamp of the configuration.
      *
      * @param id The SnowFlake ID to be parsed.
      * @return A Result object containing the machine ID, sequence, and timestamp extracted from the ID.
      */
     public Result parse(final long id) {
-        final long sequence = id & ~(-1L << this.machineLeft);
-        final long machineId = (id >> this.machineLeft) & ~(-1L << this.timestampLeft);
-        final long timestamp = (id >> this.timestampLeft) + this.machineLeft;
+        return new Result(this.machineIdOf(id), this.sequenceOf(id), this.timestampOf(id));
+    }
+
+    /**
+     * Extracts the timestamp of the given SnowFlake ID, relative to the start timestamp of the configuration.
+     *
+     * @param id The SnowFlake ID.
+     * @return The relative timestamp in ticks of the configuration, which are milliseconds by default.
+     */
+    public long timestampOf(final long id) {
+        return id >>> this.timestampLeft;
+    }
+
+    /**
+     * Extracts the creation time of the given SnowFlake ID.
+     * The relative timestamp is converted from ticks, and the start timestamp and the timestamp offset
+     * of the configuration are added, as the generators subtract them.
+     *
+     * @param id The SnowFlake ID.
+     * @return The beginning of the tick of creation in milliseconds since the Unix epoch, rounded down.
+     */
+    public long epochMillisOf(final long id) {
+        return this.ticks.toEpochMillis(id >>> this.timestampLeft);
+    }
+
+    /**
+     * Extracts the creation time of the given SnowFlake ID in microseconds,
+     * for configurations with ticks shorter than a millisecond.
+     *
+     * @param id The SnowFlake ID.
+     * @return The beginning of the tick of creation in microseconds since the Unix epoch.
+     */
+    public long epochMicrosOf(final long id) {
+        return this.ticks.toEpochMicros(id >>> this.timestampLeft);
+    }
+
+    /**
+     * Extracts the machine ID of the given SnowFlake ID.
+     *
+     * @param id The SnowFlake ID.
+     * @return The machine ID.
+     */
+    public long machineIdOf(final long id) {
+        return id >>> this.machineLeft & this.machineMask;
+    }
+
+    /**
+     * Extracts the sequence of the given SnowFlake ID.
+     *
+     * @param id The SnowFlake ID.
+     * @return The sequence.
+     */
+    public long sequenceOf(final long id) {
+        return id & this.sequenceMask;
+    }
+
+    /**
+     * Decodes a range of SnowFlake IDs into column arrays.
+     * The {@code i}-th ID is decoded into index {@code dstOff + i} of every column.
+     * A column may be {@code null} to skip decoding that part.
+     * The timestamps are relative to the start timestamp of the configuration.
+     *
+     * @param ids        The SnowFlake IDs to be parsed.
+     * @param off        The index of the first ID to parse.
+     * @param len        The number of IDs to parse.
+     * @param timestamps The column receiving the timestamps, or {@code null}.
+     * @param machineIds The column receiving the machine IDs, or {@code null}.
+     * @param sequences  The column receiving the sequences, or {@code null}.
+     * @param dstOff     The first index to write in the columns.
+     * @throws IndexOutOfBoundsException If a range is outside the bounds of its array.
+     */
+    public void parse(final long[] ids, final int off, final int len,
+                      @Nullable final long[] timestamps, @Nullable final long[] machineIds,
+                      @Nullable final long[] sequences, final int dstOff) {
+        checkRange(off, len, ids.length);
+        checkColumn(timestamps, dstOff, len);
+        checkColumn(machineIds, dstOff, len);
+        checkColumn(sequences, dstOff, len);
+
+        ParserKernel.decode(ids, off, len, timestamps, machineIds, sequences, dstOff,
+                this.machineLeft, this.timestampLeft, this.machineMask, this.sequenceMask);
+    }
+
+    /**
+     * Decodes the remaining SnowFlake IDs of a buffer into column arrays and
+     * advances the position of the buffer to its limit.
+     * A column may be {@code null} to skip decoding that part.
+     * The timestamps are relative to the start timestamp of the configuration.
+     *
+     * @param ids        The buffer holding the SnowFlake IDs to be parsed.
+     * @param timestamps The column receiving the timestamps, or {@code null}.
+     * @param machineIds The column receiving the machine IDs, or {@code null}.
+     * @param sequences  The column receiving the sequences, or {@code null}.
+     * @param dstOff     The first index to write in the columns.
+     * @throws IndexOutOfBoundsException If a column is too short for the remaining IDs.
+     */
+    public void parse(final LongBuffer ids,
+                      @Nullable final long[] timestamps, @Nullable final long[] machineIds,
+                      @Nullable final long[] sequences, final int dstOff) {
+        final int pos = ids.position();
+        final int len = ids.remaining();
+
+        if (ids.hasArray()) {
+            this.parse(ids.array(), ids.arrayOffset() + pos, len, timestamps, machineIds, sequences, dstOff);
+        } else {
+            checkColumn(timestamps, dstOff, len);
+            checkColumn(machineIds, dstOff, len);
+            checkColumn(sequences, dstOff, len);
+
+            for (int i = 0; i < len; i++) {
+                final long id = ids.get(pos + i);
+                if (timestamps != null) {
+                    timestamps[dstOff + i] = id >>> this.timestampLeft;
+                }
+                if (machineIds != null) {
+                    machineIds[dstOff + i] = id >>> this.machineLeft & this.machineMask;
+                }
+                if (sequences != null) {
+                    sequences[dstOff + i] = id & this.sequenceMask;
+                }
+            }
+        }
+        ids.position(pos + len);
+    }
+
+    private static void checkColumn(@Nullable final long[] column, final int off, final int len) {
+        if (column != null) {
+            checkRange(off, len, column.length);
+        }
+    }
 
-        return new Result(machineId, sequence, timestamp);
+    private static void checkRange(final int off, final int len, final int length) {
+        if (off < 0 || len < 0 || off > length - len) {
+            throw new IndexOutOfBoundsException("off: " + off + ", len: " + len + ", length: " + length);
+        }
     }
 
     /**
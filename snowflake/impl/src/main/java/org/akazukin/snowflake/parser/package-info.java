@@ -4,6 +4,8 @@
  * <p>
  * The classes in this package are designed to facilitate the parsing of Snowflake objects,
  * ensuring efficient and accurate processing. Users can leverage these utilities to handle
- * data transformations specific to the Snowflake framework.
+ * data transformations specific to the Snowflake framework, and convert time windows
+ * into ID ranges for range scans over ID-keyed storage. Identifiers can be encoded as sortable
+ * fixed-width text, and sequences of identifiers can be compressed into blocks of bytes.
  */
 package org.akazukin.snowflake.parser;
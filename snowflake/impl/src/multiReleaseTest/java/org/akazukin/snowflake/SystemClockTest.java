@@ -0,0 +1,21 @@
+package org.akazukin.snowflake;
+
+import org.akazukin.snowflake.clock.SystemClock;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public final class SystemClockTest {
+    @Test
+    void testMicros() {
+        // The main class only has millisecond resolution
+        boolean subMillis = false;
+        for (int i = 0; i < 1_000 && !subMillis; i++) {
+            final long before = SystemClock.INSTANCE.currentTimeMillis();
+            final long micros = SystemClock.INSTANCE.currentTimeMicros();
+            final long after = SystemClock.INSTANCE.currentTimeMillis();
+            Assertions.assertTrue(micros / 1_000 >= before && micros / 1_000 <= after);
+            subMillis = micros % 1_000 != 0;
+        }
+        Assertions.assertTrue(subMillis);
+    }
+}
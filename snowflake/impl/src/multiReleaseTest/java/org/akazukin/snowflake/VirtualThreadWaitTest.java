@@ -0,0 +1,33 @@
+package org.akazukin.snowflake;
+
+import org.akazukin.snowflake.generator.IWaitStrategy;
+import org.akazukin.snowflake.generator.WaitStrategies;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public final class VirtualThreadWaitTest {
+    @Test
+    void testAdaptiveYieldsOnVirtualThreads() throws InterruptedException {
+        final AtomicBoolean ready = new AtomicBoolean();
+        final AtomicInteger attempts = new AtomicInteger();
+
+        final Thread waiter = Thread.ofVirtual().start(() -> {
+            // The build script leaves a single carrier, so this cannot run before the waiter unmounts
+            Thread.ofVirtual().start(() -> ready.set(true));
+
+            final IWaitStrategy strategy = WaitStrategies.adaptive();
+            int attempt = 0;
+            while (!ready.get()) {
+                strategy.idle(attempt++);
+            }
+            attempts.set(attempt);
+        });
+        waiter.join();
+
+        // A platform thread spins 64 times before it yields
+        Assertions.assertTrue(attempts.get() > 0 && attempts.get() < 64, "attempts " + attempts.get());
+    }
+}
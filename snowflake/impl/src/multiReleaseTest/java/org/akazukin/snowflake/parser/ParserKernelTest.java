@@ -0,0 +1,72 @@
+package org.akazukin.snowflake.parser;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+public final class ParserKernelTest {
+    /**
+     * Sequence bits, machine ID bits.
+     */
+    private static final int[][] LAYOUTS = {{12, 10}, {2, 2}, {22, 0}, {0, 22}, {0, 0}};
+
+    private static void assertSameColumns(final long[] ids, final int off, final int len, final boolean[] columns,
+                                          final int machineLeft, final int timestampLeft) {
+        final long machineMask = ~(-1L << timestampLeft - machineLeft);
+        final long sequenceMask = ~(-1L << machineLeft);
+        final long[][] scalar = columns(len, columns);
+        final long[][] vector = columns(len, columns);
+        final long[][] dispatched = columns(len, columns);
+
+        ParserKernel.decodeScalar(ids, off, len, scalar[0], scalar[1], scalar[2], 3,
+                machineLeft, timestampLeft, machineMask, sequenceMask);
+        VectorParserKernel.decode(ids, off, len, vector[0], vector[1], vector[2], 3,
+                machineLeft, timestampLeft, machineMask, sequenceMask);
+        ParserKernel.decode(ids, off, len, dispatched[0], dispatched[1], dispatched[2], 3,
+                machineLeft, timestampLeft, machineMask, sequenceMask);
+
+        for (int c = 0; c < 3; c++) {
+            Assertions.assertArrayEquals(scalar[c], vector[c], "column " + c + " of " + len + " at " + off);
+            Assertions.assertArrayEquals(scalar[c], dispatched[c], "column " + c + " of " + len + " at " + off);
+        }
+    }
+
+    /**
+     * Returns the timestamp, machine ID and sequence columns, null where not requested,
+     * with room for the destination offset and a guard element behind the range.
+     */
+    private static long[][] columns(final int len, final boolean[] columns) {
+        final long[][] result = new long[3][];
+        for (int c = 0; c < 3; c++) {
+            if (columns[c]) {
+                result[c] = new long[len + 4];
+                result[c][len + 3] = -1L;
+            }
+        }
+        return result;
+    }
+
+    @Test
+    void testVectorMatchesScalar() {
+        Assertions.assertTrue(ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent());
+
+        final Random random = new Random(42);
+        final long[] ids = new long[1_100];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = random.nextLong() >>> 1;
+        }
+
+        final boolean[][] columns = {{true, true, true}, {true, false, false}, {false, true, true}};
+        for (final int[] layout : LAYOUTS) {
+            // Lengths around multiples of the lane count, so the tail loops are covered
+            for (final int len : new int[]{0, 1, 3, 7, 8, 9, 15, 16, 17, 63, 64, 65, 1_000}) {
+                for (final int off : new int[]{0, 1, 5}) {
+                    for (final boolean[] column : columns) {
+                        assertSameColumns(ids, off, len, column, layout[0], layout[0] + layout[1]);
+                    }
+                }
+            }
+        }
+    }
+}
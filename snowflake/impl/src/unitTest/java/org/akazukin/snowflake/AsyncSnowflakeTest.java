@@ -0,0 +1,173 @@
+package org.akazukin.snowflake;
+
+import org.akazukin.snowflake.async.AsyncSnowflake;
+import org.akazukin.snowflake.async.IAsyncSnowflake;
+import org.akazukin.snowflake.async.ISnowflakeSubscriber;
+import org.akazukin.snowflake.async.ISnowflakeSubscription;
+import org.akazukin.snowflake.clock.ManualClock;
+import org.akazukin.snowflake.config.SnowflakeConfig;
+import org.akazukin.snowflake.generator.AtomicSnowflake;
+import org.akazukin.snowflake.generator.ClockRegressionPolicy;
+import org.akazukin.snowflake.generator.SnowflakeOptions;
+import org.akazukin.snowflake.parser.SnowflakeParser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+public final class AsyncSnowflakeTest {
+    // Four identifiers per millisecond
+    private static final SnowflakeConfig CONFIG = new SnowflakeConfig(1_000, 500, (byte) 10, (byte) 2);
+    private static final SnowflakeParser PARSER = new SnowflakeParser(CONFIG);
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final ManualClock clock = new ManualClock(10_000);
+
+    private IAsyncSnowflake create(final ClockRegressionPolicy policy) {
+        return new AsyncSnowflake(new AtomicSnowflake(CONFIG, 1,
+                SnowflakeOptions.DEFAULT.withClock(this.clock).withRegressionPolicy(policy)),
+                CONFIG, this.clock, this.scheduler);
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.scheduler.shutdownNow();
+    }
+
+    @Test
+    void testFutureDelayedUntilDue() throws Exception {
+        final IAsyncSnowflake gen = this.create(ClockRegressionPolicy.unbounded());
+        for (int i = 0; i < 4; i++) {
+            Assertions.assertTrue(gen.nextIdAsync().isDone());
+        }
+
+        // The sequence is exhausted, so the next identifier belongs to the next millisecond
+        final CompletableFuture<Long> borrowed = gen.nextIdAsync();
+        final CompletableFuture<long[]> batch = gen.nextIdsAsync(4);
+        Assertions.assertThrows(TimeoutException.class, () -> borrowed.get(20, TimeUnit.MILLISECONDS));
+        Assertions.assertFalse(batch.isDone());
+
+        this.clock.advance(1);
+        Assertions.assertEquals(10_001, PARSER.epochMillisOf(borrowed.get(1, TimeUnit.SECONDS)));
+        Assertions.assertFalse(batch.isDone());
+        this.clock.advance(1);
+        Assertions.assertEquals(10_002, PARSER.epochMillisOf(batch.get(1, TimeUnit.SECONDS)[3]));
+
+        Assertions.assertEquals(0, gen.nextIdsAsync(0).get().length);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> gen.nextIdsAsync(-1));
+    }
+
+    @Test
+    void testFutureFailure() {
+        final IAsyncSnowflake gen = this.create(ClockRegressionPolicy.failFast(0));
+        for (int i = 0; i < 4; i++) {
+            gen.nextIdAsync();
+        }
+        final ExecutionException e = Assertions.assertThrows(ExecutionException.class,
+                () -> gen.nextIdAsync().get(1, TimeUnit.SECONDS));
+        Assertions.assertInstanceOf(IllegalStateException.class, e.getCause());
+    }
+
+    @Test
+    void testPublisherRespectsDemand() throws InterruptedException {
+        final IAsyncSnowflake gen = this.create(ClockRegressionPolicy.unbounded());
+        final Recorder recorder = new Recorder();
+        gen.publisher(4).subscribe(recorder);
+
+        // The first batch is due at once, the second one only in the next millisecond
+        recorder.subscription.request(2);
+        Assertions.assertEquals(10_000, PARSER.epochMillisOf(recorder.batches.poll(1, TimeUnit.SECONDS)[3]));
+        Assertions.assertNull(recorder.batches.poll(20, TimeUnit.MILLISECONDS));
+        this.clock.advance(1);
+        final long[] second = recorder.batches.poll(1, TimeUnit.SECONDS);
+        Assertions.assertNotNull(second);
+        Assertions.assertEquals(10_001, PARSER.epochMillisOf(second[0]));
+
+        // No demand, no batches
+        this.clock.advance(10);
+        Assertions.assertNull(recorder.batches.poll(20, TimeUnit.MILLISECONDS));
+
+        recorder.subscription.request(1);
+        Assertions.assertNotNull(recorder.batches.poll(1, TimeUnit.SECONDS));
+        recorder.subscription.cancel();
+        recorder.subscription.request(1);
+        Assertions.assertNull(recorder.batches.poll(20, TimeUnit.MILLISECONDS));
+        Assertions.assertTrue(recorder.errors.isEmpty());
+    }
+
+    @Test
+    void testPublisherIllegalDemand() {
+        final Recorder recorder = new Recorder();
+        this.create(ClockRegressionPolicy.unbounded()).publisher(1).subscribe(recorder);
+        recorder.subscription.request(0);
+        Assertions.assertEquals(1, recorder.errors.size());
+        Assertions.assertInstanceOf(IllegalArgumentException.class, recorder.errors.get(0));
+
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> this.create(ClockRegressionPolicy.unbounded()).publisher(0));
+    }
+
+    @Test
+    void testRejectedScheduling() throws InterruptedException {
+        final IAsyncSnowflake gen = this.create(ClockRegressionPolicy.unbounded());
+        for (int i = 0; i < 4; i++) {
+            gen.nextIdAsync();
+        }
+
+        // Scheduled before the shutdown, fired while the clock stands still, and rescheduled after it
+        final CompletableFuture<Long> rescheduled = gen.nextIdAsync();
+        this.scheduler.shutdown();
+        ExecutionException e = Assertions.assertThrows(ExecutionException.class,
+                () -> rescheduled.get(1, TimeUnit.SECONDS));
+        Assertions.assertInstanceOf(RejectedExecutionException.class, e.getCause());
+
+        e = Assertions.assertThrows(ExecutionException.class, () -> gen.nextIdsAsync(4).get(1, TimeUnit.SECONDS));
+        Assertions.assertInstanceOf(RejectedExecutionException.class, e.getCause());
+
+        final Recorder recorder = new Recorder();
+        gen.publisher(4).subscribe(recorder);
+        recorder.subscription.request(2);
+        Assertions.assertNull(recorder.batches.poll(20, TimeUnit.MILLISECONDS));
+        Assertions.assertEquals(1, recorder.errors.size());
+        Assertions.assertInstanceOf(RejectedExecutionException.class, recorder.errors.get(0));
+
+        recorder.subscription.request(1);
+        Assertions.assertEquals(1, recorder.errors.size());
+    }
+
+    private static final class Recorder implements ISnowflakeSubscriber {
+        final BlockingQueue<long[]> batches = new LinkedBlockingQueue<>();
+        final List<Throwable> errors = new CopyOnWriteArrayList<>();
+        ISnowflakeSubscription subscription;
+
+        @Override
+        public void onSubscribe(final ISnowflakeSubscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(final long[] ids) {
+            this.batches.add(ids);
+        }
+
+        @Override
+        public void onError(final Throwable throwable) {
+            this.errors.add(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package org.akazukin.snowflake;
 
 import org.akazukin.snowflake.config.ISnowflakeConfig;
+import org.akazukin.snowflake.config.SnowflakeConfig;
 import org.akazukin.snowflake.config.SnowflakeConfigUtils;
 import org.akazukin.snowflake.generator.AtomicSnowflake;
 import org.akazukin.snowflake.generator.ISnowflake;
+import org.akazukin.snowflake.generator.ISnowflakeLease;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
@@ -76,6 +78,41 @@ public final class AtomicSnowflakeTest {
         Assertions.assertEquals(gens * threads, ids.size());
     }
 
+    @Test
+    void testNextIds() {
+        final ISnowflake gen = new AtomicSnowflake(new SnowflakeConfig(0, 0, (byte) 2, (byte) 2), 3);
+
+        final long[] ids = new long[102];
+        gen.nextIds(ids, 1, 100);
+        Assertions.assertEquals(0L, ids[0]);
+        Assertions.assertEquals(0L, ids[101]);
+        for (int i = 2; i <= 100; i++) {
+            Assertions.assertTrue(ids[i] > ids[i - 1]);
+        }
+        Assertions.assertTrue(gen.nextId() > ids[100]);
+
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> gen.nextIds(ids, 100, 3));
+    }
+
+    @Test
+    void testLease() {
+        final ISnowflake gen = new AtomicSnowflake(new SnowflakeConfig(0, 0, (byte) 2, (byte) 2), 3);
+
+        final ISnowflakeLease lease = gen.lease(100);
+        Assertions.assertEquals(100, lease.remaining());
+        long prev = lease.nextLong();
+        while (lease.hasNext()) {
+            final long id = lease.nextLong();
+            Assertions.assertTrue(id > prev);
+            prev = id;
+        }
+        Assertions.assertEquals(0, lease.remaining());
+        Assertions.assertTrue(gen.nextId() > prev);
+
+        Assertions.assertFalse(gen.lease(0).hasNext());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> gen.lease(-1));
+    }
+
     @Test
     void testTooManyBits() {
         final IllegalStateException ex = Assertions.assertThrows(IllegalStateException.class, () -> {
@@ -0,0 +1,96 @@
+package org.akazukin.snowflake;
+
+import org.akazukin.snowflake.config.SnowflakeConfig;
+import org.akazukin.snowflake.generator.BufferedSnowflake;
+import org.akazukin.snowflake.generator.LockFreeSnowflake;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public final class BufferedSnowflakeTest {
+    private static final SnowflakeConfig CONFIG = new SnowflakeConfig(0, 0, (byte) 2, (byte) 20);
+
+    @Test
+    void test() throws Throwable {
+        final int threads = 6;
+        final int gens = 10_000;
+
+        try (final BufferedSnowflake gen = new BufferedSnowflake(new LockFreeSnowflake(CONFIG, 1), 1_000, 250)) {
+            final Set<Long> ids = ConcurrentHashMap.newKeySet();
+
+            final ExecutorService executor = Executors.newFixedThreadPool(threads);
+            final Set<Future<?>> tasks = new HashSet<>();
+            for (int i = 0; i < threads; i++) {
+                tasks.add(executor.submit(() -> {
+                    for (int i2 = 0; i2 < gens; i2++) {
+                        ids.add(gen.nextId());
+                    }
+                }));
+            }
+            executor.shutdown();
+            if (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                executor.shutdownNow();
+            }
+
+            for (final Future<?> t : tasks) {
+                try {
+                    t.get();
+                } catch (final ExecutionException e) {
+                    throw e.getCause();
+                }
+            }
+
+            Assertions.assertEquals(gens * threads, ids.size());
+            Assertions.assertEquals(1_024, gen.getCapacity());
+            Assertions.assertTrue(gen.getRefills() > 0);
+        }
+    }
+
+    @Test
+    void testFillsAndFallsBack() throws InterruptedException {
+        final BufferedSnowflake gen = new BufferedSnowflake(new LockFreeSnowflake(CONFIG, 1), 16, 4);
+
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (gen.getOccupancy() != 16 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        Assertions.assertEquals(16, gen.getOccupancy());
+        gen.close();
+
+        // Buffered identifiers are served in order, then the generator falls back
+        long prev = gen.nextId();
+        for (int i = 1; i < 16; i++) {
+            final long id = gen.nextId();
+            Assertions.assertTrue(id > prev);
+            prev = id;
+        }
+        Assertions.assertEquals(0, gen.getFallbacks());
+
+        Assertions.assertTrue(gen.nextId() > prev);
+        Assertions.assertEquals(1, gen.getFallbacks());
+        Assertions.assertEquals(0, gen.getOccupancy());
+    }
+
+    @Test
+    void testIllegalArguments() {
+        final LockFreeSnowflake delegate = new LockFreeSnowflake(CONFIG, 1);
+
+        IllegalArgumentException ex = Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new BufferedSnowflake(delegate, 0, 0));
+        Assertions.assertEquals(Constants.EX_ILLEGAL_CAPACITY, ex.getMessage());
+
+        ex = Assertions.assertThrows(IllegalArgumentException.class, () -> new BufferedSnowflake(delegate, 8, 8));
+        Assertions.assertEquals(Constants.EX_ILLEGAL_LOW_WATER_MARK, ex.getMessage());
+
+        ex = Assertions.assertThrows(IllegalArgumentException.class, () -> new BufferedSnowflake(delegate, 8, -1));
+        Assertions.assertEquals(Constants.EX_ILLEGAL_LOW_WATER_MARK, ex.getMessage());
+    }
+}
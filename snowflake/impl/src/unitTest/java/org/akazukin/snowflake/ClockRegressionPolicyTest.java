@@ -0,0 +1,202 @@
+package org.akazukin.snowflake;
+
+import org.akazukin.snowflake.clock.ManualClock;
+import org.akazukin.snowflake.config.SnowflakeConfig;
+import org.akazukin.snowflake.generator.ClockRegressionPolicy;
+import org.akazukin.snowflake.generator.ISnowflake;
+import org.akazukin.snowflake.generator.SnowflakeOptions;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.function.Function;
+
+public final class ClockRegressionPolicyTest {
+    private static final SnowflakeConfig CONFIG = new SnowflakeConfig(1_000, 0, (byte) 2, (byte) 2);
+
+    @Test
+    void testNegativeMaxBorrow() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ClockRegressionPolicy.failFast(-1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ClockRegressionPolicy.borrowThenWait(-1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ClockRegressionPolicy.switchMachineId(-1, 2));
+    }
+
+    @Test
+    void testSpareOutOfRange() {
+        final SnowflakeOptions options = SnowflakeOptions.DEFAULT
+                .withRegressionPolicy(ClockRegressionPolicy.switchMachineId(0, 4));
+        for (final Function<SnowflakeOptions, ISnowflake> factory : Generators.factories(CONFIG)) {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> factory.apply(options));
+        }
+    }
+
+    @Test
+    void testBorrowedMillis() {
+        final ManualClock clock = new ManualClock(1_010);
+        final ClockRegressionPolicy[] policies = new ClockRegressionPolicy[Generators.COUNT];
+        final ISnowflake[] gens = Generators.all(CONFIG, i -> SnowflakeOptions.DEFAULT.withClock(clock)
+                .withRegressionPolicy(policies[i] = ClockRegressionPolicy.unbounded()));
+
+        for (final ISnowflake gen : gens) {
+            gen.nextId();
+        }
+
+        // The clock steps back, identifiers keep increasing above the last timestamp
+        clock.set(1_007);
+        for (final ISnowflake gen : gens) {
+            Assertions.assertEquals(10L << 4 | 1L << 2 | 1L, gen.nextId());
+        }
+        clock.set(1_008);
+        for (final ISnowflake gen : gens) {
+            Assertions.assertEquals(10L << 4 | 1L << 2 | 2L, gen.nextId());
+        }
+
+        for (final ClockRegressionPolicy policy : policies) {
+            Assertions.assertEquals(2, policy.getBorrowedMillis());
+            Assertions.assertEquals(3, policy.getMaxDriftMillis());
+            Assertions.assertEquals(0, policy.getFailures());
+        }
+    }
+
+    @Test
+    void testFailFast() {
+        final ManualClock clock = new ManualClock(1_010);
+        final ClockRegressionPolicy[] policies = new ClockRegressionPolicy[Generators.COUNT];
+        final ISnowflake[] gens = Generators.all(CONFIG, i -> SnowflakeOptions.DEFAULT.withClock(clock)
+                .withRegressionPolicy(policies[i] = ClockRegressionPolicy.failFast(1)));
+
+        for (final ISnowflake gen : gens) {
+            // Exhausts the sequence of the current millisecond and borrows the next one
+            for (int i = 0; i < 8; i++) {
+                gen.nextId();
+            }
+            Assertions.assertThrows(IllegalStateException.class, gen::nextId);
+        }
+
+        clock.advance(1);
+        for (final ISnowflake gen : gens) {
+            Assertions.assertEquals(12L << 4 | 1L << 2, gen.nextId());
+        }
+
+        for (final ClockRegressionPolicy policy : policies) {
+            Assertions.assertEquals(1, policy.getFailures());
+            Assertions.assertEquals(1, policy.getMaxDriftMillis());
+        }
+    }
+
+    @Test
+    void testBlockCheckedByLastId() {
+        final ManualClock clock = new ManualClock(1_010);
+        final ClockRegressionPolicy[] policies = new ClockRegressionPolicy[Generators.COUNT];
+        final ISnowflake[] gens = Generators.all(CONFIG, i -> SnowflakeOptions.DEFAULT.withClock(clock)
+                .withRegressionPolicy(policies[i] = ClockRegressionPolicy.failFast(1)));
+
+        final long[] ids = new long[12];
+        for (final ISnowflake gen : gens) {
+            // Starts at the clock but would end two milliseconds ahead of it
+            Assertions.assertThrows(IllegalStateException.class, () -> gen.nextIds(ids, 0, 12));
+            Assertions.assertThrows(IllegalStateException.class, () -> gen.lease(9));
+
+            gen.nextIds(ids, 0, 8);
+            Assertions.assertEquals(11L << 4 | 1L << 2 | 3L, ids[7]);
+            Assertions.assertThrows(IllegalStateException.class, () -> gen.nextIds(ids, 0, 2));
+        }
+
+        for (final ClockRegressionPolicy policy : policies) {
+            Assertions.assertEquals(3, policy.getFailures());
+            Assertions.assertEquals(1, policy.getMaxDriftMillis());
+        }
+    }
+
+    @Test
+    void testBlockLargerThanBorrow() {
+        final ManualClock clock = new ManualClock(1_010);
+        for (final ClockRegressionPolicy policy : new ClockRegressionPolicy[]{
+                ClockRegressionPolicy.borrowThenWait(0), ClockRegressionPolicy.switchMachineId(0, 3)}) {
+            final ISnowflake[] gens = Generators.all(CONFIG, i -> SnowflakeOptions.DEFAULT.withClock(clock)
+                    .withRegressionPolicy(policy));
+            for (final ISnowflake gen : gens) {
+                // Neither waiting nor switching fits five identifiers into one millisecond
+                Assertions.assertThrows(IllegalStateException.class, () -> gen.lease(5));
+            }
+            Assertions.assertEquals(Generators.COUNT, policy.getFailures());
+            Assertions.assertEquals(0, policy.getSwitches());
+        }
+    }
+
+    @Test
+    void testSwitchMachineIdForBlock() {
+        final ManualClock clock = new ManualClock(1_010);
+        final ISnowflake[] gens = Generators.all(CONFIG, i -> SnowflakeOptions.DEFAULT.withClock(clock)
+                .withRegressionPolicy(ClockRegressionPolicy.switchMachineId(0, 3)));
+
+        final long[] ids = new long[3];
+        for (final ISnowflake gen : gens) {
+            gen.nextIds(ids, 0, 2);
+            // The block would end in the next millisecond, so it starts over with the spare
+            gen.nextIds(ids, 0, 3);
+            Assertions.assertArrayEquals(new long[]{10L << 4 | 3L << 2, 10L << 4 | 3L << 2 | 1L, 10L << 4 | 3L << 2 | 2L}, ids);
+        }
+    }
+
+    @Test
+    void testSwitchMachineId() {
+        final ManualClock clock = new ManualClock(1_010);
+        final ClockRegressionPolicy[] policies = new ClockRegressionPolicy[Generators.COUNT];
+        final ISnowflake[] gens = Generators.all(CONFIG, i -> SnowflakeOptions.DEFAULT.withClock(clock)
+                .withRegressionPolicy(policies[i] = ClockRegressionPolicy.switchMachineId(0, 3)));
+
+        for (final ISnowflake gen : gens) {
+            for (int i = 0; i < 4; i++) {
+                Assertions.assertEquals(10L << 4 | 1L << 2 | i, gen.nextId());
+            }
+            // Restarts at the clock time with the spare machine identifier
+            Assertions.assertEquals(10L << 4 | 3L << 2, gen.nextId());
+        }
+
+        clock.set(1_005);
+        for (final ISnowflake gen : gens) {
+            Assertions.assertThrows(IllegalStateException.class, gen::nextId);
+        }
+
+        for (final ClockRegressionPolicy policy : policies) {
+            Assertions.assertEquals(1, policy.getSwitches());
+            Assertions.assertEquals(1, policy.getFailures());
+        }
+    }
+
+    @Test
+    void testBorrowThenWait() throws InterruptedException {
+        final ManualClock clock = new ManualClock(1_010);
+        final ClockRegressionPolicy[] policies = new ClockRegressionPolicy[Generators.COUNT];
+        final ISnowflake[] gens = Generators.all(CONFIG, i -> SnowflakeOptions.DEFAULT.withClock(clock)
+                .withRegressionPolicy(policies[i] = ClockRegressionPolicy.borrowThenWait(0)));
+
+        for (final ISnowflake gen : gens) {
+            for (int i = 0; i < 4; i++) {
+                gen.nextId();
+            }
+        }
+
+        final Thread ticker = new Thread(() -> {
+            try {
+                Thread.sleep(20);
+            } catch (final InterruptedException ignored) {
+                Thread.currentThread().interrupt();
+            }
+            clock.advance(1);
+        });
+        ticker.start();
+
+        // Blocks until the clock reaches the next millisecond
+        for (final ISnowflake gen : gens) {
+            Assertions.assertEquals(11L << 4 | 1L << 2, gen.nextId());
+        }
+        ticker.join();
+
+        for (final ClockRegressionPolicy policy : policies) {
+            Assertions.assertEquals(0, policy.getFailures());
+            Assertions.assertEquals(0, policy.getBorrowedMillis());
+        }
+        Assertions.assertTrue(policies[0].getWaitedNanos() > 0);
+    }
+}
@@ -0,0 +1,83 @@
+package org.akazukin.snowflake;
+
+import org.akazukin.snowflake.clock.CachedClock;
+import org.akazukin.snowflake.clock.ManualClock;
+import org.akazukin.snowflake.clock.MonotonicClock;
+import org.akazukin.snowflake.config.SnowflakeConfig;
+import org.akazukin.snowflake.generator.AtomicSnowflake;
+import org.akazukin.snowflake.generator.ISnowflake;
+import org.akazukin.snowflake.generator.LockFreeSnowflake;
+import org.akazukin.snowflake.generator.Snowflake;
+import org.akazukin.snowflake.generator.ThreadedSnowflake;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public final class ClockTest {
+    @Test
+    void testManualClock() {
+        final ManualClock clock = new ManualClock(100);
+        Assertions.assertEquals(100, clock.currentTimeMillis());
+
+        Assertions.assertEquals(150, clock.advance(50));
+        Assertions.assertEquals(150, clock.currentTimeMillis());
+
+        clock.set(20);
+        Assertions.assertEquals(20, clock.currentTimeMillis());
+    }
+
+    @Test
+    void testMonotonicClock() {
+        final ManualClock anchor = new ManualClock(1_000_000);
+        final MonotonicClock clock = new MonotonicClock(anchor);
+
+        long prev = clock.currentTimeMillis();
+        Assertions.assertTrue(prev >= 1_000_000);
+
+        // Wall-clock jumps are not observed after construction
+        anchor.set(0);
+        for (int i = 0; i < 10_000; i++) {
+            final long now = clock.currentTimeMillis();
+            Assertions.assertTrue(now >= prev);
+            prev = now;
+        }
+    }
+
+    @Test
+    void testCachedClock() throws InterruptedException {
+        final ManualClock source = new ManualClock(10);
+        try (final CachedClock clock = new CachedClock(source, 1, TimeUnit.MILLISECONDS)) {
+            Assertions.assertEquals(10, clock.currentTimeMillis());
+
+            source.set(20);
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (clock.currentTimeMillis() != 20 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            Assertions.assertEquals(20, clock.currentTimeMillis());
+        }
+    }
+
+    @Test
+    void testGeneratorsUseClock() {
+        final SnowflakeConfig cfg = new SnowflakeConfig(1_000, 0, (byte) 2, (byte) 2);
+        final ManualClock clock = new ManualClock(1_005);
+
+        final ISnowflake[] gens = {
+                new Snowflake(cfg, 1, clock),
+                new AtomicSnowflake(cfg, 1, clock),
+                new LockFreeSnowflake(cfg, 1, clock),
+                new ThreadedSnowflake(cfg, 1, 1, clock)
+        };
+        for (final ISnowflake gen : gens) {
+            Assertions.assertEquals(5L << 4 | 1L << 2, gen.nextId());
+            Assertions.assertEquals(5L << 4 | 1L << 2 | 1L, gen.nextId());
+        }
+
+        clock.advance(2);
+        for (final ISnowflake gen : gens) {
+            Assertions.assertEquals(7L << 4 | 1L << 2, gen.nextId() & ~0b11L);
+        }
+    }
+}
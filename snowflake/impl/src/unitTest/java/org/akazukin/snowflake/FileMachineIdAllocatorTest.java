@@ -0,0 +1,100 @@
+package org.akazukin.snowflake;
+
+import org.akazukin.snowflake.clock.ManualClock;
+import org.akazukin.snowflake.config.SnowflakeConfig;
+import org.akazukin.snowflake.generator.ISnowflake;
+import org.akazukin.snowflake.generator.ThreadedSnowflake;
+import org.akazukin.snowflake.machine.FileMachineIdAllocator;
+import org.akazukin.snowflake.machine.MachineIdLease;
+import org.akazukin.snowflake.parser.SnowflakeParser;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+public final class FileMachineIdAllocatorTest {
+    // 16 machine IDs
+    private static final SnowflakeConfig CONFIG = new SnowflakeConfig(1_000, 500, (byte) 4, (byte) 12);
+    private static final long TTL = 60_000;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testDisjointLeases() throws IOException {
+        final Path file = this.dir.resolve("machines.lease");
+        final ManualClock clock = new ManualClock(10_000);
+        try (FileMachineIdAllocator a = new FileMachineIdAllocator(file, CONFIG, TTL, clock);
+             FileMachineIdAllocator b = new FileMachineIdAllocator(file, CONFIG, TTL, clock)) {
+            Assertions.assertEquals(16, a.getSlotCount());
+
+            final MachineIdLease first = a.acquire(4);
+            final MachineIdLease second = b.acquire(8);
+            final MachineIdLease third = a.acquire();
+            Assertions.assertEquals(0, first.getMachineId());
+            Assertions.assertEquals(4, second.getMachineId());
+            Assertions.assertEquals(12, third.getMachineId());
+            Assertions.assertThrows(IllegalStateException.class, () -> b.acquire(4));
+
+            // Released IDs are leased again
+            first.close();
+            Assertions.assertFalse(first.isValid());
+            Assertions.assertEquals(0, b.acquire(4).getMachineId());
+
+            // The leases work with the generator constructors
+            final ISnowflake gen = new ThreadedSnowflake(CONFIG, second.getMachineId(), second.getCount(), clock);
+            final long machineId = new SnowflakeParser(CONFIG).machineIdOf(gen.nextId());
+            Assertions.assertTrue(machineId >= 4 && machineId < 12);
+        }
+    }
+
+    @Test
+    void testReclaimExpired() throws IOException {
+        final Path file = this.dir.resolve("machines.lease");
+        final ManualClock clock = new ManualClock(10_000);
+        final FileMachineIdAllocator dead = new FileMachineIdAllocator(file, CONFIG, TTL, clock);
+        final MachineIdLease stale = dead.acquire(16);
+
+        try (FileMachineIdAllocator live = new FileMachineIdAllocator(file, CONFIG, TTL, clock)) {
+            Assertions.assertThrows(IllegalStateException.class, live::acquire);
+
+            // Renewed leases are kept
+            clock.advance(TTL - 1);
+            dead.renew();
+            Assertions.assertTrue(stale.isValid());
+
+            // A lease that is not renewed ends a margin before its IDs can be taken over
+            clock.advance(TTL - TTL / 10 - 1);
+            Assertions.assertTrue(stale.isValid());
+            clock.advance(1);
+            Assertions.assertFalse(stale.isValid());
+            clock.advance(TTL / 10 - 1);
+            Assertions.assertThrows(IllegalStateException.class, live::acquire);
+
+            // Expired leases are taken over, and are never renewed by their former owner
+            clock.advance(2);
+            final MachineIdLease lease = live.acquire(2);
+            Assertions.assertEquals(0, lease.getMachineId());
+            Assertions.assertFalse(stale.isValid());
+            dead.renew();
+            Assertions.assertFalse(stale.isValid());
+            Assertions.assertTrue(lease.isValid());
+        }
+        dead.close();
+    }
+
+    @Test
+    void testIncompatibleFile() throws IOException {
+        final Path file = this.dir.resolve("machines.lease");
+        new FileMachineIdAllocator(file, CONFIG, TTL).close();
+        final SnowflakeConfig other = new SnowflakeConfig(1_000, 500, (byte) 5, (byte) 12);
+        Assertions.assertThrows(IllegalStateException.class, () -> new FileMachineIdAllocator(file, other, TTL));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new FileMachineIdAllocator(file, CONFIG, 0));
+
+        final FileMachineIdAllocator closed = new FileMachineIdAllocator(file, CONFIG, TTL);
+        closed.close();
+        Assertions.assertThrows(IllegalStateException.class, closed::acquire);
+    }
+}
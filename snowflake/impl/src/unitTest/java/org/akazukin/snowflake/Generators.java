@@ -0,0 +1,62 @@
+package org.akazukin.snowflake;
+
+import org.akazukin.snowflake.config.ISnowflakeConfig;
+import org.akazukin.snowflake.generator.AtomicSnowflake;
+import org.akazukin.snowflake.generator.ISnowflake;
+import org.akazukin.snowflake.generator.LockFreeSnowflake;
+import org.akazukin.snowflake.generator.ReentrantSnowflake;
+import org.akazukin.snowflake.generator.Snowflake;
+import org.akazukin.snowflake.generator.SnowflakeOptions;
+import org.akazukin.snowflake.generator.SnowflakeRegistry;
+import org.akazukin.snowflake.generator.ThreadedSnowflake;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * Every generator of the library, with machine identifier 1, for the tests that must hold for all of them.
+ */
+final class Generators {
+    /**
+     * Number of generators, in the order of {@link #factories(ISnowflakeConfig)}.
+     */
+    static final int COUNT = 6;
+
+    private Generators() {
+    }
+
+    /**
+     * Returns a factory per generator. The pool of {@link ThreadedSnowflake} has a single slot,
+     * so its identifiers carry machine identifier 1 as well.
+     *
+     * @param config configuration of the generators
+     * @return factories creating a generator from its options
+     */
+    static List<Function<SnowflakeOptions, ISnowflake>> factories(final ISnowflakeConfig config) {
+        return Arrays.asList(
+                o -> new Snowflake(config, 1, o),
+                o -> new AtomicSnowflake(config, 1, o),
+                o -> new ReentrantSnowflake(config, 1, o),
+                o -> new LockFreeSnowflake(config, 1, o),
+                o -> new ThreadedSnowflake(config, 1, 1, o),
+                o -> new SnowflakeRegistry<String>(key -> config, 1, 1_000, o).get("key"));
+    }
+
+    /**
+     * Creates every generator.
+     *
+     * @param config  configuration of the generators
+     * @param options options of the generator at the given index
+     * @return generators, {@link #COUNT} of them
+     */
+    static ISnowflake[] all(final ISnowflakeConfig config, final IntFunction<SnowflakeOptions> options) {
+        final List<Function<SnowflakeOptions, ISnowflake>> factories = factories(config);
+        final ISnowflake[] generators = new ISnowflake[factories.size()];
+        for (int i = 0; i < generators.length; i++) {
+            generators[i] = factories.get(i).apply(options.apply(i));
+        }
+        return generators;
+    }
+}
@@ -0,0 +1,301 @@
+package org.akazukin.snowflake;
+
+import org.akazukin.snowflake.config.ISnowflakeConfig;
+import org.akazukin.snowflake.config.SnowflakeConfig;
+import org.akazukin.snowflake.config.SnowflakeConfigUtils;
+import org.akazukin.snowflake.generator.ReentrantSnowflake;
+import org.akazukin.snowflake.generator.ISnowflake;
+import org.akazukin.snowflake.generator.ISnowflakeLease;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+public final class ReentrantSnowflakeTest {
+    @Test
+    void test() throws Throwable {
+        final byte threads = 6;
+        final int gens = 10_000;
+
+
+        final ISnowflakeConfig cfg = new ISnowflakeConfig() {
+            @Override
+            public long getTimestampStart() {
+                return 0;
+            }
+
+            @Override
+            public long getTimestampOffset() {
+                return 0;
+            }
+
+            @Override
+            public byte getMachineIdBits() {
+                return 0;
+            }
+
+            @Override
+            public byte getSequenceBits() {
+                return (byte) 22;
+            }
+        };
+
+        final ISnowflake gen = new ReentrantSnowflake(cfg, 0);
+        final Set<Long> ids = ConcurrentHashMap.newKeySet();
+
+        final ThreadPoolExecutor executor = (ThreadPoolExecutor) Executors.newFixedThreadPool(threads);
+        final Set<Future<?>> tasks = new HashSet<>();
+        final Runnable task = () -> {
+            for (int i2 = 0; i2 < gens; i2++) {
+                ids.add(gen.nextId());
+            }
+        };
+        for (int i = 0; i < executor.getMaximumPoolSize(); i++) {
+            tasks.add(executor.submit(task));
+        }
+        executor.shutdown();
+        if (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+            executor.shutdownNow();
+        }
+
+        for (final Future<?> t : tasks) {
+            try {
+                t.get();
+            } catch (final InterruptedException e) {
+                throw e;
+            } catch (final ExecutionException e) {
+                throw e.getCause();
+            }
+        }
+
+        Assertions.assertEquals(gens * threads, ids.size());
+    }
+
+    @Test
+    void testVirtualThreads() throws Throwable {
+        final ExecutorService executor;
+        try {
+            executor = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (final NoSuchMethodException e) {
+            Assumptions.abort("Virtual threads are not available");
+            return;
+        }
+
+        final int tasks = 1_000;
+        final int gens = 100;
+        final ISnowflake gen = new ReentrantSnowflake(new SnowflakeConfig(0, 0, (byte) 0, (byte) 22), 0);
+        final Set<Long> ids = ConcurrentHashMap.newKeySet();
+
+        final Set<Future<?>> futures = new HashSet<>();
+        for (int i = 0; i < tasks; i++) {
+            futures.add(executor.submit(() -> {
+                for (int i2 = 0; i2 < gens; i2++) {
+                    ids.add(gen.nextId());
+                }
+            }));
+        }
+        executor.shutdown();
+        if (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+            executor.shutdownNow();
+        }
+
+        for (final Future<?> t : futures) {
+            try {
+                t.get();
+            } catch (final ExecutionException e) {
+                throw e.getCause();
+            }
+        }
+
+        Assertions.assertEquals(tasks * gens, ids.size());
+    }
+
+    @Test
+    void testNextIds() {
+        final ISnowflake gen = new ReentrantSnowflake(new SnowflakeConfig(0, 0, (byte) 2, (byte) 2), 3);
+
+        final long[] ids = new long[102];
+        gen.nextIds(ids, 1, 100);
+        Assertions.assertEquals(0L, ids[0]);
+        Assertions.assertEquals(0L, ids[101]);
+        for (int i = 2; i <= 100; i++) {
+            Assertions.assertTrue(ids[i] > ids[i - 1]);
+        }
+        Assertions.assertTrue(gen.nextId() > ids[100]);
+
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> gen.nextIds(ids, 100, 3));
+    }
+
+    @Test
+    void testLease() {
+        final ISnowflake gen = new ReentrantSnowflake(new SnowflakeConfig(0, 0, (byte) 2, (byte) 2), 3);
+
+        final ISnowflakeLease lease = gen.lease(100);
+        Assertions.assertEquals(100, lease.remaining());
+        long prev = lease.nextLong();
+        while (lease.hasNext()) {
+            final long id = lease.nextLong();
+            Assertions.assertTrue(id > prev);
+            prev = id;
+        }
+        Assertions.assertEquals(0, lease.remaining());
+        Assertions.assertTrue(gen.nextId() > prev);
+
+        Assertions.assertFalse(gen.lease(0).hasNext());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> gen.lease(-1));
+    }
+
+    @Test
+    void testTooManyBits() {
+        final IllegalStateException ex = Assertions.assertThrows(IllegalStateException.class, () -> {
+            new ReentrantSnowflake(new ISnowflakeConfig() {
+                @Override
+                public long getTimestampStart() {
+                    return 0;
+                }
+
+                @Override
+                public long getTimestampOffset() {
+                    return 0;
+                }
+
+                @Override
+                public byte getMachineIdBits() {
+                    return 10;
+                }
+
+                @Override
+                public byte getSequenceBits() {
+                    return 13;
+                }
+            }, 0L);
+        });
+
+        Assertions.assertEquals(SnowflakeConfigUtils.EX_ILLEGAL_BITS, ex.getMessage());
+    }
+
+    @Test
+    void testNegativeMachineIdBits() {
+        final IllegalStateException ex = Assertions.assertThrows(IllegalStateException.class, () -> {
+            new ReentrantSnowflake(new ISnowflakeConfig() {
+                @Override
+                public long getTimestampStart() {
+                    return 0;
+                }
+
+                @Override
+                public long getTimestampOffset() {
+                    return 0;
+                }
+
+                @Override
+                public byte getMachineIdBits() {
+                    return -1;
+                }
+
+                @Override
+                public byte getSequenceBits() {
+                    return 0;
+                }
+            }, 0L);
+        });
+
+        Assertions.assertEquals(SnowflakeConfigUtils.EX_MACHINE_BITS_NEGATIVE, ex.getMessage());
+    }
+
+    @Test
+    void testNegativeSequenceBits() {
+        final IllegalStateException ex = Assertions.assertThrows(IllegalStateException.class, () -> {
+            new ReentrantSnowflake(new ISnowflakeConfig() {
+                @Override
+                public long getTimestampStart() {
+                    return 0;
+                }
+
+                @Override
+                public long getTimestampOffset() {
+                    return 0;
+                }
+
+                @Override
+                public byte getMachineIdBits() {
+                    return 0;
+                }
+
+                @Override
+                public byte getSequenceBits() {
+                    return -1;
+                }
+            }, 0L);
+        });
+
+        Assertions.assertEquals(SnowflakeConfigUtils.EX_SEQUENCE_BITS_NEGATIVE, ex.getMessage());
+    }
+
+    @Test
+    void testMachineIdNegative() {
+        final IllegalArgumentException ex = Assertions.assertThrows(IllegalArgumentException.class, () -> {
+            new ReentrantSnowflake(new ISnowflakeConfig() {
+                @Override
+                public long getTimestampStart() {
+                    return 0;
+                }
+
+                @Override
+                public long getTimestampOffset() {
+                    return 0;
+                }
+
+                @Override
+                public byte getMachineIdBits() {
+                    return 0;
+                }
+
+                @Override
+                public byte getSequenceBits() {
+                    return 0;
+                }
+            }, -1L);
+        });
+
+        Assertions.assertEquals(Constants.EX_ILLEGAL_MACHINE_NUM_NEGATIVE, ex.getMessage());
+    }
+
+    @Test
+    void testMachineIdTooBig() {
+        final IllegalArgumentException ex = Assertions.assertThrows(IllegalArgumentException.class, () -> {
+            new ReentrantSnowflake(new ISnowflakeConfig() {
+                @Override
+                public long getTimestampStart() {
+                    return 0;
+                }
+
+                @Override
+                public long getTimestampOffset() {
+                    return 0;
+                }
+
+                @Override
+                public byte getMachineIdBits() {
+                    return 0;
+                }
+
+                @Override
+                public byte getSequenceBits() {
+                    return 0;
+                }
+            }, 2L);
+        });
+
+        Assertions.assertEquals(Constants.EX_ILLEGAL_MACHINE_NUM_BIGGER, ex.getMessage());
+    }
+}
@@ -0,0 +1,104 @@
+package org.akazukin.snowflake;
+
+import org.akazukin.snowflake.clock.ManualClock;
+import org.akazukin.snowflake.config.SnowflakeConfig;
+import org.akazukin.snowflake.generator.AtomicSnowflake;
+import org.akazukin.snowflake.generator.ISnowflake;
+import org.akazukin.snowflake.parser.SnowflakeBlockCodec;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.SplittableRandom;
+
+public final class SnowflakeBlockCodecTest {
+    private static final SnowflakeConfig CONFIG = new SnowflakeConfig(1_000, 500, (byte) 10, (byte) 12);
+
+    @Test
+    void testRoundTripGenerated() {
+        final SnowflakeBlockCodec codec = new SnowflakeBlockCodec(CONFIG);
+        final ManualClock clock = new ManualClock(10_000);
+        final ISnowflake gen = new AtomicSnowflake(CONFIG, 5, clock);
+
+        final long[] ids = new long[4096];
+        for (int i = 0; i < ids.length; i += 64) {
+            gen.nextIds(ids, i, 64);
+            clock.advance(i % 3);
+        }
+
+        for (final ByteBuffer buf : new ByteBuffer[]{
+                ByteBuffer.allocate(codec.maxEncodedSize(ids.length)),
+                ByteBuffer.allocateDirect(codec.maxEncodedSize(ids.length)).order(ByteOrder.LITTLE_ENDIAN)}) {
+            final int size = codec.encode(ids, 0, ids.length, buf);
+            Assertions.assertEquals(codec.encodedSize(ids, 0, ids.length), size);
+            Assertions.assertEquals(size, buf.position());
+            // One byte of timestamp delta and at most two bytes of sequence per ID
+            Assertions.assertTrue(size < ids.length * 3);
+
+            buf.flip();
+            Assertions.assertEquals(ids.length, codec.count(buf));
+            Assertions.assertEquals(0, buf.position());
+
+            final long[] decoded = new long[ids.length];
+            Assertions.assertEquals(ids.length, codec.decode(buf, decoded, 0));
+            Assertions.assertArrayEquals(ids, decoded);
+            Assertions.assertFalse(buf.hasRemaining());
+        }
+    }
+
+    @Test
+    void testStreamOfBlocks() {
+        final SnowflakeBlockCodec codec = new SnowflakeBlockCodec(CONFIG);
+        final SplittableRandom random = new SplittableRandom(42);
+
+        // Unsorted and extreme values round-trip as well
+        final long[] ids = new long[1000];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = i < 3 ? new long[]{0, Long.MAX_VALUE, -1}[i] : random.nextLong();
+        }
+
+        final int[] lengths = {0, 1, 2, 3, 7, 64, 923};
+        final ByteBuffer buf = ByteBuffer.allocate(codec.maxEncodedSize(ids.length) * lengths.length);
+        int off = 0;
+        for (final int len : lengths) {
+            codec.encode(ids, off, len, buf);
+            off += len;
+        }
+
+        buf.flip();
+        final long[] decoded = new long[ids.length + 1];
+        off = 1;
+        for (final int len : lengths) {
+            Assertions.assertEquals(len, codec.decode(buf, decoded, off));
+            off += len;
+        }
+        Assertions.assertFalse(buf.hasRemaining());
+        for (int i = 0; i < ids.length; i++) {
+            Assertions.assertEquals(ids[i], decoded[i + 1]);
+        }
+    }
+
+    @Test
+    void testErrors() {
+        final SnowflakeBlockCodec codec = new SnowflakeBlockCodec(CONFIG);
+        final long[] ids = {1L << 22, 2L << 22, 3L << 22};
+
+        // Nothing is written if the block does not fit
+        final ByteBuffer small = ByteBuffer.allocate(codec.encodedSize(ids, 0, 3) - 1);
+        Assertions.assertThrows(BufferOverflowException.class, () -> codec.encode(ids, 0, 3, small));
+        Assertions.assertEquals(0, small.position());
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> codec.encode(ids, 1, 3, small));
+
+        // The position is kept if the destination is too small
+        final ByteBuffer buf = ByteBuffer.allocate(codec.maxEncodedSize(3));
+        codec.encode(ids, 0, 3, buf);
+        buf.flip();
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> codec.decode(buf, new long[3], 1));
+        Assertions.assertEquals(0, buf.position());
+
+        final ByteBuffer malformed = ByteBuffer.wrap(new byte[]{-1, -1, -1, -1, -1, -1, -1, -1, -1, -1, 1});
+        Assertions.assertThrows(IllegalArgumentException.class, () -> codec.decode(malformed, new long[3], 0));
+    }
+}
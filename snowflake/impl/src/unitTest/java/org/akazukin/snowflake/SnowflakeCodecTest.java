@@ -0,0 +1,101 @@
+package org.akazukin.snowflake;
+
+import org.akazukin.snowflake.parser.SnowflakeCodec;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+
+public final class SnowflakeCodecTest {
+    private static final SnowflakeCodec[] CODECS = {SnowflakeCodec.CROCKFORD_BASE32, SnowflakeCodec.BASE62};
+
+    @Test
+    void testKnownValues() {
+        Assertions.assertEquals("0000000000000", SnowflakeCodec.CROCKFORD_BASE32.encode(0));
+        Assertions.assertEquals("000000000001Z", SnowflakeCodec.CROCKFORD_BASE32.encode(63));
+        Assertions.assertEquals("7ZZZZZZZZZZZZ", SnowflakeCodec.CROCKFORD_BASE32.encode(Long.MAX_VALUE));
+        Assertions.assertEquals("FZZZZZZZZZZZZ", SnowflakeCodec.CROCKFORD_BASE32.encode(-1));
+
+        Assertions.assertEquals("00000000000", SnowflakeCodec.BASE62.encode(0));
+        Assertions.assertEquals("00000000011", SnowflakeCodec.BASE62.encode(63));
+        Assertions.assertEquals("AzL8n0Y58m7", SnowflakeCodec.BASE62.encode(Long.MAX_VALUE));
+        Assertions.assertEquals("LygHa16AHYF", SnowflakeCodec.BASE62.encode(-1));
+    }
+
+    @Test
+    void testRoundTripAndOrder() throws IOException {
+        final SplittableRandom random = new SplittableRandom(42);
+        for (final SnowflakeCodec codec : CODECS) {
+            final int n = codec.getLength();
+            String prev = null;
+            long prevId = -1;
+            for (int i = 0; i < 10_000; i++) {
+                final long id = i < 3 ? new long[]{0, Long.MAX_VALUE, -1}[i] : random.nextLong();
+
+                final char[] chars = new char[n + 1];
+                Assertions.assertEquals(n + 1, codec.encode(id, chars, 1));
+                final byte[] bytes = new byte[n];
+                codec.encode(id, bytes, 0);
+                final ByteBuffer direct = ByteBuffer.allocateDirect(n);
+                codec.encode(id, direct);
+                final String str = codec.encode(id, new StringBuilder()).toString();
+
+                Assertions.assertEquals(n, str.length());
+                Assertions.assertEquals(str, new String(chars, 1, n));
+                Assertions.assertEquals(str, new String(bytes, StandardCharsets.US_ASCII));
+                Assertions.assertFalse(direct.hasRemaining());
+
+                Assertions.assertEquals(id, codec.decode(str, 0));
+                Assertions.assertEquals(id, codec.decode(chars, 1));
+                Assertions.assertEquals(id, codec.decode(bytes, 0));
+                direct.flip();
+                Assertions.assertEquals(id, codec.decode(direct));
+
+                // Lexicographic order matches the unsigned order of the IDs
+                if (prev != null) {
+                    Assertions.assertEquals(Integer.signum(Long.compareUnsigned(prevId, id)),
+                            Integer.signum(prev.compareTo(str)));
+                }
+                prev = str;
+                prevId = id;
+            }
+        }
+    }
+
+    @Test
+    void testBulk() {
+        final long[] ids = {1, 2, 1L << 40, Long.MAX_VALUE};
+        for (final SnowflakeCodec codec : CODECS) {
+            final char[] chars = new char[ids.length * codec.getLength()];
+            Assertions.assertEquals(chars.length, codec.encode(ids, 0, ids.length, chars, 0));
+            final byte[] bytes = new byte[ids.length * codec.getLength()];
+            codec.encode(ids, 0, ids.length, bytes, 0);
+
+            final long[] fromChars = new long[ids.length];
+            codec.decode(chars, 0, fromChars, 0, ids.length);
+            final long[] fromBytes = new long[ids.length];
+            codec.decode(bytes, 0, fromBytes, 0, ids.length);
+            Assertions.assertArrayEquals(ids, fromChars);
+            Assertions.assertArrayEquals(ids, fromBytes);
+
+            Assertions.assertThrows(IndexOutOfBoundsException.class,
+                    () -> codec.encode(ids, 0, ids.length, new char[chars.length - 1], 0));
+        }
+    }
+
+    @Test
+    void testInvalid() {
+        Assertions.assertEquals(SnowflakeCodec.CROCKFORD_BASE32.decode("000000000001Z", 0),
+                SnowflakeCodec.CROCKFORD_BASE32.decode("oOoOOOOOOOOlz", 0));
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> SnowflakeCodec.CROCKFORD_BASE32.decode("G000000000000", 0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> SnowflakeCodec.CROCKFORD_BASE32.decode("000000000000U", 0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> SnowflakeCodec.BASE62.decode("LygHa16AHYG", 0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> SnowflakeCodec.BASE62.decode("0000000000-", 0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> SnowflakeCodec.BASE62.decode("000000000é0", 0));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> SnowflakeCodec.BASE62.decode("0000000000", 0));
+    }
+}
@@ -0,0 +1,75 @@
+package org.akazukin.snowflake;
+
+import org.akazukin.snowflake.clock.ManualClock;
+import org.akazukin.snowflake.config.SnowflakeConfig;
+import org.akazukin.snowflake.generator.AtomicSnowflake;
+import org.akazukin.snowflake.generator.ISnowflake;
+import org.akazukin.snowflake.parser.SnowflakeIdRanges;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public final class SnowflakeIdRangesTest {
+    private static final SnowflakeConfig CONFIG = new SnowflakeConfig(1_000, 500, (byte) 10, (byte) 12);
+
+    @Test
+    void testWindowContainsGeneratedIds() {
+        final SnowflakeIdRanges ranges = new SnowflakeIdRanges(CONFIG);
+        final ManualClock clock = new ManualClock(10_000);
+
+        final long[] ids = new long[4];
+        for (int machine = 0; machine < ids.length; machine++) {
+            final ISnowflake gen = new AtomicSnowflake(CONFIG, machine * 341, clock);
+            ids[machine] = gen.nextId();
+        }
+
+        for (final long id : ids) {
+            Assertions.assertTrue(id >= ranges.minId(10_000) && id <= ranges.maxId(10_000));
+            Assertions.assertTrue(id >= ranges.minId(9_000) && id <= ranges.maxId(11_000));
+            Assertions.assertTrue(id > ranges.maxId(9_999));
+            Assertions.assertTrue(id < ranges.minId(10_001));
+        }
+
+        // Restricted to the machines 341 to 682
+        Assertions.assertTrue(ids[0] < ranges.minId(10_000, 341));
+        Assertions.assertTrue(ids[1] >= ranges.minId(10_000, 341));
+        Assertions.assertTrue(ids[2] <= ranges.maxId(10_000, 682));
+        Assertions.assertTrue(ids[3] > ranges.maxId(10_000, 682));
+    }
+
+    @Test
+    void testBounds() {
+        final SnowflakeIdRanges ranges = new SnowflakeIdRanges(CONFIG);
+
+        Assertions.assertEquals(0, ranges.minId(0));
+        Assertions.assertEquals((1L << 22) - 1, ranges.maxId(1_500));
+        Assertions.assertTrue(ranges.maxId(1_499) < ranges.minId(0));
+        Assertions.assertEquals(Long.MAX_VALUE, ranges.maxId(Long.MAX_VALUE - 1_500));
+        Assertions.assertEquals(Long.MAX_VALUE, ranges.minId(Long.MAX_VALUE - 1_500));
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ranges.minId(0, -1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ranges.maxId(0, 1024));
+    }
+
+    @Test
+    void testBatch() {
+        final SnowflakeIdRanges ranges = new SnowflakeIdRanges(CONFIG);
+
+        final long[] from = {2_000, 5_000, 0};
+        final long[] to = {3_000, 5_000, 1_000};
+        final long[] minIds = new long[4];
+        final long[] maxIds = new long[4];
+        ranges.idRanges(from, to, 0, 3, minIds, maxIds, 1, 2, 5);
+
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertEquals(ranges.minId(from[i], 2), minIds[i + 1]);
+            Assertions.assertEquals(ranges.maxId(to[i], 5), maxIds[i + 1]);
+        }
+        Assertions.assertEquals(-1, maxIds[3]);
+
+        Assertions.assertThrows(IndexOutOfBoundsException.class,
+                () -> ranges.idRanges(from, to, 0, 3, new long[2], maxIds, 0));
+        final IllegalArgumentException ex = Assertions.assertThrows(IllegalArgumentException.class,
+                () -> ranges.idRanges(from, to, 0, 3, minIds, maxIds, 1, 5, 2));
+        Assertions.assertEquals(Constants.EX_ILLEGAL_MACHINE_ORDER, ex.getMessage());
+    }
+}
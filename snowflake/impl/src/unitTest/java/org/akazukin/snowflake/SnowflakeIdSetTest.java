@@ -0,0 +1,118 @@
+package org.akazukin.snowflake;
+
+import org.akazukin.snowflake.clock.ManualClock;
+import org.akazukin.snowflake.collection.SnowflakeIdSet;
+import org.akazukin.snowflake.config.SnowflakeConfig;
+import org.akazukin.snowflake.generator.AtomicSnowflake;
+import org.akazukin.snowflake.generator.ISnowflake;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+
+public final class SnowflakeIdSetTest {
+    private static final SnowflakeConfig CONFIG = new SnowflakeConfig(1_000, 500, (byte) 10, (byte) 12);
+    // Small layout so that buckets turn into bitmaps quickly
+    private static final SnowflakeConfig SMALL = new SnowflakeConfig(1_000, 500, (byte) 2, (byte) 6);
+
+    @Test
+    void testGeneratedIds() {
+        final SnowflakeIdSet set = new SnowflakeIdSet(CONFIG);
+        final ManualClock clock = new ManualClock(10_000);
+        final ISnowflake gen = new AtomicSnowflake(CONFIG, 5, clock);
+
+        final long[] ids = new long[10_000];
+        for (int i = 0; i < ids.length; i += 100) {
+            gen.nextIds(ids, i, 100);
+            clock.advance(1);
+        }
+        for (final long id : ids) {
+            Assertions.assertTrue(set.add(id));
+        }
+        Assertions.assertFalse(set.add(ids[42]));
+        Assertions.assertEquals(ids.length, set.size());
+        Assertions.assertEquals(100, set.getBucketCount());
+
+        for (final long id : ids) {
+            Assertions.assertTrue(set.contains(id));
+            Assertions.assertFalse(set.contains(id + 500));
+        }
+
+        // Iteration is ascending, and windows are inclusive
+        final List<Long> all = new ArrayList<>();
+        set.forEach(all::add);
+        Assertions.assertEquals(ids.length, all.size());
+        for (int i = 0; i < ids.length; i++) {
+            Assertions.assertEquals(ids[i], all.get(i));
+        }
+        final List<Long> window = new ArrayList<>();
+        set.forEach(10_010, 10_012, window::add);
+        Assertions.assertEquals(300, window.size());
+        Assertions.assertEquals(ids[1000], window.get(0));
+        Assertions.assertEquals(ids[1299], window.get(299));
+
+        Assertions.assertEquals(1000, set.removeBefore(10_010));
+        Assertions.assertEquals(ids.length - 1000, set.size());
+        Assertions.assertEquals(90, set.getBucketCount());
+        Assertions.assertFalse(set.contains(ids[999]));
+        Assertions.assertTrue(set.contains(ids[1000]));
+        Assertions.assertEquals(0, set.removeBefore(10_010));
+    }
+
+    @Test
+    void testAgainstTreeSet() {
+        final SplittableRandom random = new SplittableRandom(42);
+        final SnowflakeIdSet a = new SnowflakeIdSet(SMALL);
+        final SnowflakeIdSet b = new SnowflakeIdSet(SMALL);
+        final TreeSet<Long> expectedA = new TreeSet<>();
+        final TreeSet<Long> expectedB = new TreeSet<>();
+
+        // Dense and sparse buckets, in random order
+        for (int i = 0; i < 20_000; i++) {
+            final long id = random.nextLong(64) << 8 | random.nextLong(i % 2 == 0 ? 256 : 8);
+            Assertions.assertEquals(expectedA.add(id), a.add(id));
+            final long other = random.nextLong(64) << 8 | random.nextLong(i % 3 == 0 ? 256 : 16);
+            Assertions.assertEquals(expectedB.add(other), b.add(other));
+        }
+        assertSame(expectedA, a);
+        assertSame(expectedB, b);
+
+        final SnowflakeIdSet union = new SnowflakeIdSet(SMALL);
+        union.or(a);
+        union.or(b);
+        final TreeSet<Long> expectedUnion = new TreeSet<>(expectedA);
+        expectedUnion.addAll(expectedB);
+        assertSame(expectedUnion, union);
+
+        final SnowflakeIdSet intersection = new SnowflakeIdSet(SMALL);
+        intersection.or(a);
+        intersection.and(b);
+        final TreeSet<Long> expectedIntersection = new TreeSet<>(expectedA);
+        expectedIntersection.retainAll(expectedB);
+        assertSame(expectedIntersection, intersection);
+
+        // The operands are left unchanged
+        assertSame(expectedA, a);
+        assertSame(expectedB, b);
+
+        final SnowflakeIdSet empty = new SnowflakeIdSet(SMALL);
+        a.and(empty);
+        Assertions.assertTrue(a.isEmpty());
+        Assertions.assertEquals(0, a.getBucketCount());
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> b.or(new SnowflakeIdSet(CONFIG)));
+    }
+
+    private static void assertSame(final TreeSet<Long> expected, final SnowflakeIdSet actual) {
+        Assertions.assertEquals(expected.size(), actual.size());
+        final List<Long> ids = new ArrayList<>();
+        actual.forEach(ids::add);
+        Assertions.assertEquals(new ArrayList<>(expected), ids);
+        for (final long id : expected) {
+            Assertions.assertTrue(actual.contains(id));
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package org.akazukin.snowflake;
+
+import org.akazukin.snowflake.clock.ManualClock;
+import org.akazukin.snowflake.config.SnowflakeConfig;
+import org.akazukin.snowflake.generator.AtomicSnowflake;
+import org.akazukin.snowflake.generator.ISnowflake;
+import org.akazukin.snowflake.generator.ISnowflakeMetrics;
+import org.akazukin.snowflake.generator.SnowflakeMetrics;
+import org.akazukin.snowflake.generator.SnowflakeOptions;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.function.Function;
+
+public final class SnowflakeMetricsTest {
+    private static final SnowflakeConfig CONFIG = new SnowflakeConfig(1_000, 500, (byte) 10, (byte) 12);
+
+    @Test
+    void testCounters() {
+        for (final Function<SnowflakeOptions, ISnowflake> factory : Generators.factories(CONFIG)) {
+            final ManualClock clock = new ManualClock(10_000);
+            final SnowflakeMetrics metrics = SnowflakeMetrics.enabled();
+            final ISnowflake gen = factory.apply(SnowflakeOptions.DEFAULT.withClock(clock).withMetrics(metrics));
+            Assertions.assertSame(metrics, gen.getMetrics());
+
+            // Exhausts the sequence of the current millisecond and borrows the next one
+            gen.nextIds(new long[4096], 0, 4096);
+            Assertions.assertEquals(0, metrics.getSequenceExhaustions());
+            Assertions.assertEquals(0, metrics.getBorrowedMillis());
+            gen.nextId();
+            gen.lease(10).nextLong();
+            Assertions.assertEquals(1, metrics.getSequenceExhaustions());
+            Assertions.assertEquals(1, metrics.getBorrowedMillis());
+
+            clock.advance(5);
+            gen.nextId();
+
+            final SnowflakeMetrics.Snapshot snapshot = metrics.snapshot();
+            Assertions.assertEquals(4108, snapshot.getIssuedIds());
+            Assertions.assertEquals(1, snapshot.getSequenceExhaustions());
+            Assertions.assertEquals(1, snapshot.getBorrowedMillis());
+            Assertions.assertEquals(0, snapshot.getCasRetries());
+            Assertions.assertEquals(0, snapshot.getSlotHops());
+            Assertions.assertEquals(0, snapshot.getWaits());
+        }
+    }
+
+    @Test
+    void testDisabled() {
+        for (final Function<SnowflakeOptions, ISnowflake> factory : Generators.factories(CONFIG)) {
+            final ISnowflake gen = factory.apply(SnowflakeOptions.DEFAULT);
+            gen.nextIds(new long[10_000], 0, 10_000);
+            final ISnowflakeMetrics metrics = gen.getMetrics();
+            Assertions.assertFalse(((SnowflakeMetrics) metrics).isEnabled());
+            Assertions.assertEquals(0, metrics.getIssuedIds());
+            Assertions.assertEquals(0, metrics.getSequenceExhaustions());
+        }
+        Assertions.assertEquals(0, new ISnowflake() {
+            @Override
+            public long nextId() {
+                return 0;
+            }
+        }.getMetrics().getIssuedIds());
+    }
+
+    @Test
+    void testMBean() throws JMException {
+        final SnowflakeMetrics metrics = SnowflakeMetrics.enabled();
+        new AtomicSnowflake(CONFIG, 1, SnowflakeOptions.DEFAULT.withMetrics(metrics)).nextIds(new long[42], 0, 42);
+
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        final ObjectName name = metrics.registerMBean("test");
+        try {
+            Assertions.assertEquals(42L, server.getAttribute(name, "IssuedIds"));
+            Assertions.assertEquals(0L, server.getAttribute(name, "CasRetries"));
+            Assertions.assertThrows(JMException.class, () -> metrics.registerMBean("test"));
+        } finally {
+            server.unregisterMBean(name);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package org.akazukin.snowflake;
+
+import org.akazukin.snowflake.clock.ManualClock;
+import org.akazukin.snowflake.config.SnowflakeConfig;
+import org.akazukin.snowflake.generator.AtomicSnowflake;
+import org.akazukin.snowflake.generator.ISnowflake;
+import org.akazukin.snowflake.generator.LockFreeSnowflake;
+import org.akazukin.snowflake.generator.Snowflake;
+import org.akazukin.snowflake.generator.ThreadedSnowflake;
+import org.akazukin.snowflake.parser.SnowflakeParser;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+
+public final class SnowflakeParserTest {
+    private static final SnowflakeConfig CONFIG = new SnowflakeConfig(1_000, 0, (byte) 10, (byte) 12);
+
+    @Test
+    void testParse() {
+        final ManualClock clock = new ManualClock(1_000 + (1L << 40) + 5);
+        final ISnowflake gen = new AtomicSnowflake(CONFIG, 1023, clock);
+        final SnowflakeParser parser = new SnowflakeParser(CONFIG);
+
+        gen.nextId();
+        final SnowflakeParser.Result result = parser.parse(gen.nextId());
+        Assertions.assertEquals((1L << 40) + 5, result.getTimestamp());
+        Assertions.assertEquals(1023, result.getMachineId());
+        Assertions.assertEquals(1, result.getSequence());
+    }
+
+    @Test
+    void testExtractors() {
+        final SnowflakeConfig cfg = new SnowflakeConfig(1_000, 500, (byte) 10, (byte) 12);
+        final ManualClock clock = new ManualClock(123_456);
+        final SnowflakeParser parser = new SnowflakeParser(cfg);
+
+        final ISnowflake[] gens = {
+                new Snowflake(cfg, 7, clock),
+                new AtomicSnowflake(cfg, 7, clock),
+                new LockFreeSnowflake(cfg, 7, clock),
+                new ThreadedSnowflake(cfg, 7, 1, clock)
+        };
+        for (final ISnowflake gen : gens) {
+            gen.nextId();
+            final long id = gen.nextId();
+            Assertions.assertEquals(123_456, parser.epochMillisOf(id));
+            Assertions.assertEquals(123_456 - 1_500, parser.timestampOf(id));
+            Assertions.assertEquals(7, parser.machineIdOf(id));
+            Assertions.assertEquals(1, parser.sequenceOf(id));
+        }
+    }
+
+    @Test
+    void testParseColumns() {
+        final ISnowflake gen = new AtomicSnowflake(CONFIG, 517, new ManualClock(123_456));
+        final SnowflakeParser parser = new SnowflakeParser(CONFIG);
+
+        final long[] ids = new long[1_003];
+        gen.nextIds(ids, 0, ids.length);
+
+        final long[] timestamps = new long[ids.length + 2];
+        final long[] machineIds = new long[ids.length + 2];
+        final long[] sequences = new long[ids.length + 2];
+        parser.parse(ids, 1, ids.length - 1, timestamps, machineIds, sequences, 2);
+
+        for (int i = 1; i < ids.length; i++) {
+            final SnowflakeParser.Result expected = parser.parse(ids[i]);
+            Assertions.assertEquals(expected.getTimestamp(), timestamps[i + 1]);
+            Assertions.assertEquals(expected.getMachineId(), machineIds[i + 1]);
+            Assertions.assertEquals(expected.getSequence(), sequences[i + 1]);
+        }
+        Assertions.assertEquals(0, timestamps[1]);
+
+        // Skipped columns are left alone
+        final long[] onlySequences = new long[ids.length];
+        parser.parse(ids, 0, ids.length, null, null, onlySequences, 0);
+        Assertions.assertEquals(sequences[2], onlySequences[1]);
+
+        Assertions.assertThrows(IndexOutOfBoundsException.class,
+                () -> parser.parse(ids, 0, ids.length, new long[ids.length - 1], null, null, 0));
+        Assertions.assertThrows(IndexOutOfBoundsException.class,
+                () -> parser.parse(ids, 1, ids.length, null, null, null, 0));
+    }
+
+    @Test
+    void testParseBuffer() {
+        final ISnowflake gen = new AtomicSnowflake(CONFIG, 3, new ManualClock(98_765));
+        final SnowflakeParser parser = new SnowflakeParser(CONFIG);
+
+        final long[] ids = new long[100];
+        gen.nextIds(ids, 0, ids.length);
+
+        final LongBuffer heap = LongBuffer.wrap(ids);
+        heap.position(10);
+        final LongBuffer direct = ByteBuffer.allocateDirect(ids.length * Long.BYTES).asLongBuffer();
+        direct.put(ids).position(10);
+
+        for (final LongBuffer buffer : new LongBuffer[]{heap.slice(), direct.slice()}) {
+            final long[] timestamps = new long[90];
+            final long[] machineIds = new long[90];
+            final long[] sequences = new long[90];
+            parser.parse(buffer, timestamps, machineIds, sequences, 0);
+            Assertions.assertFalse(buffer.hasRemaining());
+
+            for (int i = 0; i < 90; i++) {
+                final SnowflakeParser.Result expected = parser.parse(ids[i + 10]);
+                Assertions.assertEquals(expected.getTimestamp(), timestamps[i]);
+                Assertions.assertEquals(expected.getMachineId(), machineIds[i]);
+                Assertions.assertEquals(expected.getSequence(), sequences[i]);
+            }
+        }
+    }
+}
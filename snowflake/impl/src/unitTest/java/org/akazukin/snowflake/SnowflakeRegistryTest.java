@@ -0,0 +1,100 @@
+package org.akazukin.snowflake;
+
+import org.akazukin.snowflake.clock.ManualClock;
+import org.akazukin.snowflake.config.ISnowflakeConfig;
+import org.akazukin.snowflake.config.SnowflakeConfig;
+import org.akazukin.snowflake.generator.ISnowflake;
+import org.akazukin.snowflake.generator.SnowflakeOptions;
+import org.akazukin.snowflake.generator.SnowflakeRegistry;
+import org.akazukin.snowflake.parser.SnowflakeParser;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+public final class SnowflakeRegistryTest {
+    private static final SnowflakeConfig EVEN = new SnowflakeConfig(1_000, 500, (byte) 10, (byte) 12);
+    private static final SnowflakeConfig ODD = new SnowflakeConfig(2_000, 0, (byte) 4, (byte) 8);
+
+    private static ISnowflakeConfig configOf(final int key) {
+        // Equal layouts given by distinct instances
+        return key % 2 == 0 ? new SnowflakeConfig(1_000, 500, (byte) 10, (byte) 12) : ODD;
+    }
+
+    @Test
+    void testLazyAndShared() {
+        final ManualClock clock = new ManualClock(10_000);
+        final SnowflakeRegistry<Integer> registry = new SnowflakeRegistry<>(SnowflakeRegistryTest::configOf, 3, 1_000,
+                SnowflakeOptions.DEFAULT.withClock(clock));
+        Assertions.assertEquals(0, registry.size());
+
+        for (int key = 0; key < 10_000; key++) {
+            registry.get(key).nextId();
+        }
+        Assertions.assertEquals(10_000, registry.size());
+        Assertions.assertEquals(2, registry.layoutCount());
+        Assertions.assertSame(registry.get(42), registry.get(42));
+
+        final SnowflakeParser even = new SnowflakeParser(EVEN);
+        final SnowflakeParser odd = new SnowflakeParser(ODD);
+        final long[] ids = new long[5_000];
+        registry.get(2).nextIds(ids, 0, ids.length);
+        final Set<Long> seen = new HashSet<>();
+        for (final long id : ids) {
+            Assertions.assertTrue(seen.add(id));
+            Assertions.assertEquals(3, even.machineIdOf(id));
+        }
+        // Exhausted sequences borrow the next milliseconds
+        Assertions.assertEquals(10_001, even.epochMillisOf(ids[ids.length - 1]));
+
+        final long id = registry.get(7).nextId();
+        Assertions.assertEquals(10_000, odd.epochMillisOf(id));
+        Assertions.assertEquals(3, odd.machineIdOf(id));
+        Assertions.assertEquals(1, odd.sequenceOf(id));
+    }
+
+    @Test
+    void testEviction() {
+        final ManualClock clock = new ManualClock(10_000);
+        final SnowflakeRegistry<String> registry = new SnowflakeRegistry<>(key -> EVEN, 1, 10,
+                SnowflakeOptions.DEFAULT.withClock(clock));
+        final ISnowflake stale = registry.get("stale");
+        final long first = stale.nextId();
+        registry.get("busy").nextId();
+
+        clock.advance(10);
+        registry.get("busy").nextId();
+        Assertions.assertEquals(0, registry.evictIdle());
+
+        clock.advance(1);
+        Assertions.assertEquals(1, registry.evictIdle());
+        Assertions.assertEquals(1, registry.size());
+
+        // A caller holding an evicted generator moves over to the new one
+        final long next = stale.nextId();
+        Assertions.assertTrue(next > first);
+        Assertions.assertEquals(2, registry.size());
+        Assertions.assertNotSame(stale, registry.get("stale"));
+        Assertions.assertTrue(registry.get("stale").nextId() > next);
+
+        // Sweeps also run when generators are created
+        clock.advance(100);
+        registry.get("new");
+        Assertions.assertEquals(1, registry.size());
+    }
+
+    @Test
+    void testValidation() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new SnowflakeRegistry<String>(key -> EVEN, -1, 10));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new SnowflakeRegistry<String>(key -> EVEN, 1, 0));
+
+        // Long enough an idle time that no sweep evicts the unused generator in between
+        final SnowflakeRegistry<Integer> registry = new SnowflakeRegistry<>(SnowflakeRegistryTest::configOf, 100, 60_000);
+        Assertions.assertNotNull(registry.get(0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> registry.get(1));
+        Assertions.assertEquals(1, registry.size());
+    }
+}
@@ -0,0 +1,106 @@
+package org.akazukin.snowflake;
+
+import org.akazukin.snowflake.clock.ManualClock;
+import org.akazukin.snowflake.collection.SnowflakeSorter;
+import org.akazukin.snowflake.config.SnowflakeConfig;
+import org.akazukin.snowflake.generator.AtomicSnowflake;
+import org.akazukin.snowflake.generator.ISnowflake;
+import org.akazukin.snowflake.generator.SnowflakeOptions;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public final class SnowflakeSorterTest {
+    private static final SnowflakeConfig CONFIG = new SnowflakeConfig(1_000, 500, (byte) 10, (byte) 12);
+    private static final SnowflakeSorter SORTER = new SnowflakeSorter(CONFIG);
+
+    /**
+     * Returns shuffled IDs of several nodes, issued over the given number of milliseconds.
+     */
+    private static long[] batch(final Random random, final int n, final int millis) {
+        final ManualClock clock = new ManualClock(1_700_000_000_000L);
+        final ISnowflake[] nodes = new ISnowflake[16];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = new AtomicSnowflake(CONFIG, i * 37, SnowflakeOptions.DEFAULT.withClock(clock));
+        }
+        final long[] ids = new long[n];
+        for (int i = 0; i < n; i++) {
+            if (random.nextInt(n / millis + 1) == 0) {
+                clock.advance(1);
+            }
+            ids[i] = nodes[random.nextInt(nodes.length)].nextId();
+        }
+        for (int i = n - 1; i > 0; i--) {
+            final int j = random.nextInt(i + 1);
+            final long id = ids[i];
+            ids[i] = ids[j];
+            ids[j] = id;
+        }
+        return ids;
+    }
+
+    private static void assertSorts(final long[] ids) {
+        final long[] expected = ids.clone();
+        Arrays.sort(expected);
+
+        final long[] actual = ids.clone();
+        SORTER.sort(actual);
+        Assertions.assertArrayEquals(expected, actual);
+
+        final long[] parallel = ids.clone();
+        SORTER.parallelSort(parallel);
+        Assertions.assertArrayEquals(expected, parallel);
+    }
+
+    @Test
+    void testSort() {
+        final Random random = new Random(42);
+        for (final int n : new int[]{0, 1, 100, 1_000, 100_000, 300_000}) {
+            assertSorts(batch(random, n, 1));
+            assertSorts(batch(random, n, 60_000));
+        }
+    }
+
+    @Test
+    void testArbitraryValues() {
+        final Random random = new Random(7);
+        final long[] ids = new long[200_000];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = random.nextLong();
+        }
+        ids[0] = Long.MIN_VALUE;
+        ids[1] = Long.MAX_VALUE;
+        assertSorts(ids);
+
+        // A single varying bit, and no varying bit
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = 1L << 40 | (random.nextBoolean() ? 1L << 20 : 0);
+        }
+        assertSorts(ids);
+        Arrays.fill(ids, 12_345);
+        assertSorts(ids);
+    }
+
+    @Test
+    void testRangeAndScratch() {
+        final long[] ids = batch(new Random(1), 100_000, 100);
+        final long[] expected = ids.clone();
+        Arrays.sort(expected, 1_000, 99_000);
+
+        final long[] scratch = new long[98_000];
+        final long[] actual = ids.clone();
+        SORTER.sort(actual, 1_000, 99_000, scratch);
+        Assertions.assertArrayEquals(expected, actual);
+        final long[] parallel = ids.clone();
+        SORTER.parallelSort(parallel, 1_000, 99_000, scratch);
+        Assertions.assertArrayEquals(expected, parallel);
+
+        Assertions.assertEquals(Constants.EX_ILLEGAL_SCRATCH, Assertions.assertThrows(IllegalArgumentException.class,
+                () -> SORTER.sort(ids, 0, ids.length, scratch)).getMessage());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> SORTER.sort(ids, 2, 1));
+        Assertions.assertThrows(ArrayIndexOutOfBoundsException.class, () -> SORTER.sort(ids, -1, 1));
+        Assertions.assertThrows(ArrayIndexOutOfBoundsException.class, () -> SORTER.parallelSort(ids, 0, ids.length + 1));
+    }
+}
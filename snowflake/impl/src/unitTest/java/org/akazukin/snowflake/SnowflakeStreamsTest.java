@@ -0,0 +1,79 @@
+package org.akazukin.snowflake;
+
+import org.akazukin.snowflake.clock.ManualClock;
+import org.akazukin.snowflake.config.SnowflakeConfig;
+import org.akazukin.snowflake.generator.AtomicSnowflake;
+import org.akazukin.snowflake.generator.ISnowflake;
+import org.akazukin.snowflake.generator.LockFreeSnowflake;
+import org.akazukin.snowflake.generator.SnowflakeOptions;
+import org.akazukin.snowflake.generator.SnowflakeStreams;
+import org.akazukin.snowflake.generator.ThreadedSnowflake;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicLong;
+
+public final class SnowflakeStreamsTest {
+    private static final SnowflakeConfig CONFIG = new SnowflakeConfig(1_000, 500, (byte) 10, (byte) 12);
+    private static final int COUNT = 100_003;
+
+    @Test
+    void testParallelStream() {
+        for (final ISnowflake gen : Arrays.asList(
+                new AtomicSnowflake(CONFIG, 1),
+                new LockFreeSnowflake(CONFIG, 1),
+                new ThreadedSnowflake(CONFIG, 1, 4))) {
+            final long[] ids = SnowflakeStreams.stream(gen, COUNT, true).toArray();
+            Assertions.assertEquals(COUNT, ids.length);
+            Assertions.assertEquals(COUNT, Arrays.stream(ids).distinct().count());
+
+            // The generator continues after the reserved chunks
+            final long next = gen.nextId();
+            Assertions.assertTrue(Arrays.stream(ids).allMatch(id -> id != next));
+        }
+        Assertions.assertEquals(0, SnowflakeStreams.stream(new AtomicSnowflake(CONFIG, 1), 0, true).count());
+    }
+
+    @Test
+    void testSortedStream() {
+        final ManualClock clock = new ManualClock(10_000);
+        final ISnowflake gen = new LockFreeSnowflake(CONFIG, 1, SnowflakeOptions.DEFAULT.withClock(clock));
+        final long first = gen.nextId();
+
+        final long[] ids = SnowflakeStreams.sortedStream(gen, COUNT, true).toArray();
+        Assertions.assertEquals(COUNT, ids.length);
+        Assertions.assertTrue(ids[0] > first);
+        for (int i = 1; i < ids.length; i++) {
+            Assertions.assertTrue(ids[i - 1] < ids[i]);
+        }
+        Assertions.assertTrue(gen.nextId() > ids[COUNT - 1]);
+
+        final Spliterator.OfLong spliterator = SnowflakeStreams.sortedSpliterator(gen, 10);
+        Assertions.assertTrue(spliterator.hasCharacteristics(Spliterator.SORTED | Spliterator.SIZED));
+        Assertions.assertNull(spliterator.getComparator());
+        final Spliterator.OfLong prefix = spliterator.trySplit();
+        Assertions.assertEquals(5, prefix.estimateSize());
+        Assertions.assertEquals(5, spliterator.estimateSize());
+    }
+
+    @Test
+    void testSortedStreamOfOtherGenerator() {
+        final AtomicLong counter = new AtomicLong();
+        final ISnowflake gen = counter::incrementAndGet;
+
+        final long[] ids = SnowflakeStreams.sortedStream(gen, COUNT, true).toArray();
+        Assertions.assertEquals(COUNT, ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            Assertions.assertEquals(i + 1, ids[i]);
+        }
+    }
+
+    @Test
+    void testNegativeCount() {
+        final ISnowflake gen = new AtomicSnowflake(CONFIG, 1);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> SnowflakeStreams.stream(gen, -1, false));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> SnowflakeStreams.sortedStream(gen, -1, false));
+    }
+}
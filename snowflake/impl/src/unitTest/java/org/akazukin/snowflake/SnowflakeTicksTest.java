@@ -0,0 +1,134 @@
+package org.akazukin.snowflake;
+
+import org.akazukin.snowflake.clock.ManualClock;
+import org.akazukin.snowflake.config.SnowflakeConfig;
+import org.akazukin.snowflake.config.SnowflakeTicks;
+import org.akazukin.snowflake.generator.ClockRegressionPolicy;
+import org.akazukin.snowflake.generator.ISnowflake;
+import org.akazukin.snowflake.generator.SnowflakeMetrics;
+import org.akazukin.snowflake.generator.SnowflakeOptions;
+import org.akazukin.snowflake.parser.SnowflakeIdRanges;
+import org.akazukin.snowflake.parser.SnowflakeParser;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.Function;
+
+public final class SnowflakeTicksTest {
+    // Four identifiers per tick
+    private static final SnowflakeConfig MICROS = new SnowflakeConfig(1_000, 500, (byte) 10, (byte) 2, 100);
+    private static final SnowflakeConfig MILLIS = new SnowflakeConfig(1_000, 500, (byte) 10, (byte) 2, 10_000);
+
+    @Test
+    void testConversions() {
+        final ManualClock clock = new ManualClock(10_000);
+
+        final SnowflakeTicks micros = SnowflakeTicks.of(MICROS);
+        Assertions.assertEquals(85_000, micros.now(clock));
+        clock.advanceMicros(250);
+        Assertions.assertEquals(85_002, micros.now(clock));
+        Assertions.assertEquals(10_000, micros.toEpochMillis(85_002));
+        Assertions.assertEquals(10_000_200, micros.toEpochMicros(85_002));
+        Assertions.assertEquals(10_000, micros.lastEpochMillisOf(85_002));
+        Assertions.assertEquals(85_000, micros.floorTickOf(10_000));
+        Assertions.assertEquals(85_010, micros.ceilTickOf(10_001));
+        Assertions.assertEquals(50, micros.toTicks(5));
+        Assertions.assertEquals(2, micros.toMillis(15));
+        Assertions.assertEquals(Long.MAX_VALUE, micros.toTicks(Long.MAX_VALUE));
+
+        final SnowflakeTicks millis = SnowflakeTicks.of(MILLIS);
+        Assertions.assertEquals(850, millis.now(clock));
+        Assertions.assertEquals(10_000, millis.toEpochMillis(850));
+        Assertions.assertEquals(10_009, millis.lastEpochMillisOf(850));
+        Assertions.assertEquals(850, millis.floorTickOf(10_009));
+        Assertions.assertEquals(851, millis.ceilTickOf(10_001));
+        Assertions.assertEquals(2, millis.toTicks(25));
+        Assertions.assertEquals(30, millis.toMillis(3));
+
+        final SnowflakeTicks seconds = SnowflakeTicks.of(new SnowflakeConfig(1_000, 500, (byte) 10, (byte) 12, 1_000_000));
+        Assertions.assertEquals(8, seconds.now(clock));
+        Assertions.assertEquals(9_500, seconds.toEpochMillis(8));
+
+        final SnowflakeTicks standard = SnowflakeTicks.of(new SnowflakeConfig(1_000, 500, (byte) 10, (byte) 12));
+        Assertions.assertEquals(8_500, standard.now(clock));
+        Assertions.assertEquals(10_000, standard.toEpochMillis(8_500));
+        Assertions.assertEquals(10_000, standard.lastEpochMillisOf(8_500));
+        Assertions.assertEquals(8_500, standard.ceilTickOf(10_000));
+    }
+
+    @Test
+    void testGenerators() {
+        final SnowflakeParser micros = new SnowflakeParser(MICROS);
+        final SnowflakeParser millis = new SnowflakeParser(MILLIS);
+        final List<Function<SnowflakeOptions, ISnowflake>> microsFactories = Generators.factories(MICROS);
+        final List<Function<SnowflakeOptions, ISnowflake>> millisFactories = Generators.factories(MILLIS);
+        for (int i = 0; i < Generators.COUNT; i++) {
+            ManualClock clock = new ManualClock(10_000);
+            ISnowflake gen = microsFactories.get(i).apply(SnowflakeOptions.DEFAULT.withClock(clock));
+            final long[] ids = new long[8];
+            gen.nextIds(ids, 0, ids.length);
+            Assertions.assertEquals(10_000_000, micros.epochMicrosOf(ids[3]));
+            Assertions.assertEquals(10_000_100, micros.epochMicrosOf(ids[4]));
+            clock.advanceMicros(1_000);
+            final long id = gen.nextId();
+            Assertions.assertEquals(10_001_000, micros.epochMicrosOf(id));
+            Assertions.assertEquals(0, micros.sequenceOf(id));
+
+            clock = new ManualClock(10_000);
+            gen = millisFactories.get(i).apply(SnowflakeOptions.DEFAULT.withClock(clock));
+            gen.nextIds(ids, 0, 4);
+            clock.advance(5);
+            Assertions.assertEquals(10_000, millis.epochMillisOf(ids[3]));
+            Assertions.assertEquals(10_010, millis.epochMillisOf(gen.nextId()));
+            clock.advance(20);
+            Assertions.assertEquals(10_020, millis.epochMillisOf(gen.nextId()));
+        }
+    }
+
+    @Test
+    void testBorrowInTicks() {
+        for (final Function<SnowflakeOptions, ISnowflake> factory : Generators.factories(MILLIS)) {
+            // Two ticks of ten milliseconds
+            final ISnowflake gen = factory.apply(SnowflakeOptions.DEFAULT
+                    .withClock(new ManualClock(10_000)).withRegressionPolicy(ClockRegressionPolicy.failFast(25)));
+            gen.nextIds(new long[12], 0, 12);
+            Assertions.assertThrows(IllegalStateException.class, gen::nextId);
+        }
+    }
+
+    @Test
+    void testBorrowedMillisInTicks() {
+        for (final SnowflakeConfig config : new SnowflakeConfig[]{MILLIS, MICROS}) {
+            for (final Function<SnowflakeOptions, ISnowflake> factory : Generators.factories(config)) {
+                final ManualClock clock = new ManualClock(10_000);
+                final ClockRegressionPolicy policy = ClockRegressionPolicy.unbounded();
+                final SnowflakeMetrics metrics = SnowflakeMetrics.enabled();
+                final ISnowflake gen = factory.apply(SnowflakeOptions.DEFAULT
+                        .withClock(clock).withRegressionPolicy(policy).withMetrics(metrics));
+
+                // Borrows the next tick in two consecutive ticks
+                gen.nextIds(new long[8], 0, 8);
+                clock.advanceMicros(config == MILLIS ? 10_000 : 100);
+                gen.nextIds(new long[4], 0, 4);
+
+                // Ten milliseconds per tick, or the one millisecond both ticks lie in
+                final long expected = config == MILLIS ? 20 : 1;
+                Assertions.assertEquals(expected, policy.getBorrowedMillis());
+                Assertions.assertEquals(expected, metrics.getBorrowedMillis());
+            }
+        }
+    }
+
+    @Test
+    void testRangesAndValidation() {
+        final SnowflakeIdRanges ranges = new SnowflakeIdRanges(MILLIS);
+        final SnowflakeParser parser = new SnowflakeParser(MILLIS);
+        Assertions.assertEquals(10_000, parser.epochMillisOf(ranges.minId(10_005)));
+        Assertions.assertEquals(10_000, parser.epochMillisOf(ranges.maxId(10_005)));
+        Assertions.assertEquals(3, parser.sequenceOf(ranges.maxId(10_005)));
+
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> new SnowflakeParser(new SnowflakeConfig(1_000, 500, (byte) 10, (byte) 12, 0)));
+    }
+}
@@ -1,16 +1,24 @@
 package org.akazukin.snowflake;
 
+import org.akazukin.snowflake.clock.ManualClock;
 import org.akazukin.snowflake.config.ISnowflakeConfig;
+import org.akazukin.snowflake.config.SnowflakeConfig;
 import org.akazukin.snowflake.config.SnowflakeConfigUtils;
 import org.akazukin.snowflake.generator.ISnowflake;
+import org.akazukin.snowflake.generator.ISnowflakeLease;
+import org.akazukin.snowflake.generator.SnowflakeOptions;
 import org.akazukin.snowflake.generator.ThreadedSnowflake;
+import org.akazukin.snowflake.parser.SnowflakeParser;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -77,6 +85,121 @@ public final class ThreadedSnowflakeTest {
         Assertions.assertEquals(gens * threads, ids.size());
     }
 
+    @Test
+    void testNextIds() {
+        final ISnowflake gen = new ThreadedSnowflake(new SnowflakeConfig(0, 0, (byte) 2, (byte) 2), 2, 2);
+
+        final long[] ids = new long[102];
+        gen.nextIds(ids, 1, 100);
+        Assertions.assertEquals(0L, ids[0]);
+        Assertions.assertEquals(0L, ids[101]);
+        for (int i = 2; i <= 100; i++) {
+            Assertions.assertTrue(ids[i] > ids[i - 1]);
+        }
+        Assertions.assertTrue(gen.nextId() > ids[100]);
+
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> gen.nextIds(ids, 100, 3));
+    }
+
+    @Test
+    void testLease() {
+        final ISnowflake gen = new ThreadedSnowflake(new SnowflakeConfig(0, 0, (byte) 2, (byte) 2), 2, 2);
+
+        final ISnowflakeLease lease = gen.lease(100);
+        Assertions.assertEquals(100, lease.remaining());
+        long prev = lease.nextLong();
+        while (lease.hasNext()) {
+            final long id = lease.nextLong();
+            Assertions.assertTrue(id > prev);
+            prev = id;
+        }
+        Assertions.assertEquals(0, lease.remaining());
+        Assertions.assertTrue(gen.nextId() > prev);
+
+        Assertions.assertFalse(gen.lease(0).hasNext());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> gen.lease(-1));
+    }
+
+    @Test
+    void testAdaptive() throws Throwable {
+        final ManualClock clock = new ManualClock(10_000);
+        final SnowflakeConfig cfg = new SnowflakeConfig(0, 0, (byte) 4, (byte) 8);
+        final SnowflakeParser parser = new SnowflakeParser(cfg);
+        final ThreadedSnowflake gen = new ThreadedSnowflake(cfg, 2, 5, 100, SnowflakeOptions.DEFAULT.withClock(clock));
+        Assertions.assertEquals(1, gen.getPoolSize());
+        Assertions.assertEquals(4, gen.getMaxPoolSize());
+        Assertions.assertEquals(2, parser.machineIdOf(gen.nextId()));
+
+        // Grows once the threads keep finding the slot held
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        final Set<Long> ids = ConcurrentHashMap.newKeySet();
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        final List<Future<?>> tasks = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            tasks.add(executor.submit(() -> {
+                while (gen.getPoolSize() == 1 && System.nanoTime() < deadline) {
+                    gen.nextId();
+                }
+                for (int i = 0; i < 20_000; i++) {
+                    ids.add(gen.nextId());
+                }
+            }));
+        }
+        executor.shutdown();
+        for (final Future<?> task : tasks) {
+            try {
+                task.get();
+            } catch (final ExecutionException e) {
+                throw e.getCause();
+            }
+        }
+        Assertions.assertTrue(gen.getPoolSize() > 1);
+        Assertions.assertTrue(gen.getContentions() >= 64);
+        Assertions.assertEquals(80_000, ids.size());
+        for (final long id : ids) {
+            final long machineId = parser.machineIdOf(id);
+            Assertions.assertTrue(machineId >= 2 && machineId <= 5);
+        }
+
+        // Shrinks by one slot per idle period once the clock caught up with the borrowed ticks
+        clock.advance(TimeUnit.HOURS.toMillis(1));
+        for (int i = 0; i < 4; i++) {
+            clock.advance(101);
+            Assertions.assertTrue(ids.add(gen.nextId()));
+        }
+        Assertions.assertEquals(1, gen.getPoolSize());
+        Assertions.assertEquals(2, parser.machineIdOf(gen.nextId()));
+    }
+
+    @Test
+    void testAdaptiveIllegalRange() {
+        final SnowflakeConfig cfg = new SnowflakeConfig(0, 0, (byte) 2, (byte) 2);
+        Assertions.assertEquals(Constants.EX_ILLEGAL_MACHINE_RANGE, Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new ThreadedSnowflake(cfg, 2, 1, 100, SnowflakeOptions.DEFAULT)).getMessage());
+        Assertions.assertEquals(Constants.EX_ILLEGAL_MACHINE_NUM_BIGGER, Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new ThreadedSnowflake(cfg, 2, 4, 100, SnowflakeOptions.DEFAULT)).getMessage());
+        Assertions.assertEquals(Constants.EX_ILLEGAL_IDLE_MILLIS, Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new ThreadedSnowflake(cfg, 0, 3, 0, SnowflakeOptions.DEFAULT)).getMessage());
+    }
+
+    @Test
+    void testPoolSizeNotPositive() {
+        final IllegalArgumentException ex = Assertions.assertThrows(IllegalArgumentException.class, () -> {
+            new ThreadedSnowflake(new SnowflakeConfig(0, 0, (byte) 2, (byte) 2), 0L, 0);
+        });
+
+        Assertions.assertEquals(Constants.EX_ILLEGAL_POOL_SIZE, ex.getMessage());
+    }
+
+    @Test
+    void testPoolExceedsMachineIds() {
+        final IllegalArgumentException ex = Assertions.assertThrows(IllegalArgumentException.class, () -> {
+            new ThreadedSnowflake(new SnowflakeConfig(0, 0, (byte) 2, (byte) 2), 1L, 4);
+        });
+
+        Assertions.assertEquals(Constants.EX_ILLEGAL_MACHINE_NUM_BIGGER, ex.getMessage());
+    }
+
     @Test
     void testTooManyBits() {
         final IllegalStateException ex = Assertions.assertThrows(IllegalStateException.class, () -> {
@@ -0,0 +1,82 @@
+package org.akazukin.snowflake;
+
+import org.akazukin.snowflake.clock.ManualClock;
+import org.akazukin.snowflake.config.SnowflakeConfig;
+import org.akazukin.snowflake.generator.AtomicSnowflake;
+import org.akazukin.snowflake.generator.ISnowflake;
+import org.akazukin.snowflake.generator.SnowflakeOptions;
+import org.akazukin.snowflake.generator.TimestampCheckpoint;
+import org.akazukin.snowflake.parser.SnowflakeParser;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.function.Function;
+
+public final class TimestampCheckpointTest {
+    private static final SnowflakeConfig CONFIG = new SnowflakeConfig(1_000, 500, (byte) 10, (byte) 12);
+    private static final SnowflakeParser PARSER = new SnowflakeParser(CONFIG);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testAmortizedWrites() throws IOException {
+        final ManualClock clock = new ManualClock(10_000);
+        try (TimestampCheckpoint checkpoint = TimestampCheckpoint.mapped(this.dir.resolve("mark"), 1_000)) {
+            Assertions.assertEquals(0, checkpoint.getMark());
+            final ISnowflake gen = new AtomicSnowflake(CONFIG, 1,
+                    SnowflakeOptions.DEFAULT.withClock(clock).withCheckpoint(checkpoint));
+
+            for (int i = 0; i <= 1_000; i++) {
+                gen.nextId();
+                clock.advance(1);
+            }
+            Assertions.assertEquals(1, checkpoint.getWrites());
+            Assertions.assertEquals(11_001, checkpoint.getMark());
+
+            // Crossing the mark moves it a window ahead
+            gen.nextId();
+            Assertions.assertEquals(2, checkpoint.getWrites());
+            Assertions.assertEquals(12_002, checkpoint.getMark());
+        }
+    }
+
+    @Test
+    void testResumeAboveMark() throws IOException {
+        final Path file = this.dir.resolve("mark");
+        for (final Function<SnowflakeOptions, ISnowflake> factory : Generators.factories(CONFIG)) {
+            final ManualClock clock = new ManualClock(20_000);
+            long last;
+            try (TimestampCheckpoint checkpoint = TimestampCheckpoint.mapped(file, 100)) {
+                final ISnowflake gen = factory.apply(SnowflakeOptions.DEFAULT.withClock(clock).withCheckpoint(checkpoint));
+                final long[] ids = new long[10_000];
+                gen.nextIds(ids, 0, ids.length);
+                last = ids[ids.length - 1];
+                gen.nextId();
+            }
+
+            // Restarted with a clock that is behind
+            clock.set(15_000);
+            try (TimestampCheckpoint checkpoint = TimestampCheckpoint.mapped(file, 100)) {
+                final long mark = checkpoint.getMark();
+                Assertions.assertTrue(PARSER.epochMillisOf(last) < mark);
+
+                final ISnowflake gen = factory.apply(SnowflakeOptions.DEFAULT.withClock(clock).withCheckpoint(checkpoint));
+                final long id = gen.nextId();
+                Assertions.assertTrue(id > last);
+                Assertions.assertEquals(mark, PARSER.epochMillisOf(id));
+                Assertions.assertEquals(0, PARSER.sequenceOf(id));
+            }
+        }
+    }
+
+    @Test
+    void testNone() {
+        Assertions.assertEquals(0, TimestampCheckpoint.none().getMark());
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> TimestampCheckpoint.mapped(this.dir.resolve("mark"), 0));
+    }
+}
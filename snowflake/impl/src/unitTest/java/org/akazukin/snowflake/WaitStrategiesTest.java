@@ -0,0 +1,46 @@
+package org.akazukin.snowflake;
+
+import org.akazukin.snowflake.generator.IWaitStrategy;
+import org.akazukin.snowflake.generator.WaitStrategies;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public final class WaitStrategiesTest {
+    @Test
+    void testBackoffIsBounded() {
+        final IWaitStrategy strategy = WaitStrategies.backoff(2, 2, TimeUnit.MICROSECONDS.toNanos(50));
+
+        final long start = System.nanoTime();
+        for (int i = 0; i < 100; i++) {
+            strategy.idle(i);
+        }
+        Assertions.assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(10));
+
+        // Large attempt counts must not overflow the park time
+        strategy.idle(Integer.MAX_VALUE);
+        WaitStrategies.adaptive().idle(Integer.MAX_VALUE);
+    }
+
+    @Test
+    void testBackoffKeepsParkingAtLargeAttempts() {
+        final long maxParkNanos = TimeUnit.MILLISECONDS.toNanos(20);
+        final IWaitStrategy strategy = WaitStrategies.backoff(0, 0, maxParkNanos);
+
+        // Attempts whose doubled park time would overflow must still park for the longest time
+        for (final int attempt : new int[]{53, 54, 58, 60, 61, 62, 63, 126, Integer.MAX_VALUE}) {
+            final long start = System.nanoTime();
+            strategy.idle(attempt);
+            Assertions.assertTrue(System.nanoTime() - start >= maxParkNanos / 2, "attempt " + attempt);
+        }
+    }
+
+    @Test
+    void testIllegalArguments() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> WaitStrategies.parking(0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> WaitStrategies.backoff(-1, 0, 1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> WaitStrategies.backoff(0, -1, 1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> WaitStrategies.backoff(0, 0, 0));
+    }
+}